@@ -0,0 +1,70 @@
+// Compares the platform-thread and virtual-thread request modes under many concurrent slow requests.
+//
+// Start the API once per mode and run the same profile against each:
+//   mvn spring-boot:run -Dspring-boot.run.profiles=dev -Dspring-boot.run.arguments=--spring.threads.virtual.enabled=false
+//   mvn spring-boot:run -Dspring-boot.run.profiles=dev -Dspring-boot.run.arguments=--spring.threads.virtual.enabled=true
+//   k6 run -e MODE=platform load-test/request-modes.js
+//   k6 run -e MODE=virtual load-test/request-modes.js
+//
+// PROJECT_ID and CLIENT_ID default to the sample data; point them at an imported project with a few thousand
+// activities to make the exports and large pages slow enough to matter.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8090';
+const MODE = __ENV.MODE || 'unknown';
+const PROJECT_ID = __ENV.PROJECT_ID || '5b3cb947-bff0-49f0-a332-4f5fae93e5be';
+const CLIENT_ID = __ENV.CLIENT_ID || 'f6888a87-b49f-49a1-b3db-56998ee81657';
+const ACTIVITY_ID = __ENV.ACTIVITY_ID || '7d4032e0-8ecf-4b2e-ac2d-597953a29701';
+const SLOW_VUS = parseInt(__ENV.SLOW_VUS || '2000');
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        slow: {
+            executor: 'ramping-vus',
+            exec: 'slowRequests',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: SLOW_VUS },
+                { duration: DURATION, target: SLOW_VUS },
+                { duration: '15s', target: 0 },
+            ],
+        },
+        fast: {
+            executor: 'constant-arrival-rate',
+            exec: 'fastRequests',
+            rate: 200,
+            timeUnit: '1s',
+            duration: '2m45s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{kind:fast}': ['p(99)<1000'],
+        'http_req_duration{kind:slow}': ['p(99)<30000'],
+    },
+    tags: { mode: MODE },
+};
+
+export function slowRequests() {
+    const response = Math.random() < 0.5
+        ? http.get(`${BASE_URL}/activity/export/project/${PROJECT_ID}`, { tags: { kind: 'slow', name: 'export' } })
+        : http.get(`${BASE_URL}/activity/all/${PROJECT_ID}?size=1000&count=exact`, { tags: { kind: 'slow', name: 'large-page' } });
+
+    // 503 is the limiter shedding load in virtual-thread mode; back off as its Retry-After asks.
+    check(response, { 'served': r => r.status === 200, 'shed': r => r.status === 503 });
+    if (response.status === 503) {
+        sleep(parseInt(response.headers['Retry-After'] || '1'));
+    }
+}
+
+export function fastRequests() {
+    const response = Math.random() < 0.5
+        ? http.get(`${BASE_URL}/activity/id/${ACTIVITY_ID}`, { tags: { kind: 'fast', name: 'activity' } })
+        : http.get(`${BASE_URL}/client/id/${CLIENT_ID}`, { tags: { kind: 'fast', name: 'client' } });
+
+    check(response, { 'served': r => r.status === 200, 'shed': r => r.status === 503 });
+}
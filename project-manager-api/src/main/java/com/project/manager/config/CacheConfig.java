@@ -0,0 +1,30 @@
+package com.project.manager.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+    public static final String CLIENTS_CACHE = "clients";
+    public static final String PROJECTS_CACHE = "projects";
+    public static final String ACTIVITIES_CACHE = "activities";
+
+    // Evictions inside a transaction wait for its commit; evicting earlier would let a concurrent read cache the row
+    // the transaction is about to replace.
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.setCacheSpecification(cacheProperties.getCaffeine().getSpec());
+        caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
@@ -0,0 +1,62 @@
+package com.project.manager.config;
+
+import com.project.manager.exception.ServiceOverloaded;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds how many {@link ConnectionLimited} handlers run at once. With virtual threads Tomcat no longer caps
+ * concurrency, so thousands of slow requests would otherwise queue inside Hikari holding every connection, and the
+ * short requests behind them would time out. The permits are kept below the pool size so the unmarked handlers
+ * always find a connection. A permit taken by an async request (exports) is kept until the async dispatch
+ * completes, since the streaming body still holds its connection.
+ */
+public class ConnectionLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private final static String LEGEND_SERVICE_OVERLOADED = "Too many concurrent requests, retry later";
+    private final static String PERMIT_ATTRIBUTE = ConnectionLimitInterceptor.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public ConnectionLimitInterceptor(int maxConcurrentRequests, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)
+                || !handlerMethod.hasMethodAnnotation(ConnectionLimited.class)) {
+            return true;
+        }
+
+        if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new ServiceOverloaded(LEGEND_SERVICE_OVERLOADED);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.manager.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler that holds a connection for long (lists, exports, imports, batch and bulk writes). In the
+ * virtual-thread mode these handlers share a bounded number of permits, see {@link ConnectionLimitInterceptor}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConnectionLimited {
+}
@@ -3,11 +3,18 @@ package com.project.manager.config;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @OpenAPIDefinition(info = @Info(title = "Project Manager API"))
 @Configuration
+@EnableScheduling
 public class GeneralConfig {
     public static final String PAGINATION_DEFAULT_PAGE_VALUE = "0";
     public static final String PAGINATION_DEFAULT_SIZE_VALUE = "10";
+    public static final String PAGINATION_DEFAULT_COUNT_VALUE = "exact";
+    public static final int BATCH_MAX_SIZE = 5000;
+    public static final String EXPORT_DEFAULT_FORMAT_VALUE = "ndjson";
+    public static final String EXPORT_FETCH_SIZE = "1000";
+    public static final String JDBC_REPOSITORY_TIMER = "jdbc.repository.invocations";
 
 }
@@ -0,0 +1,68 @@
+package com.project.manager.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestIdFilter> requestIdFilter() {
+        FilterRegistrationBean<RequestIdFilter> registration = new FilterRegistrationBean<>(new RequestIdFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+
+        return registration;
+    }
+
+    @Bean
+    public TaskDecorator requestIdTaskDecorator() {
+        return runnable -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    runnable.run();
+                } finally {
+                    MDC.clear();
+                }
+            };
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "project-manager.sql-log.enabled", matchIfMissing = true)
+    public static BeanPostProcessor sqlLoggingDataSourcePostProcessor(
+            @Value("${project-manager.sql-log.sample-rate}") double sampleRate,
+            @Value("${project-manager.sql-log.slow-threshold}") Duration slowThreshold) {
+        SqlStatementListener listener = new SqlStatementListener(sampleRate, slowThreshold);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .proxyResultSet()
+                            .listener(listener)
+                            .methodListener(listener)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
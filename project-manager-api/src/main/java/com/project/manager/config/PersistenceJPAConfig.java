@@ -1,5 +1,6 @@
 package com.project.manager.config;
 
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import jakarta.persistence.EntityManagerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,4 +15,10 @@ public class PersistenceJPAConfig {
             EntityManagerFactory entityManagerFactory) {
         return new JpaTransactionManager(entityManagerFactory);
     }
+
+    @Bean
+    public Hibernate6Module hibernateModule() {
+        return new Hibernate6Module()
+                .configure(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS, true);
+    }
 }
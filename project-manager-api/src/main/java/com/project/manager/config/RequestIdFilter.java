@@ -0,0 +1,38 @@
+package com.project.manager.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Tags everything logged while serving a request, SQL statements included, with a request id. The caller's
+ * {@value #REQUEST_ID_HEADER} is reused when it looks sane so a trace can be followed across services, otherwise a new
+ * one is generated; either way it is echoed back in the response.
+ */
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public final static String REQUEST_ID_HEADER = "X-Request-Id";
+    public final static String REQUEST_ID_KEY = "requestId";
+    private final static Pattern VALID_REQUEST_ID = Pattern.compile("[\\w.-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(REQUEST_ID_KEY, requestId)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.project.manager.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one structured line per JDBC statement with its normalized SQL, number of bound values, execution time and
+ * rows.
+ * Statements slower than the threshold are always written as warnings; the rest only for the sampled share of
+ * requests, decided from the request id so a sampled request shows all of its statements. For everything else the
+ * cost is a comparison per statement and an empty map check per result set call. The rows of a query are only known
+ * once its result set has been read, so its line is written when the result set is closed, either by itself or along
+ * with its statement or connection.
+ */
+public class SqlStatementListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private final static Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+    private final static String LOG_FORMAT = "sql durationMs={} rows={} binds={} batch={} statement=\"{}\"";
+    private final static Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private final static Pattern WHITESPACE = Pattern.compile("\\s+");
+    private final static int SAMPLING_BUCKETS = 10_000;
+    private final static int UNKNOWN_ROWS = -1;
+    private final static String NEXT = "next";
+    private final static String CLOSE = "close";
+
+    private final int sampledBuckets;
+    private final long slowThresholdMillis;
+    private final Map<ResultSet, Execution> openResultSets = new ConcurrentHashMap<>();
+
+    public SqlStatementListener(double sampleRate, Duration slowThreshold) {
+        this.sampledBuckets = (int) Math.round(Math.min(Math.max(sampleRate, 0.0), 1.0) * SAMPLING_BUCKETS);
+        this.slowThresholdMillis = slowThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList) {
+        boolean slow = executionInfo.getElapsedTime() >= slowThresholdMillis;
+        if (!slow && !isSampled(MDC.get(RequestIdFilter.REQUEST_ID_KEY))) {
+            return;
+        }
+
+        Execution execution = new Execution(executionInfo, queryInfoList, slow);
+        if (executionInfo.getResult() instanceof ResultSet resultSet) {
+            openResultSets.put(target(resultSet), execution);
+        } else {
+            execution.rows = updatedRows(executionInfo.getResult());
+            write(execution);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (openResultSets.isEmpty()) {
+            return;
+        }
+
+        Object target = executionContext.getTarget();
+        String method = executionContext.getMethod().getName();
+        if (target instanceof ResultSet resultSet) {
+            if (NEXT.equals(method) && Boolean.TRUE.equals(executionContext.getResult())) {
+                Execution execution = openResultSets.get(resultSet);
+                if (execution != null) {
+                    execution.rows++;
+                }
+            } else if (CLOSE.equals(method)) {
+                Execution execution = openResultSets.remove(resultSet);
+                if (execution != null) {
+                    write(execution);
+                }
+            }
+        } else if (CLOSE.equals(method) && target instanceof Statement statement) {
+            closeResultSets(execution -> execution.source == statement);
+        } else if (CLOSE.equals(method) && target instanceof Connection) {
+            String connectionId = executionContext.getConnectionInfo().getConnectionId();
+            closeResultSets(execution -> connectionId.equals(execution.connectionId));
+        }
+    }
+
+    int openResultSetCount() {
+        return openResultSets.size();
+    }
+
+    boolean isSampled(String requestId) {
+        if (sampledBuckets == 0 || sampledBuckets == SAMPLING_BUCKETS) {
+            return sampledBuckets == SAMPLING_BUCKETS;
+        }
+        int bucket = requestId == null
+                ? ThreadLocalRandom.current().nextInt(SAMPLING_BUCKETS)
+                : Math.floorMod(requestId.hashCode(), SAMPLING_BUCKETS);
+
+        return bucket < sampledBuckets;
+    }
+
+    static String normalize(String sql) {
+        return WHITESPACE.matcher(LITERALS.matcher(sql).replaceAll("?")).replaceAll(" ").trim();
+    }
+
+    private void closeResultSets(Predicate<Execution> closed) {
+        openResultSets.forEach((resultSet, execution) -> {
+            if (closed.test(execution) && openResultSets.remove(resultSet, execution)) {
+                write(execution);
+            }
+        });
+    }
+
+    private static ResultSet target(ResultSet resultSet) {
+        return resultSet instanceof ProxyJdbcObject proxy ? (ResultSet) proxy.getTarget() : resultSet;
+    }
+
+    private static long updatedRows(Object result) {
+        if (result instanceof Number rows) {
+            return rows.longValue();
+        }
+        if (result instanceof int[] batchRows) {
+            return Arrays.stream(batchRows).filter(rows -> rows > 0).asLongStream().sum();
+        }
+        if (result instanceof long[] batchRows) {
+            return Arrays.stream(batchRows).filter(rows -> rows > 0).sum();
+        }
+        return UNKNOWN_ROWS;
+    }
+
+    private static void write(Execution execution) {
+        if (execution.slow) {
+            log.warn(LOG_FORMAT, execution.durationMillis, execution.rows, execution.binds, execution.batchSize,
+                    execution.statement);
+        } else {
+            log.info(LOG_FORMAT, execution.durationMillis, execution.rows, execution.binds, execution.batchSize,
+                    execution.statement);
+        }
+    }
+
+    private static class Execution {
+        private final String statement;
+        private final Statement source;
+        private final String connectionId;
+        private final int binds;
+        private final int batchSize;
+        private final long durationMillis;
+        private final boolean slow;
+        private long rows;
+
+        private Execution(ExecutionInfo executionInfo, List<QueryInfo> queryInfoList, boolean slow) {
+            this.statement = queryInfoList.stream()
+                    .map(queryInfo -> normalize(queryInfo.getQuery()))
+                    .collect(Collectors.joining("; "));
+            this.source = executionInfo.getStatement();
+            this.connectionId = executionInfo.getConnectionId();
+            this.binds = queryInfoList.stream()
+                    .flatMap(queryInfo -> queryInfo.getParametersList().stream())
+                    .mapToInt(List::size)
+                    .sum();
+            this.batchSize = executionInfo.getBatchSize();
+            this.durationMillis = executionInfo.getElapsedTime();
+            this.slow = slow;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.manager.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Settings of the virtual-thread mode, spring.threads.virtual.enabled=true. Spring Boot then runs on virtual threads
+ * the Tomcat requests, the application task executor behind the async exports and the background client deletions,
+ * and the task scheduler behind the purge, archival and suggestion reload jobs. None of them is declared here, so no
+ * bean of the application may replace that executor or scheduler. Only the request handlers are limited in the
+ * connections they take; the jobs and deletions draw on the reserved ones.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public ConnectionLimitInterceptor connectionLimitInterceptor(DataSource dataSource,
+                                                                 @Value("${project-manager.connection-limit.reserved-connections}")
+                                                                 int reservedConnections,
+                                                                 @Value("${project-manager.connection-limit.acquire-timeout}")
+                                                                 Duration acquireTimeout) {
+        HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+
+        return new ConnectionLimitInterceptor(Math.max(1, pool.getMaximumPoolSize() - reservedConnections),
+                acquireTimeout);
+    }
+
+    @Bean
+    public MeterBinder connectionLimitMetrics(ConnectionLimitInterceptor connectionLimitInterceptor) {
+        return registry -> Gauge.builder("connection.limit.permits.available", connectionLimitInterceptor,
+                        ConnectionLimitInterceptor::availablePermits)
+                .description("Permits left for the @ConnectionLimited handlers")
+                .register(registry);
+    }
+}
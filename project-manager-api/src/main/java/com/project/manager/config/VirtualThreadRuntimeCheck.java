@@ -0,0 +1,21 @@
+package com.project.manager.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Refuses to start when spring.threads.virtual.enabled=true is set on a runtime older than Java 21. Spring Boot would
+ * otherwise ignore the flag and run on platform threads without the {@link VirtualThreadConfig} limiter.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@ConditionalOnJava(range = ConditionalOnJava.Range.OLDER_THAN, value = JavaVersion.TWENTY_ONE)
+public class VirtualThreadRuntimeCheck {
+
+    public VirtualThreadRuntimeCheck() {
+        throw new IllegalStateException("spring.threads.virtual.enabled=true needs a Java 21 runtime, running on "
+                + System.getProperty("java.version"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.project.manager.config;
+
+import com.project.manager.convert.StringToEnumConvert;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ConnectionLimitInterceptor> connectionLimitInterceptor;
+
+    public WebConfig(ObjectProvider<ConnectionLimitInterceptor> connectionLimitInterceptor) {
+        this.connectionLimitInterceptor = connectionLimitInterceptor;
+    }
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverterFactory(new StringToEnumConvert());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        connectionLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .excludePathPatterns("/actuator/**", "/swagger-ui/**", "/v3/api-docs/**"));
+    }
+}
@@ -0,0 +1,6 @@
+package com.project.manager.constant;
+
+public enum CountModeEnum {
+
+    EXACT, ESTIMATE, NONE
+}
@@ -0,0 +1,18 @@
+package com.project.manager.constant;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+public enum ExportFormatEnum {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"), CSV(new MediaType("text", "csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    private ExportFormatEnum(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,6 @@
+package com.project.manager.constant;
+
+public enum SearchTypeEnum {
+
+    PROJECT, ACTIVITY
+}
@@ -5,11 +5,33 @@ import lombok.Getter;
 @Getter
 public enum StatusEnum {
 
-    OPEN("O"), FINISHED("F");
+    OPEN("O"), IN_PROGRESS("P"), BLOCKED("B"), FINISHED("F"), CANCELLED("C");
+
+    private final static StatusEnum[] BY_CODE = new StatusEnum[128];
+
+    static {
+        for (StatusEnum status : values()) {
+            BY_CODE[status.code.charAt(0)] = status;
+        }
+    }
 
     private final String code;
 
     private StatusEnum(String code) {
         this.code = code;
     }
+
+    public static StatusEnum fromCode(String code) {
+        if (code == null || code.length() != 1) {
+            throw new IllegalArgumentException();
+        }
+
+        char codeChar = code.charAt(0);
+        StatusEnum status = codeChar < BY_CODE.length ? BY_CODE[codeChar] : null;
+        if (status == null) {
+            throw new IllegalArgumentException();
+        }
+
+        return status;
+    }
 }
@@ -1,18 +1,35 @@
 package com.project.manager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.manager.config.ConnectionLimited;
 import com.project.manager.config.GeneralConfig;
+import com.project.manager.constant.CountModeEnum;
+import com.project.manager.constant.ExportFormatEnum;
 import com.project.manager.constant.StatusEnum;
 import com.project.manager.dto.ActivityAddRequestDto;
+import com.project.manager.dto.ActivityResponseDto;
 import com.project.manager.dto.ActivityUpdateRequestDto;
+import com.project.manager.dto.BulkStatusRequestDto;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.PageCursor;
 import com.project.manager.dto.PageRecordDto;
+import com.project.manager.dto.SlicePageRecordDto;
 import com.project.manager.entity.ActivityEntity;
+import com.project.manager.entity.ClientEntity;
+import com.project.manager.entity.ProjectEntity;
+import com.project.manager.mapper.ActivityMapper;
+import com.project.manager.projection.ActivityProjection;
 import com.project.manager.service.ActivityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,11 +42,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RestController
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -39,22 +62,38 @@ public class ActivityController {
     private final static String LEGEND_ACTIVITY_NOT_FOUND = "Activity not found";
     private final static String LEGEND_ACTIVITY_MODIFIED = "Activity has been modified";
     private final static String LEGEND_ACTIVITY_DELETED = "Activity has been deleted";
+    private final static List<String> ACTIVITY_CSV_HEADER = List.of("id", "description", "status", "creation_date",
+            "update_date", "project_id", "project_description");
 
     private final ActivityService activityService;
+    private final ActivityMapper activityMapper;
+    private final ObjectMapper objectMapper;
 
-    public ActivityController(ActivityService activityService) {
+    public ActivityController(ActivityService activityService, ActivityMapper activityMapper, ObjectMapper objectMapper) {
         this.activityService = activityService;
+        this.activityMapper = activityMapper;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Returns an activity given its id", description = "Returns an activity")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given entity tag"),
     })
     @GetMapping("/id/{id}")
-    public ResponseEntity<Object> getActivityById(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<Object> getActivityById(@PathVariable(value = "id") UUID id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> entityTag = activityService.findVersionTagById(id).map(EntityTag::of);
+            if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag.get()).build();
+            }
+        }
+
         Optional<ActivityEntity> activityEntityOptional = activityService.findById(id);
         return activityEntityOptional.
-                <ResponseEntity<Object>>map(activityEntity -> ResponseEntity.status(HttpStatus.OK).body(activityEntity))
+                <ResponseEntity<Object>>map(activityEntity -> ResponseEntity.status(HttpStatus.OK)
+                        .eTag(entityTag(activityEntity))
+                        .body(activityEntity))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_ACTIVITY_NOT_FOUND));
     }
 
@@ -62,36 +101,70 @@ public class ActivityController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
     })
+    @ConnectionLimited
     @GetMapping("/all/{projectid}/{status}")
-    public ResponseEntity<PageRecordDto> getAllActivitiesByProjectIdAndStatus(@PathVariable(value = "projectid") UUID projectId,
-                                                                              @PathVariable(value = "status") StatusEnum status,
-                                                                              @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
-                                                                              @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size) {
+    public ResponseEntity<Object> getAllActivitiesByProjectIdAndStatus(@PathVariable(value = "projectid") UUID projectId,
+                                                                       @PathVariable(value = "status") StatusEnum status,
+                                                                       @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
+                                                                       @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size,
+                                                                       @RequestParam(required = false) String after,
+                                                                       @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_COUNT_VALUE) CountModeEnum count) {
 
-        Page<ActivityEntity> pagedActivities = activityService.findByProjectIdAndStatus(PageRequest.of(page, size), projectId, status);
-        PageRecordDto clientPageRecordDto = new PageRecordDto(pagedActivities.getNumber(), pagedActivities.getTotalElements(),
-                pagedActivities.getTotalPages(), pagedActivities.getContent());
+        if (after != null) {
+            Slice<ActivityResponseDto> slicedActivities = activityService.findByProjectIdAndStatusAfter(PageRequest.ofSize(size),
+                    projectId, status, PageCursor.decode(after))
+                    .map(activityMapper::toResponse);
+
+            return ResponseEntity.status(HttpStatus.OK).body(CursorPageRecordDto.of(slicedActivities,
+                    activity -> new PageCursor(activity.creationDate(), activity.id()).encode()));
+        }
 
-        return ResponseEntity.status(HttpStatus.OK).body(clientPageRecordDto);
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Object pageRecordDto = switch (count) {
+            case NONE -> SlicePageRecordDto.of(activityService.findSliceByProjectIdAndStatus(pageRequest, projectId, status)
+                    .map(activityMapper::toResponse));
+            case ESTIMATE -> PageRecordDto.of(activityService.findEstimatedByProjectIdAndStatus(pageRequest, projectId, status)
+                    .map(activityMapper::toResponse));
+            case EXACT -> PageRecordDto.of(activityService.findByProjectIdAndStatus(pageRequest, projectId, status)
+                    .map(activityMapper::toResponse));
+        };
+
+        return ResponseEntity.status(HttpStatus.OK).body(pageRecordDto);
     }
 
     @Operation(summary = "Returns all activities of a project per page", description = "Returns all activity of a project")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
     })
+    @ConnectionLimited
     @GetMapping("/all/{projectid}")
-    public ResponseEntity<PageRecordDto> getAllActivitiesByProjectId(@PathVariable(value = "projectid") UUID projectId,
-                                                                     @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
-                                                                     @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size) {
+    public ResponseEntity<Object> getAllActivitiesByProjectId(@PathVariable(value = "projectid") UUID projectId,
+                                                              @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
+                                                              @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_COUNT_VALUE) CountModeEnum count) {
 
-        Page<ActivityEntity> pagedActivities = activityService.findByProjectId(PageRequest.of(page, size), projectId);
-        PageRecordDto clientPageRecordDto = new PageRecordDto(pagedActivities.getNumber(), pagedActivities.getTotalElements(),
-                pagedActivities.getTotalPages(), pagedActivities.getContent());
+        if (after != null) {
+            Slice<ActivityResponseDto> slicedActivities = activityService.findByProjectIdAfter(PageRequest.ofSize(size),
+                    projectId, PageCursor.decode(after))
+                    .map(activityMapper::toResponse);
 
-        return ResponseEntity.status(HttpStatus.OK).body(clientPageRecordDto);
-    }
+            return ResponseEntity.status(HttpStatus.OK).body(CursorPageRecordDto.of(slicedActivities,
+                    activity -> new PageCursor(activity.creationDate(), activity.id()).encode()));
+        }
 
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Object pageRecordDto = switch (count) {
+            case NONE -> SlicePageRecordDto.of(activityService.findSliceByProjectId(pageRequest, projectId)
+                    .map(activityMapper::toResponse));
+            case ESTIMATE -> PageRecordDto.of(activityService.findEstimatedByProjectId(pageRequest, projectId)
+                    .map(activityMapper::toResponse));
+            case EXACT -> PageRecordDto.of(activityService.findByProjectId(pageRequest, projectId)
+                    .map(activityMapper::toResponse));
+        };
 
+        return ResponseEntity.status(HttpStatus.OK).body(pageRecordDto);
+    }
 
     @Operation(summary = "Add activity", description = "Allows adding a activity record")
     @ApiResponses(value = {
@@ -110,39 +183,88 @@ public class ActivityController {
         return ResponseEntity.status(HttpStatus.CREATED).body(activityService.add(projectId, activity));
     }
 
+    @Operation(summary = "Add activities in batch", description = "Allows adding many activity records to a project at once")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Activities created")
+    })
+    @ConnectionLimited
+    @PostMapping(value = "/add/project/{projectid}/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<Object> addActivities(@PathVariable(value = "projectid") UUID projectId,
+                                                @RequestBody @NotEmpty @Size(max = GeneralConfig.BATCH_MAX_SIZE)
+                                                List<@Valid ActivityAddRequestDto> activityDtos) {
+        List<ActivityEntity> activities = activityDtos.stream()
+                .map(activityDto -> ActivityEntity.builder()
+                        .description(activityDto.getDescription())
+                        .build())
+                .toList();
+
+        List<ActivityResponseDto> addedActivities = activityService.addAll(projectId, activities).stream()
+                .map(activityMapper::toResponse)
+                .toList();
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(addedActivities);
+    }
+
     @Operation(summary = "Modify a activity record given its id", description = "Modify a activity record given its id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = LEGEND_ACTIVITY_MODIFIED),
             @ApiResponse(responseCode = "404", description = LEGEND_ACTIVITY_NOT_FOUND),
+            @ApiResponse(responseCode = "412", description = "The If-Match entity tag is no longer current"),
+            @ApiResponse(responseCode = "422", description = "Another activity of the project has the description"),
     })
     @PutMapping("/{id}")
     public ResponseEntity<Object> updateActivityById(@PathVariable(value = "id") UUID id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                      @RequestBody @Valid ActivityUpdateRequestDto activityUpdateRequestDto) {
-        Optional<ActivityEntity> activityOptional = activityService.findById(id);
-
-        if (activityOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_ACTIVITY_NOT_FOUND);
-        }
-
-        ActivityEntity activity = activityOptional.get();
-        activity.setDescription(activityUpdateRequestDto.getDescription());
-        activity.setStatus(activityUpdateRequestDto.getStatus());
+        ActivityEntity activity = ActivityEntity.builder()
+                .description(activityUpdateRequestDto.getDescription())
+                .status(activityUpdateRequestDto.getStatus())
+                .build();
 
-        return ResponseEntity.status(HttpStatus.OK).body(activityService.update(activity));
+        String expectedVersionTag = EntityTag.expectedVersionTag(ifMatch);
+        return activityService.update(id, activity, expectedVersionTag).
+                <ResponseEntity<Object>>map(updatedActivity -> ResponseEntity.status(HttpStatus.OK).body(updatedActivity))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_ACTIVITY_NOT_FOUND));
     }
 
     @PatchMapping("/{id}/status/{status}")
     public ResponseEntity<Object> updateStatusActivityById(@PathVariable(value = "id") UUID id,
-                                                           @PathVariable(value = "status") StatusEnum status) {
-        Optional<ActivityEntity> activityOptional = activityService.findById(id);
-
-        if (activityOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_ACTIVITY_NOT_FOUND);
-        }
+                                                           @PathVariable(value = "status") StatusEnum status,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        String expectedVersionTag = EntityTag.expectedVersionTag(ifMatch);
+        return activityService.updateStatus(id, status, expectedVersionTag).
+                <ResponseEntity<Object>>map(legend -> ResponseEntity.status(HttpStatus.OK).body(legend))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_ACTIVITY_NOT_FOUND));
+    }
 
-        return ResponseEntity.status(HttpStatus.OK).body(activityService.updateStatus(id, status));
+    @Operation(summary = "Change the status of many activities", description = "Changes the status of the given activities")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of activities whose status changed"),
+    })
+    @ConnectionLimited
+    @PatchMapping("/status/{status}")
+    public ResponseEntity<Object> updateStatusActivities(@PathVariable(value = "status") StatusEnum status,
+                                                         @RequestBody @Valid BulkStatusRequestDto bulkStatusRequestDto) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(activityService.updateStatus(bulkStatusRequestDto.getIds(), status));
     }
 
+    @Operation(summary = "Change the status of the activities of a project",
+            description = "Changes the status of every activity of a project, optionally only those in a given status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of activities whose status changed"),
+    })
+    @ConnectionLimited
+    @PatchMapping("/all/{projectid}/status/{status}")
+    public ResponseEntity<Object> updateStatusActivitiesByProjectId(@PathVariable(value = "projectid") UUID projectId,
+                                                                    @PathVariable(value = "status") StatusEnum status,
+                                                                    @RequestParam(required = false) StatusEnum from) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(activityService.updateStatusByProjectId(projectId, from, status));
+    }
 
     @Operation(summary = "Delete a activity given their id", description = "Delete a activity record by giving its id")
     @ApiResponses(value = {
@@ -151,14 +273,65 @@ public class ActivityController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteClientById(@PathVariable(value = "id") UUID id) {
-        Optional<ActivityEntity> activityOptional = activityService.findById(id);
-
-        if (activityOptional.isEmpty()) {
+        if (!activityService.delete(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_ACTIVITY_NOT_FOUND);
         }
 
-        activityService.delete(activityOptional.get());
-
         return ResponseEntity.status(HttpStatus.OK).body(LEGEND_ACTIVITY_DELETED);
     }
+
+    @Operation(summary = "Export all activities of a project", description = "Streams every activity of a project as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported"),
+    })
+    @ConnectionLimited
+    @GetMapping("/export/project/{projectid}")
+    public ResponseEntity<StreamingResponseBody> exportActivitiesByProjectId(@PathVariable(value = "projectid") UUID projectId,
+                                                                             @RequestParam(defaultValue = GeneralConfig.EXPORT_DEFAULT_FORMAT_VALUE) ExportFormatEnum format) {
+        return exportActivities(format, consumer -> activityService.exportByProjectId(projectId, consumer));
+    }
+
+    @Operation(summary = "Export all activities of a client", description = "Streams every activity of every project of a client as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported"),
+    })
+    @ConnectionLimited
+    @GetMapping("/export/client/{clientid}")
+    public ResponseEntity<StreamingResponseBody> exportActivitiesByClientId(@PathVariable(value = "clientid") UUID clientId,
+                                                                            @RequestParam(defaultValue = GeneralConfig.EXPORT_DEFAULT_FORMAT_VALUE) ExportFormatEnum format) {
+        return exportActivities(format, consumer -> activityService.exportByClientId(clientId, consumer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportActivities(ExportFormatEnum format,
+                                                              Consumer<Consumer<ActivityProjection>> export) {
+        StreamingResponseBody body = outputStream -> {
+            try (ExportWriter<ActivityResponseDto> writer = new ExportWriter<>(outputStream, format, objectMapper,
+                    ACTIVITY_CSV_HEADER, ActivityController::toCsvRow)) {
+                export.accept(activity -> writer.write(activityMapper.toResponse(activity)));
+            }
+        };
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("activities." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static List<?> toCsvRow(ActivityResponseDto activity) {
+        ActivityResponseDto.ProjectRefDto project = activity.project();
+
+        return Arrays.asList(activity.id(), activity.description(), activity.status(), activity.creationDate(),
+                activity.updateDate(), project == null ? null : project.id(), project == null ? null : project.description());
+    }
+
+    private static String entityTag(ActivityEntity activity) {
+        ProjectEntity project = activity.getProject();
+        ClientEntity client = project == null ? null : project.getClient();
+
+        return EntityTag.of(activity.getVersion(), project == null ? null : project.getVersion(),
+                client == null ? null : client.getVersion());
+    }
 }
@@ -1,16 +1,25 @@
 package com.project.manager.controller;
 
+import com.project.manager.config.ConnectionLimited;
 import com.project.manager.config.GeneralConfig;
+import com.project.manager.constant.CountModeEnum;
 import com.project.manager.dto.ClientDto;
+import com.project.manager.dto.ClientResponseDto;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.PageCursor;
 import com.project.manager.dto.PageRecordDto;
+import com.project.manager.dto.SlicePageRecordDto;
 import com.project.manager.entity.ClientEntity;
+import com.project.manager.mapper.ClientMapper;
+import com.project.manager.service.ClientDeletionService;
 import com.project.manager.service.ClientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,8 +31,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -36,21 +47,50 @@ public class ClientController {
     private final static String LEGEND_CLIENT_NOT_FOUND = "Client not found";
     private final static String LEGEND_CLIENT_MODIFIED = "Client has been modified";
     private final static String LEGEND_CLIENT_DELETED = "Client has been deleted";
+    private final static String LEGEND_CLIENT_DELETION_NOT_FOUND = "No recent deletion of the client";
     private final ClientService clientService;
+    private final ClientDeletionService clientDeletionService;
+    private final ClientMapper clientMapper;
 
-    public ClientController(ClientService clientService) {
+    public ClientController(ClientService clientService, ClientDeletionService clientDeletionService,
+                            ClientMapper clientMapper) {
         this.clientService = clientService;
+        this.clientDeletionService = clientDeletionService;
+        this.clientMapper = clientMapper;
     }
 
     @Operation(summary = "Returns a client given its id", description = "Returns a client")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given entity tag"),
     })
     @GetMapping("/id/{id}")
-    public ResponseEntity<Object> getClientById(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<Object> getClientById(@PathVariable(value = "id") UUID id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> entityTag = clientService.findVersionTagById(id).map(EntityTag::of);
+            if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag.get()).build();
+            }
+        }
+
         Optional<ClientEntity> clientEntityOptional = clientService.findById(id);
         return clientEntityOptional.
-                <ResponseEntity<Object>>map(userEntity -> ResponseEntity.status(HttpStatus.OK).body(userEntity))
+                <ResponseEntity<Object>>map(userEntity -> ResponseEntity.status(HttpStatus.OK)
+                        .eTag(EntityTag.of(userEntity.getVersion()))
+                        .body(userEntity))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_CLIENT_NOT_FOUND));
+    }
+
+    @Operation(summary = "Returns the projects and activities of a client per status",
+            description = "Returns counters kept up to date on every write, without scanning projects or activities")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "404", description = LEGEND_CLIENT_NOT_FOUND),
+    })
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<Object> getClientSummaryById(@PathVariable(value = "id") UUID id) {
+        return clientService.findSummaryById(id).
+                <ResponseEntity<Object>>map(summary -> ResponseEntity.status(HttpStatus.OK).body(summary))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_CLIENT_NOT_FOUND));
     }
 
@@ -58,13 +98,31 @@ public class ClientController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
     })
+    @ConnectionLimited
     @GetMapping("/all")
-    public ResponseEntity<PageRecordDto> getAllClients(@RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
-                                                       @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size) {
+    public ResponseEntity<Object> getAllClients(@RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
+                                                @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_COUNT_VALUE) CountModeEnum count) {
+
+        if (after != null) {
+            Slice<ClientResponseDto> slicedClients = clientService.findAllAfter(PageRequest.ofSize(size),
+                    PageCursor.decode(after))
+                    .map(clientMapper::toResponse);
+
+            return ResponseEntity.status(HttpStatus.OK).body(CursorPageRecordDto.of(slicedClients,
+                    client -> new PageCursor(client.creationDate(), client.id()).encode()));
+        }
 
-        Page<ClientEntity> pagedClients = clientService.findAll(PageRequest.of(page, size));
-        PageRecordDto pageRecordDto = new PageRecordDto(pagedClients.getNumber(), pagedClients.getTotalElements(),
-                pagedClients.getTotalPages(), pagedClients.getContent());
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Object pageRecordDto = switch (count) {
+            case NONE -> SlicePageRecordDto.of(clientService.findSliceAll(pageRequest)
+                    .map(clientMapper::toResponse));
+            case ESTIMATE -> PageRecordDto.of(clientService.findEstimatedAll(pageRequest)
+                    .map(clientMapper::toResponse));
+            case EXACT -> PageRecordDto.of(clientService.findAll(pageRequest)
+                    .map(clientMapper::toResponse));
+        };
 
         return ResponseEntity.status(HttpStatus.OK).body(pageRecordDto);
     }
@@ -89,36 +147,56 @@ public class ClientController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = LEGEND_CLIENT_MODIFIED),
             @ApiResponse(responseCode = "404", description = LEGEND_CLIENT_NOT_FOUND),
+            @ApiResponse(responseCode = "412", description = "The If-Match entity tag is no longer current"),
     })
     @PutMapping("/{id}")
     public ResponseEntity<Object> updateClientById(@PathVariable(value = "id") UUID id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                    @RequestBody @Valid ClientDto clientDto) {
-        Optional<ClientEntity> clientOptional = clientService.findById(id);
-
-        if (clientOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_CLIENT_NOT_FOUND);
-        }
+        ClientEntity client = ClientEntity.builder()
+                .name(clientDto.getName())
+                .build();
 
-        ClientEntity client = clientOptional.get();
-        client.setName(clientDto.getName());
-        return ResponseEntity.status(HttpStatus.OK).body(clientService.save(client));
+        String expectedVersionTag = EntityTag.expectedVersionTag(ifMatch);
+        return clientService.update(id, client, expectedVersionTag).
+                <ResponseEntity<Object>>map(updatedClient -> ResponseEntity.status(HttpStatus.OK).body(updatedClient))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_CLIENT_NOT_FOUND));
     }
 
-    @Operation(summary = "Delete a client given their id", description = "Delete a client record by giving its id")
+    @Operation(summary = "Delete a client given their id", description = "Delete a client record by giving its id, " +
+            "with its projects and activities. Large clients can be deleted in the background in batches with async")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = LEGEND_CLIENT_DELETED),
+            @ApiResponse(responseCode = "202", description = "Deletion started, its progress is at the Location header"),
             @ApiResponse(responseCode = "404", description = LEGEND_CLIENT_NOT_FOUND),
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteClientById(@PathVariable(value = "id") UUID id) {
-        Optional<ClientEntity> clientOptional = clientService.findById(id);
-
-        if (clientOptional.isEmpty()) {
+    public ResponseEntity<Object> deleteClientById(@PathVariable(value = "id") UUID id,
+                                                   @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            return clientDeletionService.start(id)
+                    .<ResponseEntity<Object>>map(deletion -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .header(HttpHeaders.LOCATION, "/client/" + id + "/deletion")
+                            .body(deletion))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_CLIENT_NOT_FOUND));
+        }
+        if (!clientService.delete(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_CLIENT_NOT_FOUND);
         }
 
-        clientService.delete(clientOptional.get());
-
         return ResponseEntity.status(HttpStatus.OK).body(LEGEND_CLIENT_DELETED);
     }
+
+    @Operation(summary = "Returns the progress of a client deletion started with async",
+            description = "Returns the projects and activities deleted so far, kept for an hour after the deletion ends")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "404", description = LEGEND_CLIENT_DELETION_NOT_FOUND),
+    })
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<Object> getClientDeletionById(@PathVariable(value = "id") UUID id) {
+        return clientDeletionService.findById(id).
+                <ResponseEntity<Object>>map(deletion -> ResponseEntity.status(HttpStatus.OK).body(deletion))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_CLIENT_DELETION_NOT_FOUND));
+    }
 }
@@ -0,0 +1,48 @@
+package com.project.manager.controller;
+
+import com.project.manager.exception.VersionMismatch;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class EntityTag {
+
+    private final static String LEGEND_UNKNOWN_ENTITY_TAG = "The If-Match header does not hold a known entity tag";
+    private final static Pattern VERSIONS = Pattern.compile("\\d+(\\.\\d+)*");
+
+    private EntityTag() {
+    }
+
+    static String of(Long... versions) {
+        return of(Stream.of(versions)
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .collect(Collectors.joining(".")));
+    }
+
+    static String of(String versionTag) {
+        return '"' + versionTag + '"';
+    }
+
+    // A tag joins the versions of the entity and its parents. The update compares it as a whole with the tag of the row
+    // it writes, so here it is only checked to be one this API could have issued.
+    static String expectedVersionTag(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String versionTag = ifMatch.trim();
+        if (versionTag.length() < 2 || !versionTag.startsWith("\"") || !versionTag.endsWith("\"")) {
+            throw new VersionMismatch(LEGEND_UNKNOWN_ENTITY_TAG);
+        }
+
+        String versions = versionTag.substring(1, versionTag.length() - 1);
+        if (!VERSIONS.matcher(versions).matches()) {
+            throw new VersionMismatch(LEGEND_UNKNOWN_ENTITY_TAG);
+        }
+
+        return versions;
+    }
+}
@@ -0,0 +1,76 @@
+package com.project.manager.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.manager.constant.ExportFormatEnum;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+class ExportWriter<T> implements Closeable {
+
+    private final Writer writer;
+    private final ExportFormatEnum format;
+    private final ObjectMapper objectMapper;
+    private final Function<T, List<?>> csvRow;
+
+    ExportWriter(OutputStream outputStream, ExportFormatEnum format, ObjectMapper objectMapper,
+                 List<String> csvHeader, Function<T, List<?>> csvRow) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.csvRow = csvRow;
+
+        if (format == ExportFormatEnum.CSV) {
+            writeCsvLine(csvHeader);
+        }
+    }
+
+    void write(T item) {
+        try {
+            switch (format) {
+                case NDJSON -> {
+                    writer.write(objectMapper.writeValueAsString(item));
+                    writer.write('\n');
+                }
+                case CSV -> writeCsvLine(csvRow.apply(item));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(toCsvField(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String toCsvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String field = value.toString();
+        if (field.chars().noneMatch(c -> c == ',' || c == '"' || c == '\r' || c == '\n')) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+}
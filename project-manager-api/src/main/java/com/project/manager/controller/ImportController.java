@@ -0,0 +1,65 @@
+package com.project.manager.controller;
+
+import com.project.manager.config.ConnectionLimited;
+import com.project.manager.service.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/import")
+public class ImportController {
+
+    private final static String TEXT_CSV_VALUE = "text/csv";
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @Operation(summary = "Import clients from CSV", description = "Loads a CSV file with the columns id,name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import report with the rejected lines"),
+            @ApiResponse(responseCode = "400", description = "The file is not a readable CSV file"),
+    })
+    @ConnectionLimited
+    @PostMapping(value = "/clients", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> importClients(InputStream csv) {
+        return ResponseEntity.status(HttpStatus.OK).body(importService.importClients(csv));
+    }
+
+    @Operation(summary = "Import projects from CSV",
+            description = "Loads a CSV file with the columns id,client_id,description,status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import report with the rejected lines"),
+            @ApiResponse(responseCode = "400", description = "The file is not a readable CSV file"),
+    })
+    @ConnectionLimited
+    @PostMapping(value = "/projects", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> importProjects(InputStream csv) {
+        return ResponseEntity.status(HttpStatus.OK).body(importService.importProjects(csv));
+    }
+
+    @Operation(summary = "Import activities from CSV",
+            description = "Loads a CSV file with the columns id,project_id,description,status")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import report with the rejected lines"),
+            @ApiResponse(responseCode = "400", description = "The file is not a readable CSV file"),
+    })
+    @ConnectionLimited
+    @PostMapping(value = "/activities", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Object> importActivities(InputStream csv) {
+        return ResponseEntity.status(HttpStatus.OK).body(importService.importActivities(csv));
+    }
+}
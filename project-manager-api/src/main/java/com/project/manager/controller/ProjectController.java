@@ -1,18 +1,33 @@
 package com.project.manager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.manager.config.ConnectionLimited;
 import com.project.manager.config.GeneralConfig;
+import com.project.manager.constant.CountModeEnum;
+import com.project.manager.constant.ExportFormatEnum;
 import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.BulkStatusRequestDto;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.PageCursor;
 import com.project.manager.dto.PageRecordDto;
 import com.project.manager.dto.ProjectAddRequestDto;
+import com.project.manager.dto.ProjectDetailDto;
+import com.project.manager.dto.ProjectResponseDto;
 import com.project.manager.dto.ProjectUpdateRequestDto;
+import com.project.manager.dto.SlicePageRecordDto;
+import com.project.manager.entity.ClientEntity;
 import com.project.manager.entity.ProjectEntity;
+import com.project.manager.mapper.ProjectMapper;
+import com.project.manager.projection.ProjectProjection;
 import com.project.manager.service.ProjectService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,11 +40,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RestController
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -39,22 +60,51 @@ public class ProjectController {
     private final static String LEGEND_PROJECT_NOT_FOUND = "Project not found";
     private final static String LEGEND_PROJECT_MODIFIED = "Project has been modified";
     private final static String LEGEND_PROJECT_DELETED = "Project has been deleted";
+    private final static List<String> PROJECT_CSV_HEADER = List.of("id", "description", "status", "creation_date",
+            "update_date", "client_id", "client_name", "activity_count", "finished_activity_count");
 
     private final ProjectService projectService;
+    private final ProjectMapper projectMapper;
+    private final ObjectMapper objectMapper;
 
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, ProjectMapper projectMapper, ObjectMapper objectMapper) {
         this.projectService = projectService;
+        this.projectMapper = projectMapper;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Returns a project given its id", description = "Returns a project")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given entity tag"),
     })
     @GetMapping("/id/{id}")
-    public ResponseEntity<Object> getProjectById(@PathVariable(value = "id") UUID id) {
-        Optional<ProjectEntity> projectEntityOptional = projectService.findById(id);
-        return projectEntityOptional.
-                <ResponseEntity<Object>>map(projectEntity -> ResponseEntity.status(HttpStatus.OK).body(projectEntity))
+    public ResponseEntity<Object> getProjectById(@PathVariable(value = "id") UUID id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> entityTag = projectService.findVersionTagById(id).map(EntityTag::of);
+            if (entityTag.isPresent() && request.checkNotModified(entityTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(entityTag.get()).build();
+            }
+        }
+
+        Optional<ProjectDetailDto> projectDetailOptional = projectService.findDetailById(id);
+        return projectDetailOptional.
+                <ResponseEntity<Object>>map(projectDetail -> ResponseEntity.status(HttpStatus.OK)
+                        .eTag(entityTag(projectDetail))
+                        .body(projectDetail))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_PROJECT_NOT_FOUND));
+    }
+
+    @Operation(summary = "Returns the activities of a project per status",
+            description = "Returns counters kept up to date on every write, without scanning activities")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "404", description = LEGEND_PROJECT_NOT_FOUND),
+    })
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<Object> getProjectSummaryById(@PathVariable(value = "id") UUID id) {
+        return projectService.findSummaryById(id).
+                <ResponseEntity<Object>>map(summary -> ResponseEntity.status(HttpStatus.OK).body(summary))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_PROJECT_NOT_FOUND));
     }
 
@@ -62,44 +112,98 @@ public class ProjectController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
     })
+    @ConnectionLimited
     @GetMapping("/all/{clientid}/{status}")
-    public ResponseEntity<PageRecordDto> getAllProjectsByClientIdAndStatus(@PathVariable(value = "clientid") UUID clientId,
-                                                                           @PathVariable(value = "status") StatusEnum status,
-                                                                           @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
-                                                                           @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size) {
+    public ResponseEntity<Object> getAllProjectsByClientIdAndStatus(@PathVariable(value = "clientid") UUID clientId,
+                                                                    @PathVariable(value = "status") StatusEnum status,
+                                                                    @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
+                                                                    @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size,
+                                                                    @RequestParam(required = false) String after,
+                                                                    @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_COUNT_VALUE) CountModeEnum count) {
+
+        if (after != null) {
+            Slice<ProjectResponseDto> slicedProjects = projectService.findByClientIdAndStatusAfter(PageRequest.ofSize(size),
+                    clientId, status, PageCursor.decode(after))
+                    .map(projectMapper::toResponse);
+
+            return ResponseEntity.status(HttpStatus.OK).body(CursorPageRecordDto.of(slicedProjects,
+                    project -> new PageCursor(project.creationDate(), project.id()).encode()));
+        }
 
-        Page<ProjectEntity> pagedProjects = projectService.findByClientIdAndStatus(PageRequest.of(page, size), clientId, status);
-        PageRecordDto clientPageRecordDto = new PageRecordDto(pagedProjects.getNumber(), pagedProjects.getTotalElements(),
-                pagedProjects.getTotalPages(), pagedProjects.getContent());
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Object pageRecordDto = switch (count) {
+            case NONE -> SlicePageRecordDto.of(projectService.findSliceByClientIdAndStatus(pageRequest, clientId, status)
+                    .map(projectMapper::toResponse));
+            case ESTIMATE -> PageRecordDto.of(projectService.findEstimatedByClientIdAndStatus(pageRequest, clientId, status)
+                    .map(projectMapper::toResponse));
+            case EXACT -> PageRecordDto.of(projectService.findByClientIdAndStatus(pageRequest, clientId, status)
+                    .map(projectMapper::toResponse));
+        };
 
-        return ResponseEntity.status(HttpStatus.OK).body(clientPageRecordDto);
+        return ResponseEntity.status(HttpStatus.OK).body(pageRecordDto);
     }
 
     @Operation(summary = "Returns all projects", description = "Returns all project")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
     })
+    @ConnectionLimited
     @GetMapping("/all")
-    public ResponseEntity<PageRecordDto> getAllProjects(@RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
-                                                        @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size) {
+    public ResponseEntity<Object> getAllProjects(@RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
+                                                 @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size,
+                                                 @RequestParam(required = false) String after,
+                                                 @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_COUNT_VALUE) CountModeEnum count) {
 
-        Page<ProjectEntity> pagedProjects = projectService.findAll(PageRequest.of(page, size));
-        PageRecordDto clientPageRecordDto = new PageRecordDto(pagedProjects.getNumber(), pagedProjects.getTotalElements(),
-                pagedProjects.getTotalPages(), pagedProjects.getContent());
+        if (after != null) {
+            Slice<ProjectResponseDto> slicedProjects = projectService.findAllAfter(PageRequest.ofSize(size),
+                    PageCursor.decode(after))
+                    .map(projectMapper::toResponse);
 
-        return ResponseEntity.status(HttpStatus.OK).body(clientPageRecordDto);
+            return ResponseEntity.status(HttpStatus.OK).body(CursorPageRecordDto.of(slicedProjects,
+                    project -> new PageCursor(project.creationDate(), project.id()).encode()));
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Object pageRecordDto = switch (count) {
+            case NONE -> SlicePageRecordDto.of(projectService.findSliceAll(pageRequest)
+                    .map(projectMapper::toResponse));
+            case ESTIMATE -> PageRecordDto.of(projectService.findEstimatedAll(pageRequest)
+                    .map(projectMapper::toResponse));
+            case EXACT -> PageRecordDto.of(projectService.findAll(pageRequest)
+                    .map(projectMapper::toResponse));
+        };
+
+        return ResponseEntity.status(HttpStatus.OK).body(pageRecordDto);
     }
 
+    @ConnectionLimited
     @GetMapping("/all/status/{status}")
-    public ResponseEntity<PageRecordDto> getAllProjectsByStatus(@PathVariable(value = "status") StatusEnum status,
-                                                                @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
-                                                                @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size) {
+    public ResponseEntity<Object> getAllProjectsByStatus(@PathVariable(value = "status") StatusEnum status,
+                                                         @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_PAGE_VALUE) int page,
+                                                         @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_COUNT_VALUE) CountModeEnum count) {
+
+        if (after != null) {
+            Slice<ProjectResponseDto> slicedProjects = projectService.findAllByStatusAfter(PageRequest.ofSize(size), status,
+                    PageCursor.decode(after))
+                    .map(projectMapper::toResponse);
+
+            return ResponseEntity.status(HttpStatus.OK).body(CursorPageRecordDto.of(slicedProjects,
+                    project -> new PageCursor(project.creationDate(), project.id()).encode()));
+        }
 
-        Page<ProjectEntity> pagedProjects = projectService.findAllByStatus(PageRequest.of(page, size), status);
-        PageRecordDto clientPageRecordDto = new PageRecordDto(pagedProjects.getNumber(), pagedProjects.getTotalElements(),
-                pagedProjects.getTotalPages(), pagedProjects.getContent());
+        PageRequest pageRequest = PageRequest.of(page, size);
+        Object pageRecordDto = switch (count) {
+            case NONE -> SlicePageRecordDto.of(projectService.findSliceAllByStatus(pageRequest, status)
+                    .map(projectMapper::toResponse));
+            case ESTIMATE -> PageRecordDto.of(projectService.findEstimatedAllByStatus(pageRequest, status)
+                    .map(projectMapper::toResponse));
+            case EXACT -> PageRecordDto.of(projectService.findAllByStatus(pageRequest, status)
+                    .map(projectMapper::toResponse));
+        };
 
-        return ResponseEntity.status(HttpStatus.OK).body(clientPageRecordDto);
+        return ResponseEntity.status(HttpStatus.OK).body(pageRecordDto);
     }
 
     @Operation(summary = "Add project", description = "Allows adding a project record")
@@ -123,35 +227,47 @@ public class ProjectController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = LEGEND_PROJECT_MODIFIED),
             @ApiResponse(responseCode = "404", description = LEGEND_PROJECT_NOT_FOUND),
+            @ApiResponse(responseCode = "412", description = "The If-Match entity tag is no longer current"),
+            @ApiResponse(responseCode = "422", description = "Another project of the client has the description"),
     })
     @PutMapping("/{id}")
     public ResponseEntity<Object> updateProjectById(@PathVariable(value = "id") UUID id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                     @RequestBody @Valid ProjectUpdateRequestDto projectUpdateRequestDto) {
-        Optional<ProjectEntity> projectOptional = projectService.findById(id);
-
-        if (projectOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_PROJECT_NOT_FOUND);
-        }
-
-        ProjectEntity project = projectOptional.get();
-        project.setDescription(projectUpdateRequestDto.getDescription());
-        project.setStatus(projectUpdateRequestDto.getStatus());
+        ProjectEntity project = ProjectEntity.builder()
+                .description(projectUpdateRequestDto.getDescription())
+                .status(projectUpdateRequestDto.getStatus())
+                .build();
 
-        return ResponseEntity.status(HttpStatus.OK).body(projectService.update(project));
+        String expectedVersionTag = EntityTag.expectedVersionTag(ifMatch);
+        return projectService.update(id, project, expectedVersionTag).
+                <ResponseEntity<Object>>map(updatedProject -> ResponseEntity.status(HttpStatus.OK).body(updatedProject))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_PROJECT_NOT_FOUND));
     }
 
     @PatchMapping("/{id}/status/{status}")
     public ResponseEntity<Object> updateStatusProjectById(@PathVariable(value = "id") UUID id,
-                                                          @PathVariable(value = "status") StatusEnum status) {
-        Optional<ProjectEntity> projectOptional = projectService.findById(id);
-
-        if (projectOptional.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_PROJECT_NOT_FOUND);
-        }
-
-        return ResponseEntity.status(HttpStatus.OK).body(projectService.updateStatus(id, status));
+                                                          @PathVariable(value = "status") StatusEnum status,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        String expectedVersionTag = EntityTag.expectedVersionTag(ifMatch);
+        return projectService.updateStatus(id, status, expectedVersionTag).
+                <ResponseEntity<Object>>map(legend -> ResponseEntity.status(HttpStatus.OK).body(legend))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_PROJECT_NOT_FOUND));
     }
 
+    @Operation(summary = "Change the status of many projects",
+            description = "Changes the status of the given projects and optionally of all their activities")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of projects and activities whose status changed"),
+    })
+    @ConnectionLimited
+    @PatchMapping("/status/{status}")
+    public ResponseEntity<Object> updateStatusProjects(@PathVariable(value = "status") StatusEnum status,
+                                                       @RequestParam(defaultValue = "false") boolean cascade,
+                                                       @RequestBody @Valid BulkStatusRequestDto bulkStatusRequestDto) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(projectService.updateStatus(bulkStatusRequestDto.getIds(), status, cascade));
+    }
 
     @Operation(summary = "Delete a project given their id", description = "Delete a project record by giving its id")
     @ApiResponses(value = {
@@ -160,14 +276,55 @@ public class ProjectController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteClientById(@PathVariable(value = "id") UUID id) {
-        Optional<ProjectEntity> projectOptional = projectService.findById(id);
-
-        if (projectOptional.isEmpty()) {
+        if (!projectService.delete(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(LEGEND_PROJECT_NOT_FOUND);
         }
 
-        projectService.delete(projectOptional.get());
-
         return ResponseEntity.status(HttpStatus.OK).body(LEGEND_PROJECT_DELETED);
     }
+
+    @Operation(summary = "Export all projects of a client", description = "Streams every project of a client as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported"),
+    })
+    @ConnectionLimited
+    @GetMapping("/export/client/{clientid}")
+    public ResponseEntity<StreamingResponseBody> exportProjectsByClientId(@PathVariable(value = "clientid") UUID clientId,
+                                                                          @RequestParam(defaultValue = GeneralConfig.EXPORT_DEFAULT_FORMAT_VALUE) ExportFormatEnum format) {
+        return exportProjects(format, consumer -> projectService.exportByClientId(clientId, consumer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportProjects(ExportFormatEnum format,
+                                                              Consumer<Consumer<ProjectProjection>> export) {
+        StreamingResponseBody body = outputStream -> {
+            try (ExportWriter<ProjectResponseDto> writer = new ExportWriter<>(outputStream, format, objectMapper,
+                    PROJECT_CSV_HEADER, ProjectController::toCsvRow)) {
+                export.accept(project -> writer.write(projectMapper.toResponse(project)));
+            }
+        };
+
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("projects." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static List<?> toCsvRow(ProjectResponseDto project) {
+        ProjectResponseDto.ClientRefDto client = project.client();
+        ProjectResponseDto.ProgressDto progress = project.progress();
+
+        return Arrays.asList(project.id(), project.description(), project.status(), project.creationDate(),
+                project.updateDate(), client == null ? null : client.id(), client == null ? null : client.name(),
+                progress.activities(), progress.finished());
+    }
+
+    private static String entityTag(ProjectDetailDto projectDetail) {
+        ClientEntity client = projectDetail.project().getClient();
+
+        return EntityTag.of(projectDetail.project().getVersion(), client == null ? null : client.getVersion(),
+                (long) projectDetail.activityCount(), (long) projectDetail.finishedActivityCount());
+    }
 }
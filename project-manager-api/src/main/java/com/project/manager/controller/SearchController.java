@@ -0,0 +1,55 @@
+package com.project.manager.controller;
+
+import com.project.manager.config.ConnectionLimited;
+import com.project.manager.config.GeneralConfig;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.SearchCursor;
+import com.project.manager.dto.SearchResultDto;
+import com.project.manager.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Operation(summary = "Searches project and activity descriptions",
+            description = "Returns the best ranked matches first, optionally within a client or a project")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "400", description = "Empty or too long search text, or invalid cursor"),
+    })
+    @ConnectionLimited
+    @GetMapping
+    public ResponseEntity<Object> search(@RequestParam(value = "q") String text,
+                                         @RequestParam(required = false) UUID clientId,
+                                         @RequestParam(required = false) UUID projectId,
+                                         @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size,
+                                         @RequestParam(required = false) String after) {
+
+        Slice<SearchResultDto> results = searchService.search(PageRequest.ofSize(size), text, clientId, projectId,
+                SearchCursor.decode(after));
+
+        return ResponseEntity.status(HttpStatus.OK).body(CursorPageRecordDto.of(results,
+                result -> new SearchCursor(result.rank(), result.id()).encode()));
+    }
+}
@@ -0,0 +1,42 @@
+package com.project.manager.controller;
+
+import com.project.manager.config.GeneralConfig;
+import com.project.manager.service.SuggestionIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RequestMapping("/suggest")
+public class SuggestionController {
+
+    private final SuggestionIndex suggestionIndex;
+
+    public SuggestionController(SuggestionIndex suggestionIndex) {
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @Operation(summary = "Suggests projects and activities as the user types",
+            description = "Prefix and typo tolerant matches of the descriptions, answered from memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved"),
+            @ApiResponse(responseCode = "400", description = "Too long typed text"),
+    })
+    @GetMapping
+    public ResponseEntity<Object> suggest(@RequestParam(value = "q") String text,
+                                          @RequestParam(required = false) UUID clientId,
+                                          @RequestParam(required = false) UUID projectId,
+                                          @RequestParam(defaultValue = GeneralConfig.PAGINATION_DEFAULT_SIZE_VALUE) int size) {
+        return ResponseEntity.status(HttpStatus.OK).body(suggestionIndex.suggest(text, clientId, projectId, size));
+    }
+}
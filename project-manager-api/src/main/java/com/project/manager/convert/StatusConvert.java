@@ -4,8 +4,6 @@ import com.project.manager.constant.StatusEnum;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
-import java.util.stream.Stream;
-
 @Converter(autoApply = true)
 public class StatusConvert implements AttributeConverter<StatusEnum, String> {
 
@@ -16,9 +14,6 @@ public class StatusConvert implements AttributeConverter<StatusEnum, String> {
 
     @Override
     public StatusEnum convertToEntityAttribute(String code) {
-        return Stream.of(StatusEnum.values())
-                .filter(c -> c.getCode().equals(code))
-                .findFirst()
-                .orElseThrow(IllegalArgumentException::new);
+        return StatusEnum.fromCode(code);
     }
 }
@@ -0,0 +1,17 @@
+package com.project.manager.convert;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+
+import java.util.Locale;
+
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class StringToEnumConvert implements ConverterFactory<String, Enum> {
+
+    @Override
+    public <T extends Enum> Converter<String, T> getConverter(Class<T> targetType) {
+        return source -> source.isBlank()
+                ? null
+                : (T) Enum.valueOf(targetType, source.trim().toUpperCase(Locale.ROOT));
+    }
+}
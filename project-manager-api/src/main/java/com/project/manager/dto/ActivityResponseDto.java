@@ -0,0 +1,18 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.StatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ActivityResponseDto(UUID id,
+                                  String description,
+                                  StatusEnum status,
+                                  LocalDateTime creationDate,
+                                  LocalDateTime updateDate,
+                                  ProjectRefDto project) {
+
+    public record ProjectRefDto(UUID id,
+                                String description) {
+    }
+}
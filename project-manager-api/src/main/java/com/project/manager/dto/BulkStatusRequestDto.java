@@ -0,0 +1,22 @@
+package com.project.manager.dto;
+
+import com.project.manager.config.GeneralConfig;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BulkStatusRequestDto {
+    @NotEmpty
+    @Size(max = GeneralConfig.BATCH_MAX_SIZE)
+    private List<UUID> ids;
+}
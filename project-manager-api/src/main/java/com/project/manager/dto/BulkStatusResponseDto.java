@@ -0,0 +1,8 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.StatusEnum;
+
+public record BulkStatusResponseDto(StatusEnum status,
+                                    long projects,
+                                    long activities) {
+}
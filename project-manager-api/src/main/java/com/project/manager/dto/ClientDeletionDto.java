@@ -0,0 +1,37 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.DeletionStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ClientDeletionDto(UUID clientId,
+                                DeletionStatusEnum status,
+                                long projects,
+                                long activities,
+                                long deletedProjects,
+                                long deletedActivities,
+                                LocalDateTime startDate,
+                                LocalDateTime endDate,
+                                String error) {
+
+    public static ClientDeletionDto start(UUID clientId, long projects, long activities) {
+        return new ClientDeletionDto(clientId, DeletionStatusEnum.RUNNING, projects, activities, 0, 0,
+                LocalDateTime.now(), null, null);
+    }
+
+    public ClientDeletionDto withDeleted(long projects, long activities) {
+        return new ClientDeletionDto(clientId, status, this.projects, this.activities, deletedProjects + projects,
+                deletedActivities + activities, startDate, endDate, error);
+    }
+
+    public ClientDeletionDto finished() {
+        return new ClientDeletionDto(clientId, DeletionStatusEnum.FINISHED, projects, activities, deletedProjects,
+                deletedActivities, startDate, LocalDateTime.now(), error);
+    }
+
+    public ClientDeletionDto failed(String error) {
+        return new ClientDeletionDto(clientId, DeletionStatusEnum.FAILED, projects, activities, deletedProjects,
+                deletedActivities, startDate, LocalDateTime.now(), error);
+    }
+}
@@ -0,0 +1,10 @@
+package com.project.manager.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ClientResponseDto(UUID id,
+                                String name,
+                                LocalDateTime creationDate,
+                                LocalDateTime updateDate) {
+}
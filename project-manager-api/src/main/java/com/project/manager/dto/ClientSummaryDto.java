@@ -0,0 +1,19 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.projection.StatusCountProjection;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record ClientSummaryDto(UUID id,
+                               Map<StatusEnum, Long> projects,
+                               Map<StatusEnum, Long> activities) {
+
+    public static ClientSummaryDto of(UUID id, List<StatusCountProjection> statusCounts) {
+        return new ClientSummaryDto(id,
+                StatusCountProjection.totalsOf(statusCounts, StatusCountProjection.PROJECTS),
+                StatusCountProjection.totalsOf(statusCounts, StatusCountProjection.ACTIVITIES));
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.manager.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPageRecordDto(boolean hasNext,
+                                  String nextCursor,
+                                  List<?> itemList) {
+
+    public static <T> CursorPageRecordDto of(Slice<T> slice, Function<T, String> cursorEncoder) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? cursorEncoder.apply(content.get(content.size() - 1))
+                : null;
+
+        return new CursorPageRecordDto(slice.hasNext(), nextCursor, content);
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.manager.dto;
+
+import java.util.List;
+
+public record ImportReportDto(long received,
+                              long imported,
+                              long rejected,
+                              List<RejectedRowDto> rejectedRows) {
+
+    public record RejectedRowDto(long line,
+                                 String reason) {
+    }
+}
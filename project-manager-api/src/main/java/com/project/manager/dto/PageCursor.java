@@ -0,0 +1,46 @@
+package com.project.manager.dto;
+
+import com.project.manager.exception.InvalidPageCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset pagination. It points at the last row of the previous
+ * slice, so the next one is read with a seek predicate on {@code (creation_date, id)} instead of an OFFSET.
+ */
+public record PageCursor(LocalDateTime creationDate, UUID id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String LEGEND_INVALID_CURSOR = "Invalid pagination cursor";
+
+    public String encode() {
+        String raw = creationDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns {@code null} for a blank token, which asks for the first slice.
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidPageCursor(LEGEND_INVALID_CURSOR);
+            }
+
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidPageCursor(LEGEND_INVALID_CURSOR);
+        }
+    }
+}
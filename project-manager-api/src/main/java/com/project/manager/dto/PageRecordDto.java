@@ -1,9 +1,15 @@
 package com.project.manager.dto;
 
+import org.springframework.data.domain.Page;
+
 import java.util.List;
 
 public record PageRecordDto(int actualPage,
                             long totalRecords,
                             int totalPages,
                             List<?> itemList) {
+
+    public static PageRecordDto of(Page<?> page) {
+        return new PageRecordDto(page.getNumber(), page.getTotalElements(), page.getTotalPages(), page.getContent());
+    }
 }
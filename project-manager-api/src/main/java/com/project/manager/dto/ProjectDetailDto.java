@@ -0,0 +1,15 @@
+package com.project.manager.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.project.manager.entity.ProjectEntity;
+import com.project.manager.projection.ProjectProgressProjection;
+
+// The activity counts change on every activity write, so they are read apart from the cached project.
+public record ProjectDetailDto(@JsonUnwrapped ProjectEntity project,
+                               int activityCount,
+                               int finishedActivityCount) {
+
+    public static ProjectDetailDto of(ProjectEntity project, ProjectProgressProjection progress) {
+        return new ProjectDetailDto(project, progress.getActivityCount(), progress.getFinishedActivityCount());
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.StatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ProjectResponseDto(UUID id,
+                                 String description,
+                                 StatusEnum status,
+                                 LocalDateTime creationDate,
+                                 LocalDateTime updateDate,
+                                 ClientRefDto client,
+                                 ProgressDto progress) {
+
+    public record ClientRefDto(UUID id,
+                               String name) {
+    }
+
+    public record ProgressDto(int activities,
+                              int finished) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.projection.StatusCountProjection;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record ProjectSummaryDto(UUID id,
+                                Map<StatusEnum, Long> activities) {
+
+    public static ProjectSummaryDto of(UUID id, List<StatusCountProjection> statusCounts) {
+        return new ProjectSummaryDto(id, StatusCountProjection.totalsOf(statusCounts, StatusCountProjection.ACTIVITIES));
+    }
+}
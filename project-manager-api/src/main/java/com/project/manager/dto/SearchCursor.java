@@ -0,0 +1,44 @@
+package com.project.manager.dto;
+
+import com.project.manager.exception.InvalidPageCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for search results, which are ordered by rank and then id, both descending. It points
+ * at the last result of the previous slice, so the next one is read with a seek predicate on {@code (rank, id)}.
+ */
+public record SearchCursor(float rank, UUID id) {
+
+    private static final String SEPARATOR = "|";
+    private static final String LEGEND_INVALID_CURSOR = "Invalid pagination cursor";
+
+    public String encode() {
+        String raw = Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns {@code null} for a blank token, which asks for the first slice.
+     */
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new InvalidPageCursor(LEGEND_INVALID_CURSOR);
+            }
+
+            return new SearchCursor(Float.parseFloat(raw.substring(0, separatorIndex)),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidPageCursor(LEGEND_INVALID_CURSOR);
+        }
+    }
+}
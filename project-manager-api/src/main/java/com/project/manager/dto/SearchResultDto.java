@@ -0,0 +1,15 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.constant.StatusEnum;
+
+import java.util.UUID;
+
+public record SearchResultDto(SearchTypeEnum type,
+                              UUID id,
+                              String description,
+                              StatusEnum status,
+                              UUID projectId,
+                              UUID clientId,
+                              float rank) {
+}
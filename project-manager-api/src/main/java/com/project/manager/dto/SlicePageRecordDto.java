@@ -0,0 +1,14 @@
+package com.project.manager.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public record SlicePageRecordDto(int actualPage,
+                                 boolean hasNext,
+                                 List<?> itemList) {
+
+    public static SlicePageRecordDto of(Slice<?> slice) {
+        return new SlicePageRecordDto(slice.getNumber(), slice.hasNext(), slice.getContent());
+    }
+}
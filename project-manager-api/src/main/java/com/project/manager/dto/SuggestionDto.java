@@ -0,0 +1,12 @@
+package com.project.manager.dto;
+
+import com.project.manager.constant.SearchTypeEnum;
+
+import java.util.UUID;
+
+public record SuggestionDto(SearchTypeEnum type,
+                            UUID id,
+                            String description,
+                            UUID parentId,
+                            float score) {
+}
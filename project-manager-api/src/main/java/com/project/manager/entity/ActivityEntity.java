@@ -1,8 +1,10 @@
 package com.project.manager.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.project.manager.constant.StatusEnum;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,13 +12,19 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -25,6 +33,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "TB_ACTIVITY")
+@SQLRestriction("deleted_date is null")
 @DynamicUpdate
 @Data
 @NoArgsConstructor
@@ -42,7 +51,8 @@ public class ActivityEntity implements Serializable {
     @Column(nullable = false, length = 100)
     private String description;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = 1)
+    @JdbcTypeCode(SqlTypes.CHAR)
     private StatusEnum status;
 
     @Column
@@ -53,8 +63,20 @@ public class ActivityEntity implements Serializable {
     @UpdateTimestamp
     private LocalDateTime updateDate;
 
-    //@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
-    @ManyToOne//(fetch = FetchType.LAZY)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedDate;
+
+    @JsonIgnore
+    @Column(nullable = false, updatable = false)
+    private boolean archived;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", referencedColumnName = "id",
             foreignKey = @ForeignKey(
                     name = "fk_project_id",
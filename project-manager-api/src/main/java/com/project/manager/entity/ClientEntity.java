@@ -1,7 +1,6 @@
 package com.project.manager.entity;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -10,14 +9,18 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.io.Serial;
@@ -29,6 +32,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "TB_CLIENT")
+@SQLRestriction("deleted_date is null")
 @DynamicUpdate
 @Data
 @NoArgsConstructor
@@ -54,9 +58,18 @@ public class ClientEntity implements Serializable {
     @UpdateTimestamp
     private LocalDateTime updateDate;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedDate;
+
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
-    @OneToMany(mappedBy = "client", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "client", fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Set<ProjectEntity> projects = new HashSet<>();
 
@@ -1,8 +1,8 @@
 package com.project.manager.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.project.manager.constant.StatusEnum;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -14,15 +14,21 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -33,6 +39,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "TB_PROJECT")
+@SQLRestriction("deleted_date is null")
 @DynamicUpdate
 @Data
 @NoArgsConstructor
@@ -50,7 +57,8 @@ public class ProjectEntity implements Serializable {
     @Column(nullable = false, length = 100)
     private String description;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = 1)
+    @JdbcTypeCode(SqlTypes.CHAR)
     private StatusEnum status;
 
     @Column
@@ -61,18 +69,31 @@ public class ProjectEntity implements Serializable {
     @UpdateTimestamp
     private LocalDateTime updateDate;
 
-    //@JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
-    @ManyToOne//(fetch = FetchType.LAZY)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime deletedDate;
+
+    @JsonIgnore
+    @Column(nullable = false, insertable = false, updatable = false)
+    private boolean archived;
+
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", referencedColumnName = "id",
             foreignKey = @ForeignKey(
                     name = "fk_client_id",
                     foreignKeyDefinition = "FOREIGN KEY (client_id) REFERENCES tb_client(id)"))
-
     private ClientEntity client;
 
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OneToMany(mappedBy = "project", fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Set<ActivityEntity> activities = new HashSet<>();
 
@@ -1,6 +1,8 @@
 package com.project.manager.exception;
 
 import com.project.manager.dto.ExceptionResponse;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -43,6 +45,44 @@ public class CustomExceptionHandler {
                 HttpStatus.UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(InvalidPageCursor.class)
+    public ResponseEntity<ExceptionResponse> handleInvalidPageCursor(InvalidPageCursor ex) {
+        return new ResponseEntity<>(createExceptionResponse(HttpStatus.BAD_REQUEST.toString(), ex.getMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSearchQuery.class)
+    public ResponseEntity<ExceptionResponse> handleInvalidSearchQuery(InvalidSearchQuery ex) {
+        return new ResponseEntity<>(createExceptionResponse(HttpStatus.BAD_REQUEST.toString(), ex.getMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(VersionMismatch.class)
+    public ResponseEntity<ExceptionResponse> handleVersionMismatch(VersionMismatch ex) {
+        return new ResponseEntity<>(createExceptionResponse(HttpStatus.PRECONDITION_FAILED.toString(), ex.getMessage()),
+                HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(InvalidImportFile.class)
+    public ResponseEntity<ExceptionResponse> handleInvalidImportFile(InvalidImportFile ex) {
+        return new ResponseEntity<>(createExceptionResponse(HttpStatus.BAD_REQUEST.toString(), ex.getMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ServiceOverloaded.class)
+    public ResponseEntity<ExceptionResponse> handleServiceOverloaded(ServiceOverloaded ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(createExceptionResponse(HttpStatus.SERVICE_UNAVAILABLE.toString(), ex.getMessage()));
+    }
+
+    // Raised among others when the archival job moves a row to the other partition of tb_activity under a write.
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ExceptionResponse> handleConcurrencyFailure(ConcurrencyFailureException ex) {
+        return new ResponseEntity<>(createExceptionResponse(HttpStatus.CONFLICT.toString(),
+                "The record was changed by a concurrent operation, try again"), HttpStatus.CONFLICT);
+    }
+
     private ExceptionResponse createExceptionResponse(String exceptionId, String message) {
         Map<String, String> response = new HashMap<>();
         response.put("id", exceptionId);
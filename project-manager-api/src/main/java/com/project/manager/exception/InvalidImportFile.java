@@ -0,0 +1,16 @@
+package com.project.manager.exception;
+
+public class InvalidImportFile extends RuntimeException {
+
+    public InvalidImportFile() {
+        super();
+    }
+
+    public InvalidImportFile(String message) {
+        super(message);
+    }
+
+    public InvalidImportFile(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.manager.exception;
+
+public class InvalidPageCursor extends RuntimeException {
+
+    public InvalidPageCursor() {
+        super();
+    }
+
+    public InvalidPageCursor(String message) {
+        super(message);
+    }
+}
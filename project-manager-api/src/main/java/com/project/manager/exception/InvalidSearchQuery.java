@@ -0,0 +1,12 @@
+package com.project.manager.exception;
+
+public class InvalidSearchQuery extends RuntimeException {
+
+    public InvalidSearchQuery() {
+        super();
+    }
+
+    public InvalidSearchQuery(String message) {
+        super(message);
+    }
+}
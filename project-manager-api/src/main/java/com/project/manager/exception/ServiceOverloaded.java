@@ -0,0 +1,12 @@
+package com.project.manager.exception;
+
+public class ServiceOverloaded extends RuntimeException {
+
+    public ServiceOverloaded() {
+        super();
+    }
+
+    public ServiceOverloaded(String message) {
+        super(message);
+    }
+}
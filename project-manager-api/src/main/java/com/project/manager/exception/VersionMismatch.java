@@ -0,0 +1,12 @@
+package com.project.manager.exception;
+
+public class VersionMismatch extends RuntimeException {
+
+    public VersionMismatch() {
+        super();
+    }
+
+    public VersionMismatch(String message) {
+        super(message);
+    }
+}
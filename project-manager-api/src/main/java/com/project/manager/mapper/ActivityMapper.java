@@ -0,0 +1,22 @@
+package com.project.manager.mapper;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ActivityResponseDto;
+import com.project.manager.entity.ActivityEntity;
+import com.project.manager.projection.ActivityProjection;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ActivityMapper {
+
+    @Mapping(target = "project.id", source = "projectId")
+    @Mapping(target = "project.description", source = "projectDescription")
+    ActivityResponseDto toResponse(ActivityProjection activity);
+
+    ActivityResponseDto toResponse(ActivityEntity activity);
+
+    default StatusEnum toStatus(String code) {
+        return code == null ? null : StatusEnum.fromCode(code);
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.manager.mapper;
+
+import com.project.manager.dto.ClientResponseDto;
+import com.project.manager.entity.ClientEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ClientMapper {
+
+    ClientResponseDto toResponse(ClientEntity client);
+}
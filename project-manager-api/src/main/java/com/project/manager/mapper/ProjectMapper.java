@@ -0,0 +1,21 @@
+package com.project.manager.mapper;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ProjectResponseDto;
+import com.project.manager.projection.ProjectProjection;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface ProjectMapper {
+
+    @Mapping(target = "client.id", source = "clientId")
+    @Mapping(target = "client.name", source = "clientName")
+    @Mapping(target = "progress.activities", source = "activityCount")
+    @Mapping(target = "progress.finished", source = "finishedActivityCount")
+    ProjectResponseDto toResponse(ProjectProjection project);
+
+    default StatusEnum toStatus(String code) {
+        return code == null ? null : StatusEnum.fromCode(code);
+    }
+}
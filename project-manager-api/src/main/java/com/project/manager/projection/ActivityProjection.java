@@ -0,0 +1,21 @@
+package com.project.manager.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ActivityProjection {
+
+    UUID getId();
+
+    String getDescription();
+
+    String getStatus();
+
+    LocalDateTime getCreationDate();
+
+    LocalDateTime getUpdateDate();
+
+    UUID getProjectId();
+
+    String getProjectDescription();
+}
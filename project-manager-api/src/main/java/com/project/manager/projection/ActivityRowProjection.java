@@ -0,0 +1,10 @@
+package com.project.manager.projection;
+
+import com.project.manager.constant.StatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ActivityRowProjection(UUID id, String description, StatusEnum status, LocalDateTime creationDate,
+                                    LocalDateTime updateDate, Long version, UUID projectId) {
+}
@@ -0,0 +1,8 @@
+package com.project.manager.projection;
+
+public interface ProjectProgressProjection {
+
+    int getActivityCount();
+
+    int getFinishedActivityCount();
+}
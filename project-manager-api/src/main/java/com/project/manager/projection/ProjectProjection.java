@@ -0,0 +1,25 @@
+package com.project.manager.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface ProjectProjection {
+
+    UUID getId();
+
+    String getDescription();
+
+    String getStatus();
+
+    LocalDateTime getCreationDate();
+
+    LocalDateTime getUpdateDate();
+
+    UUID getClientId();
+
+    String getClientName();
+
+    int getActivityCount();
+
+    int getFinishedActivityCount();
+}
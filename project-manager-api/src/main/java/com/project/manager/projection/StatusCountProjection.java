@@ -0,0 +1,31 @@
+package com.project.manager.projection;
+
+import com.project.manager.constant.StatusEnum;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public interface StatusCountProjection {
+
+    String PROJECTS = "P";
+    String ACTIVITIES = "A";
+
+    String getKind();
+
+    String getStatus();
+
+    Long getTotal();
+
+    static Map<StatusEnum, Long> totalsOf(List<StatusCountProjection> statusCounts, String kind) {
+        Map<StatusEnum, Long> totals = new EnumMap<>(StatusEnum.class);
+        for (StatusEnum status : StatusEnum.values()) {
+            totals.put(status, 0L);
+        }
+        statusCounts.stream()
+                .filter(statusCount -> kind.equals(statusCount.getKind()))
+                .forEach(statusCount -> totals.put(StatusEnum.fromCode(statusCount.getStatus()), statusCount.getTotal()));
+
+        return totals;
+    }
+}
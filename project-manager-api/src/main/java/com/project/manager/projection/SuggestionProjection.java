@@ -0,0 +1,6 @@
+package com.project.manager.projection;
+
+import java.util.UUID;
+
+public record SuggestionProjection(UUID id, String description, UUID parentId) {
+}
@@ -0,0 +1,225 @@
+package com.project.manager.repository;
+
+import com.project.manager.config.GeneralConfig;
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ImportReportDto;
+import com.project.manager.exception.InvalidImportFile;
+import com.project.manager.projection.SuggestionProjection;
+import io.micrometer.core.annotation.Timed;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads CSV files through the PostgreSQL {@code COPY} protocol. Rows land in a text-only staging table that is
+ * dropped on commit, are rejected with set-based checks and the remaining ones are inserted with one statement, so
+ * every import must run inside a transaction. A row whose description was added concurrently after the checks is
+ * skipped by the insert and reported like the others, and so is a row whose id was taken concurrently. The
+ * file needs a header line, which reported line numbers count. An empty id generates a new one and an empty status
+ * defaults to {@code OPEN}. The imported projects and activities are handed back row by row, still inside the
+ * transaction.
+ */
+@Repository
+@Timed(value = GeneralConfig.JDBC_REPOSITORY_TIMER, histogram = true)
+public class BulkImportRepository {
+
+    private static final String UUID_PATTERN = "'^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'";
+    private static final int REJECTED_ROWS_LIMIT = 1000;
+    private static final String ID_ALREADY_EXISTS = "Id already exists";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BulkImportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public ImportReportDto importClients(InputStream csv) {
+        createStaging("stg_client", "name text, item_id uuid");
+        copy("stg_client", "id, name", csv);
+
+        reject("stg_client", "Invalid id", "id IS NOT NULL and id !~ " + UUID_PATTERN);
+        reject("stg_client", "Invalid name", "name IS NULL or btrim(name) = '' or length(name) > 50");
+        assignIds("stg_client", "tb_client", "");
+
+        long imported = insert("stg_client", "tb_client", "INSERT INTO tb_client (id, name, creation_date, " +
+                "update_date) SELECT item_id, name, localtimestamp, localtimestamp FROM stg_client " +
+                "WHERE reason IS NULL ORDER BY line ON CONFLICT (id) DO NOTHING", ID_ALREADY_EXISTS);
+
+        return report("stg_client", imported);
+    }
+
+    public ImportReportDto importProjects(InputStream csv, Consumer<SuggestionProjection> importedRows) {
+        createStaging("stg_project", "client_id text, description text, status text, item_id uuid, parent_id uuid");
+        copy("stg_project", "id, client_id, description, status", csv);
+
+        rejectChild("stg_project", "client_id", "tb_client", "Invalid client id", "Non existent client");
+        rejectDuplicateDescriptions("stg_project", "tb_project", "client_id", "Project");
+        assignIds("stg_project", "tb_project", ", parent_id = client_id::uuid");
+
+        long imported = insert("stg_project", "tb_project", "INSERT INTO tb_project (id, client_id, description, " +
+                "status, creation_date, update_date) SELECT item_id, parent_id, description, " + statusCode() + ", " +
+                "localtimestamp, localtimestamp FROM stg_project WHERE reason IS NULL ORDER BY line " +
+                "ON CONFLICT DO NOTHING", "Project already exists");
+        forEachImported("stg_project", importedRows);
+
+        return report("stg_project", imported);
+    }
+
+    public ImportReportDto importActivities(InputStream csv, Consumer<SuggestionProjection> importedRows) {
+        createStaging("stg_activity", "project_id text, description text, status text, item_id uuid, parent_id uuid");
+        copy("stg_activity", "id, project_id, description, status", csv);
+
+        rejectChild("stg_activity", "project_id", "tb_project", "Invalid project id", "Non existent project");
+        rejectDuplicateDescriptions("stg_activity", "tb_activity", "project_id", "Activity");
+        assignIds("stg_activity", "tb_activity_id", ", parent_id = project_id::uuid");
+
+        // The projects are locked in id order with the lock their counter updates take, so the archival job can't move
+        // them meanwhile and concurrent imports into the same projects queue instead of deadlocking.
+        jdbcTemplate.query("SELECT id FROM tb_project WHERE id IN (SELECT parent_id FROM stg_activity " +
+                "WHERE reason IS NULL) ORDER BY id FOR NO KEY UPDATE", resultSet -> { });
+        long imported = insertRejectingTakenIds("stg_activity", "tb_activity_id", "INSERT INTO tb_activity (id, " +
+                "project_id, description, status, creation_date, update_date, archived) SELECT item_id, parent_id, " +
+                "description, " + statusCode() + ", localtimestamp, localtimestamp, " +
+                "(SELECT archived FROM tb_project WHERE id = parent_id) " +
+                "FROM stg_activity WHERE reason IS NULL ORDER BY line " +
+                "ON CONFLICT (project_id, description, archived) WHERE deleted_date IS NULL DO NOTHING",
+                "Activity already exists");
+        forEachImported("stg_activity", importedRows);
+
+        return report("stg_activity", imported);
+    }
+
+    private void createStaging(String staging, String columns) {
+        jdbcTemplate.execute("CREATE TEMP TABLE " + staging + " (line bigint GENERATED ALWAYS AS IDENTITY, " +
+                "id text, " + columns + ", reason text) ON COMMIT DROP");
+    }
+
+    private void copy(String staging, String columns, InputStream csv) {
+        String copySql = "COPY " + staging + " (" + columns + ") FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try {
+                    return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql, csv);
+                } catch (IOException ex) {
+                    throw new InvalidImportFile("Unreadable CSV file", ex);
+                }
+            });
+        } catch (DataAccessException ex) {
+            throw new InvalidImportFile("Unreadable CSV file: " + ex.getMostSpecificCause().getMessage(), ex);
+        }
+    }
+
+    private void rejectChild(String staging, String parentColumn, String parentTable, String invalidReason,
+                             String nonExistentReason) {
+        reject(staging, "Invalid id", "id IS NOT NULL and id !~ " + UUID_PATTERN);
+        reject(staging, invalidReason, parentColumn + " IS NULL or " + parentColumn + " !~ " + UUID_PATTERN);
+        reject(staging, "Invalid description", "description IS NULL or btrim(description) = '' or length(description) > 100");
+        reject(staging, "Invalid status", "status IS NOT NULL and upper(btrim(status)) NOT IN (" + statusNames() + ")");
+        reject(staging, nonExistentReason, "NOT EXISTS (SELECT 1 FROM " + parentTable + " t " +
+                "WHERE t.id = CASE WHEN s.reason IS NULL THEN s." + parentColumn + "::uuid END " +
+                "and t.deleted_date IS NULL)");
+    }
+
+    private void rejectDuplicateDescriptions(String staging, String table, String parentColumn, String entity) {
+        reject(staging, entity + " already exists", "EXISTS (SELECT 1 FROM " + table + " t " +
+                "WHERE t." + parentColumn + " = CASE WHEN s.reason IS NULL THEN s." + parentColumn + "::uuid END " +
+                "and t.description = s.description and t.deleted_date IS NULL)");
+        reject(staging, entity + " is repeated in the file", "line IN (SELECT line FROM (SELECT line, row_number() " +
+                "OVER (PARTITION BY lower(" + parentColumn + "), description ORDER BY line) AS position FROM " + staging +
+                " WHERE reason IS NULL) d WHERE position > 1)");
+    }
+
+    private void assignIds(String staging, String table, String extraAssignments) {
+        jdbcTemplate.update("UPDATE " + staging + " SET item_id = COALESCE(id::uuid, gen_random_uuid())" +
+                extraAssignments + " WHERE reason IS NULL");
+        rejectTakenIds(staging, table);
+        reject(staging, "Id is repeated in the file", "line IN (SELECT line FROM (SELECT line, row_number() " +
+                "OVER (PARTITION BY item_id ORDER BY line) AS position FROM " + staging +
+                " WHERE reason IS NULL) d WHERE position > 1)");
+    }
+
+    // The ids of tb_activity are kept unique by a registry filled by a trigger, which the insert can't skip on
+    // conflict: an id taken by a concurrent import fails the insert, which is run again once that id is rejected.
+    private long insertRejectingTakenIds(String staging, String idTable, String insert, String conflictReason) {
+        while (true) {
+            jdbcTemplate.execute("SAVEPOINT " + staging);
+            try {
+                long imported = insert(staging, idTable, insert, conflictReason);
+                jdbcTemplate.execute("RELEASE SAVEPOINT " + staging);
+                return imported;
+            } catch (DuplicateKeyException ex) {
+                jdbcTemplate.execute("ROLLBACK TO SAVEPOINT " + staging);
+                if (rejectTakenIds(staging, idTable) == 0) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    // The rows skipped for an id taken meanwhile are told apart by a statement of their own, which unlike the insert
+    // sees the rows the concurrent imports committed.
+    private long insert(String staging, String idTable, String insert, String conflictReason) {
+        long imported = jdbcTemplate.queryForObject("WITH inserted AS (" + insert + " RETURNING id), " +
+                "skipped AS (UPDATE " + staging + " s SET reason = ? WHERE s.reason IS NULL " +
+                "and s.item_id NOT IN (SELECT id FROM inserted)) " +
+                "SELECT count(*) FROM inserted", Long.class, conflictReason);
+        if (!ID_ALREADY_EXISTS.equals(conflictReason)) {
+            jdbcTemplate.update("UPDATE " + staging + " s SET reason = ? WHERE s.reason = ? " +
+                    "and EXISTS (SELECT 1 FROM " + idTable + " t WHERE t.id = s.item_id)", ID_ALREADY_EXISTS, conflictReason);
+        }
+
+        return imported;
+    }
+
+    private void forEachImported(String staging, Consumer<SuggestionProjection> importedRows) {
+        jdbcTemplate.query("SELECT item_id, description, parent_id FROM " + staging + " WHERE reason IS NULL " +
+                "ORDER BY line", resultSet -> {
+            importedRows.accept(new SuggestionProjection(resultSet.getObject("item_id", UUID.class),
+                    resultSet.getString("description"), resultSet.getObject("parent_id", UUID.class)));
+        });
+    }
+
+    private int rejectTakenIds(String staging, String table) {
+        return reject(staging, ID_ALREADY_EXISTS, "EXISTS (SELECT 1 FROM " + table + " t WHERE t.id = s.item_id)");
+    }
+
+    private int reject(String staging, String reason, String condition) {
+        return jdbcTemplate.update("UPDATE " + staging + " s SET reason = ? WHERE s.reason IS NULL and (" +
+                condition + ")", reason);
+    }
+
+    private ImportReportDto report(String staging, long imported) {
+        long received = jdbcTemplate.queryForObject("SELECT count(*) FROM " + staging, Long.class);
+        List<ImportReportDto.RejectedRowDto> rejectedRows = jdbcTemplate.query("SELECT line + 1 AS line, reason FROM " + staging +
+                        " WHERE reason IS NOT NULL ORDER BY line LIMIT " + REJECTED_ROWS_LIMIT,
+                (resultSet, rowNum) -> new ImportReportDto.RejectedRowDto(resultSet.getLong("line"),
+                        resultSet.getString("reason")));
+
+        return new ImportReportDto(received, imported, received - imported, rejectedRows);
+    }
+
+    private static String statusNames() {
+        return Stream.of(StatusEnum.values())
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String statusCode() {
+        return Stream.of(StatusEnum.values())
+                .map(status -> "WHEN '" + status.name() + "' THEN '" + status.getCode() + "' ")
+                .collect(Collectors.joining("", "CASE upper(btrim(COALESCE(status, '" + StatusEnum.OPEN.name() + "'))) ",
+                        "END"));
+    }
+}
@@ -1,25 +1,190 @@
 package com.project.manager.repository;
 
+import com.project.manager.config.CacheConfig;
+import com.project.manager.config.GeneralConfig;
 import com.project.manager.entity.ActivityEntity;
+import com.project.manager.projection.ActivityProjection;
+import com.project.manager.projection.ActivityRowProjection;
+import com.project.manager.projection.SuggestionProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface IActivityRepository extends JpaRepository<ActivityEntity, UUID> {
 
-    boolean existsByProjectIdAndDescription(UUID projectId, String description);
+    String SELECT_ACTIVITY_PROJECTION = "SELECT a.id, a.description, a.status, a.creation_date AS creationDate, " +
+            "a.update_date AS updateDate, a.project_id AS projectId, p.description AS projectDescription " +
+            "FROM tb_activity a LEFT JOIN tb_project p ON p.id = a.project_id ";
+    // Activities of the project ?1, read from the partition of that project alone, and none once it is deleted.
+    String SELECT_PROJECT_ACTIVITY_PROJECTION = SELECT_ACTIVITY_PROJECTION + "WHERE a.project_id = ?1 " +
+            "and a.archived = (SELECT archived FROM tb_project WHERE id = ?1 and deleted_date IS NULL) " +
+            "and a.deleted_date IS NULL ";
+    String WHERE_PROJECT_ACTIVITY = "WHERE project_id = ?1 " +
+            "and archived = (SELECT archived FROM tb_project WHERE id = ?1 and deleted_date IS NULL) " +
+            "and deleted_date IS NULL ";
+    // A deleted project is marked alone, and its activities are hidden through it until the purge removes them.
+    String AND_PROJECT_NOT_DELETED = "and NOT EXISTS (SELECT 1 FROM tb_project p " +
+            "WHERE p.id = tb_activity.project_id and p.deleted_date IS NOT NULL) ";
+    String VERSION_TAG = "concat_ws('.', a.version, p.version, c.version)";
+    // An update joins its own row again to reach the parents, so the If-Match tag is checked by the write itself.
+    String FROM_VERSION_TAG_PARENTS = "FROM tb_activity t LEFT JOIN tb_project p ON p.id = t.project_id " +
+            "LEFT JOIN tb_client c ON c.id = p.client_id WHERE t.id = a.id and t.archived = a.archived " +
+            "and p.deleted_date IS NULL ";
 
-    @Query(value = "SELECT * FROM tb_activity WHERE project_id = ?1 and status = ?2 ORDER BY creation_date", nativeQuery = true)
-    Page<ActivityEntity> findAllByProjectIdAndStatus(Pageable pageable, UUID projectId, String statusValue);
+    // The activity row alone is cached; its project and client are read through their own caches, so writes to them
+    // leave the cached activities alone.
+    @Cacheable(cacheNames = CacheConfig.ACTIVITIES_CACHE, unless = "#result == null")
+    @Query("SELECT new com.project.manager.projection.ActivityRowProjection(a.id, a.description, a.status, " +
+            "a.creationDate, a.updateDate, a.version, a.project.id) FROM ActivityEntity a WHERE a.id = ?1")
+    Optional<ActivityRowProjection> findRowById(UUID id);
 
-    @Query(value = "SELECT * FROM tb_activity WHERE project_id = ?1 ORDER BY creation_date", nativeQuery = true)
-    Page<ActivityEntity> findAllByProjectId(Pageable pageable, UUID projectId);
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, key = "#p0.id", condition = "#p0.id != null")
+    <S extends ActivityEntity> S save(S activityEntity);
 
+    @Transactional
+    @Query(value = "INSERT INTO tb_activity (id, project_id, description, status, creation_date, update_date, " +
+            "archived) SELECT gen_random_uuid(), id, ?2, ?3, localtimestamp, localtimestamp, archived " +
+            "FROM tb_project WHERE id = ?1 and deleted_date IS NULL FOR NO KEY UPDATE " +
+            "ON CONFLICT (project_id, description, archived) WHERE deleted_date IS NULL DO NOTHING RETURNING *",
+            nativeQuery = true)
+    Optional<ActivityEntity> insertIfAbsent(UUID projectId, String description, String statusValue);
+
+    @Query(value = "SELECT description FROM tb_activity " + WHERE_PROJECT_ACTIVITY + "and description IN ?2",
+            nativeQuery = true)
+    List<String> findDescriptionsByProjectIdAndDescriptionIn(UUID projectId, Collection<String> descriptions);
+
+    @Query(value = SELECT_PROJECT_ACTIVITY_PROJECTION + "and a.status = ?2 ORDER BY a.creation_date, a.id",
+            countQuery = "SELECT count(*) FROM tb_activity " + WHERE_PROJECT_ACTIVITY + "and status = ?2",
+            nativeQuery = true)
+    Page<ActivityProjection> findAllByProjectIdAndStatus(Pageable pageable, UUID projectId, String statusValue);
+
+    @Query(value = SELECT_PROJECT_ACTIVITY_PROJECTION + "ORDER BY a.creation_date, a.id",
+            countQuery = "SELECT count(*) FROM tb_activity " + WHERE_PROJECT_ACTIVITY, nativeQuery = true)
+    Page<ActivityProjection> findAllByProjectId(Pageable pageable, UUID projectId);
+
+    @Query(value = SELECT_PROJECT_ACTIVITY_PROJECTION + "and a.status = ?2 ORDER BY a.creation_date, a.id",
+            nativeQuery = true)
+    Slice<ActivityProjection> findSliceByProjectIdAndStatus(Pageable pageable, UUID projectId, String statusValue);
+
+    @Query(value = SELECT_PROJECT_ACTIVITY_PROJECTION + "ORDER BY a.creation_date, a.id",
+            nativeQuery = true)
+    Slice<ActivityProjection> findSliceByProjectId(Pageable pageable, UUID projectId);
+
+    @Query(value = SELECT_PROJECT_ACTIVITY_PROJECTION + "and a.status = ?2 " +
+            "and (a.creation_date, a.id) > (?3, ?4) ORDER BY a.creation_date, a.id", nativeQuery = true)
+    Slice<ActivityProjection> findSliceByProjectIdAndStatusAfter(Pageable pageable, UUID projectId, String statusValue,
+                                                                  LocalDateTime creationDate, UUID id);
+
+    @Query(value = SELECT_PROJECT_ACTIVITY_PROJECTION + "and (a.creation_date, a.id) > (?2, ?3) " +
+            "ORDER BY a.creation_date, a.id", nativeQuery = true)
+    Slice<ActivityProjection> findSliceByProjectIdAfter(Pageable pageable, UUID projectId, LocalDateTime creationDate,
+                                                        UUID id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = GeneralConfig.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = SELECT_PROJECT_ACTIVITY_PROJECTION + "ORDER BY a.creation_date, a.id",
+            nativeQuery = true)
+    Stream<ActivityProjection> streamAllByProjectId(UUID projectId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = GeneralConfig.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = SELECT_ACTIVITY_PROJECTION + "WHERE p.client_id = ?1 and p.deleted_date IS NULL " +
+            "and a.deleted_date IS NULL ORDER BY a.project_id, a.creation_date, a.id",
+            nativeQuery = true)
+    Stream<ActivityProjection> streamAllByClientId(UUID clientId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = GeneralConfig.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.project.manager.projection.SuggestionProjection(a.id, a.description, a.project.id) FROM ActivityEntity a " +
+            "WHERE a.project IS NULL OR a.project.id IN (SELECT p.id FROM ProjectEntity p)")
+    Stream<SuggestionProjection> streamAllSuggestions();
+
+    @Query(value = "SELECT " + VERSION_TAG + " FROM tb_activity a " +
+            "LEFT JOIN tb_project p ON p.id = a.project_id LEFT JOIN tb_client c ON c.id = p.client_id " +
+            "WHERE a.id = ?1 and a.deleted_date IS NULL and p.deleted_date IS NULL",
+            nativeQuery = true)
+    Optional<String> findVersionTagById(UUID id);
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, key = "#p0")
+    @Query(value = "UPDATE tb_activity a SET description = ?2, status = COALESCE(?3, a.status), " +
+            "update_date = localtimestamp, version = a.version + 1 " + FROM_VERSION_TAG_PARENTS +
+            "and a.id = ?1 and a.deleted_date IS NULL and (CAST(?4 AS text) IS NULL or " + VERSION_TAG + " = ?4) " +
+            "RETURNING a.*", nativeQuery = true)
+    Optional<ActivityEntity> updateById(UUID itemId, String description, String statusValue, String expectedVersionTag);
+
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, key = "#p0")
+    @Query(value = "UPDATE tb_activity a SET status = ?2, update_date = localtimestamp, version = a.version + 1 " +
+            FROM_VERSION_TAG_PARENTS + "and a.id = ?1 and a.deleted_date IS NULL " +
+            "and (CAST(?3 AS text) IS NULL or " + VERSION_TAG + " = ?3)", nativeQuery = true)
+    int updateStatus(UUID itemId, String statusValue, String expectedVersionTag);
+
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, allEntries = true)
+    @Query(value = "UPDATE tb_activity SET status = ?2, update_date = localtimestamp, version = version + 1 " +
+            "WHERE id = ANY(?1) and status <> ?2 and deleted_date IS NULL " + AND_PROJECT_NOT_DELETED,
+            nativeQuery = true)
+    int updateStatusByIdIn(UUID[] itemIds, String statusValue);
+
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, allEntries = true)
+    @Query(value = "UPDATE tb_activity SET status = ?2, update_date = localtimestamp, version = version + 1 " +
+            WHERE_PROJECT_ACTIVITY + "and status <> ?2", nativeQuery = true)
+    int updateStatusByProjectId(UUID projectId, String statusValue);
+
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, allEntries = true)
+    @Query(value = "UPDATE tb_activity SET status = ?3, update_date = localtimestamp, version = version + 1 " +
+            WHERE_PROJECT_ACTIVITY + "and status = ?2 and status <> ?3", nativeQuery = true)
+    int updateStatusByProjectIdAndStatus(UUID projectId, String fromStatusValue, String statusValue);
+
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, key = "#p0")
+    @Query(value = "UPDATE tb_activity SET deleted_date = localtimestamp WHERE id = ?1 and deleted_date IS NULL " +
+            AND_PROJECT_NOT_DELETED, nativeQuery = true)
+    int removeById(UUID itemId);
+
+    // Returns the ids removed so the caller evicts them from the cache instead of the whole cache on every batch.
+    @Transactional
+    @Query(value = "UPDATE tb_activity SET deleted_date = localtimestamp WHERE id IN (SELECT a.id FROM tb_activity a " +
+            "JOIN tb_project p ON p.id = a.project_id WHERE p.client_id = ?1 and p.deleted_date IS NULL " +
+            "and a.deleted_date IS NULL LIMIT ?2) RETURNING id", nativeQuery = true)
+    List<UUID> removeBatchByClientId(UUID clientId, int batchSize);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tb_activity WHERE id IN (SELECT id FROM tb_activity WHERE deleted_date IS NOT NULL " +
+            "ORDER BY deleted_date LIMIT ?1 FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int purgeBatch(int batchSize);
+
+    @Transactional
     @Modifying
-    @Query(value = "UPDATE tb_activity SET status = ?2 WHERE id = ?1", nativeQuery = true)
-    void updateStatus(UUID itemId, String statusValue);
+    @Query(value = "DELETE FROM tb_activity WHERE id IN (SELECT a.id FROM tb_project p " +
+            "JOIN tb_activity a ON a.project_id = p.id WHERE p.deleted_date IS NOT NULL " +
+            "ORDER BY p.deleted_date LIMIT ?1 FOR UPDATE OF a SKIP LOCKED)", nativeQuery = true)
+    int purgeBatchOfDeletedProjects(int batchSize);
 }
@@ -1,9 +1,83 @@
 package com.project.manager.repository;
 
+import com.project.manager.config.CacheConfig;
 import com.project.manager.entity.ClientEntity;
+import com.project.manager.projection.StatusCountProjection;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface IClientRepository extends JpaRepository<ClientEntity, UUID> {
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CLIENTS_CACHE, unless = "#result == null")
+    Optional<ClientEntity> findById(UUID id);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CLIENTS_CACHE, key = "#p0.id", condition = "#p0.id != null"),
+            @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, allEntries = true, condition = "#p0.id != null")
+    })
+    <S extends ClientEntity> S save(S clientEntity);
+
+    @Query(value = "SELECT * FROM tb_client WHERE deleted_date IS NULL ORDER BY creation_date, id",
+            countQuery = "SELECT count(*) FROM tb_client WHERE deleted_date IS NULL", nativeQuery = true)
+    Page<ClientEntity> findAllClients(Pageable pageable);
+
+    @Query(value = "SELECT * FROM tb_client WHERE deleted_date IS NULL ORDER BY creation_date, id", nativeQuery = true)
+    Slice<ClientEntity> findSliceAll(Pageable pageable);
+
+    @Query(value = "SELECT * FROM tb_client WHERE deleted_date IS NULL and (creation_date, id) > (?1, ?2) " +
+            "ORDER BY creation_date, id", nativeQuery = true)
+    Slice<ClientEntity> findSliceAllAfter(Pageable pageable, LocalDateTime creationDate, UUID id);
+
+    @Query(value = "SELECT CAST(version AS text) FROM tb_client WHERE id = ?1 and deleted_date IS NULL",
+            nativeQuery = true)
+    Optional<String> findVersionTagById(UUID id);
+
+    @Query(value = "SELECT kind, status, total FROM tb_status_counter WHERE scope_id = ?1", nativeQuery = true)
+    List<StatusCountProjection> findStatusCountsById(UUID id);
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CLIENTS_CACHE, key = "#p0"),
+            @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, allEntries = true)
+    })
+    @Query(value = "UPDATE tb_client SET name = ?2, update_date = localtimestamp, version = version + 1 " +
+            "WHERE id = ?1 and (CAST(?3 AS text) IS NULL or CAST(version AS text) = ?3) and deleted_date IS NULL " +
+            "RETURNING *", nativeQuery = true)
+    Optional<ClientEntity> updateById(UUID itemId, String name, String expectedVersionTag);
+
+    // The client and its projects are marked, not their activities: those are hidden through the projects, cached ones
+    // included, and the purge removes them in batches.
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CLIENTS_CACHE, key = "#p0"),
+            @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, allEntries = true)
+    })
+    @Query(value = "WITH deleted_client AS (UPDATE tb_client SET deleted_date = localtimestamp " +
+            "WHERE id = ?1 and deleted_date IS NULL RETURNING id), " +
+            "deleted_project AS (UPDATE tb_project SET deleted_date = localtimestamp " +
+            "WHERE client_id IN (SELECT id FROM deleted_client) and deleted_date IS NULL) " +
+            "SELECT CAST(count(*) AS integer) FROM deleted_client", nativeQuery = true)
+    int removeById(UUID itemId);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tb_client WHERE id IN (SELECT c.id FROM tb_client c WHERE c.deleted_date IS NOT NULL " +
+            "and NOT EXISTS (SELECT 1 FROM tb_project p WHERE p.client_id = c.id) " +
+            "ORDER BY c.deleted_date LIMIT ?1 FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int purgeBatch(int batchSize);
 }
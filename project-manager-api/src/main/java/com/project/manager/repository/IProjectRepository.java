@@ -1,26 +1,220 @@
 package com.project.manager.repository;
 
+import com.project.manager.config.CacheConfig;
+import com.project.manager.config.GeneralConfig;
 import com.project.manager.entity.ProjectEntity;
+import com.project.manager.projection.BulkStatusProjection;
+import com.project.manager.projection.ProjectProgressProjection;
+import com.project.manager.projection.ProjectProjection;
+import com.project.manager.projection.StatusCountProjection;
+import com.project.manager.projection.SuggestionProjection;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface IProjectRepository extends JpaRepository<ProjectEntity, UUID> {
 
-    boolean existsByClientIdAndDescription(UUID clientId, String description);
+    String SELECT_PROJECT_PROJECTION = "SELECT p.id, p.description, p.status, p.creation_date AS creationDate, " +
+            "p.update_date AS updateDate, p.client_id AS clientId, c.name AS clientName, " +
+            "p.activity_count AS activityCount, p.finished_activity_count AS finishedActivityCount " +
+            "FROM tb_project p LEFT JOIN tb_client c ON c.id = p.client_id ";
+    String VERSION_TAG = "concat_ws('.', p.version, c.version, p.activity_count, p.finished_activity_count)";
+    // An update joins its own row again to reach the client, so the If-Match tag is checked by the write itself.
+    String FROM_VERSION_TAG_PARENTS = "FROM tb_project t LEFT JOIN tb_client c ON c.id = t.client_id " +
+            "WHERE t.id = p.id ";
 
-    @Query(value = "SELECT * FROM tb_project p WHERE p.client_id = ?1 and p.status = ?2 ORDER BY p.creation_date", nativeQuery = true)
-    Page<ProjectEntity> findAllByClientIdAndStatus(Pageable pageable, UUID clientId, String statusValue);
+    @Override
+    @Cacheable(cacheNames = CacheConfig.PROJECTS_CACHE, unless = "#result == null")
+    @EntityGraph(attributePaths = "client")
+    Optional<ProjectEntity> findById(UUID id);
 
-    @Query(value = "SELECT * FROM tb_project p WHERE p.status = ?1 ORDER BY p.creation_date", nativeQuery = true)
-    Page<ProjectEntity> findAllByStatus(Pageable pageable, String statusValue);
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, key = "#p0.id", condition = "#p0.id != null")
+    <S extends ProjectEntity> S save(S projectEntity);
+
+    @Transactional
+    @Query(value = "INSERT INTO tb_project (id, client_id, description, status, creation_date, update_date) " +
+            "VALUES (gen_random_uuid(), ?1, ?2, ?3, localtimestamp, localtimestamp) " +
+            "ON CONFLICT (client_id, description) WHERE deleted_date IS NULL DO NOTHING RETURNING *",
+            nativeQuery = true)
+    Optional<ProjectEntity> insertIfAbsent(UUID clientId, String description, String statusValue);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.client_id = ?1 and p.status = ?2 and p.deleted_date IS NULL " +
+            "ORDER BY p.creation_date, p.id",
+            countQuery = "SELECT count(*) FROM tb_project WHERE client_id = ?1 and status = ?2 " +
+                    "and deleted_date IS NULL",
+            nativeQuery = true)
+    Page<ProjectProjection> findAllByClientIdAndStatus(Pageable pageable, UUID clientId, String statusValue);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.deleted_date IS NULL ORDER BY p.creation_date, p.id",
+            countQuery = "SELECT count(*) FROM tb_project WHERE deleted_date IS NULL", nativeQuery = true)
+    Page<ProjectProjection> findAllProjections(Pageable pageable);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.status = ?1 and p.deleted_date IS NULL " +
+            "ORDER BY p.creation_date, p.id",
+            countQuery = "SELECT count(*) FROM tb_project WHERE status = ?1 and deleted_date IS NULL",
+            nativeQuery = true)
+    Page<ProjectProjection> findAllByStatus(Pageable pageable, String statusValue);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.deleted_date IS NULL ORDER BY p.creation_date, p.id",
+            nativeQuery = true)
+    Slice<ProjectProjection> findSliceAll(Pageable pageable);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.client_id = ?1 and p.status = ?2 and p.deleted_date IS NULL " +
+            "ORDER BY p.creation_date, p.id", nativeQuery = true)
+    Slice<ProjectProjection> findSliceByClientIdAndStatus(Pageable pageable, UUID clientId, String statusValue);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.status = ?1 and p.deleted_date IS NULL " +
+            "ORDER BY p.creation_date, p.id", nativeQuery = true)
+    Slice<ProjectProjection> findSliceByStatus(Pageable pageable, String statusValue);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.client_id = ?1 and p.status = ?2 and p.deleted_date IS NULL " +
+            "and (p.creation_date, p.id) > (?3, ?4) ORDER BY p.creation_date, p.id", nativeQuery = true)
+    Slice<ProjectProjection> findSliceByClientIdAndStatusAfter(Pageable pageable, UUID clientId, String statusValue,
+                                                               LocalDateTime creationDate, UUID id);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.deleted_date IS NULL and (p.creation_date, p.id) > (?1, ?2) " +
+            "ORDER BY p.creation_date, p.id", nativeQuery = true)
+    Slice<ProjectProjection> findSliceAllAfter(Pageable pageable, LocalDateTime creationDate, UUID id);
+
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.status = ?1 and p.deleted_date IS NULL " +
+            "and (p.creation_date, p.id) > (?2, ?3) ORDER BY p.creation_date, p.id", nativeQuery = true)
+    Slice<ProjectProjection> findSliceByStatusAfter(Pageable pageable, String statusValue, LocalDateTime creationDate,
+                                                    UUID id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = GeneralConfig.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = SELECT_PROJECT_PROJECTION + "WHERE p.client_id = ?1 and p.deleted_date IS NULL " +
+            "ORDER BY p.creation_date, p.id", nativeQuery = true)
+    Stream<ProjectProjection> streamAllByClientId(UUID clientId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = GeneralConfig.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.project.manager.projection.SuggestionProjection(p.id, p.description, p.client.id) FROM ProjectEntity p")
+    Stream<SuggestionProjection> streamAllSuggestions();
+
+    @Query(value = "SELECT " + VERSION_TAG + " FROM tb_project p " +
+            "LEFT JOIN tb_client c ON c.id = p.client_id WHERE p.id = ?1 and p.deleted_date IS NULL",
+            nativeQuery = true)
+    Optional<String> findVersionTagById(UUID id);
+
+    @Query(value = "SELECT activity_count AS activityCount, finished_activity_count AS finishedActivityCount " +
+            "FROM tb_project WHERE id = ?1 and deleted_date IS NULL", nativeQuery = true)
+    Optional<ProjectProgressProjection> findProgressById(UUID id);
+
+    @Query(value = "SELECT kind, status, total FROM tb_status_counter WHERE scope_id = ?1", nativeQuery = true)
+    List<StatusCountProjection> findStatusCountsById(UUID id);
+
+    @Query(value = "SELECT * FROM tb_project WHERE id = ?1 and deleted_date IS NULL FOR NO KEY UPDATE",
+            nativeQuery = true)
+    Optional<ProjectEntity> lockById(UUID id);
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, key = "#p0")
+    @Query(value = "UPDATE tb_project p SET description = ?2, status = COALESCE(?3, p.status), " +
+            "update_date = localtimestamp, version = p.version + 1 " + FROM_VERSION_TAG_PARENTS +
+            "and p.id = ?1 and p.deleted_date IS NULL and (CAST(?4 AS text) IS NULL or " + VERSION_TAG + " = ?4) " +
+            "RETURNING p.*", nativeQuery = true)
+    Optional<ProjectEntity> updateById(UUID itemId, String description, String statusValue, String expectedVersionTag);
 
     @Modifying
-    @Query(value = "UPDATE tb_project SET status = ?2 WHERE id = ?1", nativeQuery = true)
-    void updateStatus(UUID itemId, String statusValue);
+    @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, key = "#p0")
+    @Query(value = "UPDATE tb_project p SET status = ?2, update_date = localtimestamp, version = p.version + 1 " +
+            FROM_VERSION_TAG_PARENTS + "and p.id = ?1 and p.deleted_date IS NULL " +
+            "and (CAST(?3 AS text) IS NULL or " + VERSION_TAG + " = ?3)", nativeQuery = true)
+    int updateStatus(UUID itemId, String statusValue, String expectedVersionTag);
+
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, allEntries = true)
+    @Query(value = "UPDATE tb_project SET status = ?2, update_date = localtimestamp, version = version + 1 " +
+            "WHERE id = ANY(?1) and status <> ?2 and deleted_date IS NULL", nativeQuery = true)
+    int updateStatusByIdIn(UUID[] itemIds, String statusValue);
+
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.ACTIVITIES_CACHE, allEntries = true)
+    })
+    @Query(value = "WITH updated_project AS (UPDATE tb_project SET status = ?2, update_date = localtimestamp, " +
+            "version = version + 1 WHERE id = ANY(?1) and status <> ?2 and deleted_date IS NULL RETURNING id), " +
+            "updated_activity AS (UPDATE tb_activity SET status = ?2, update_date = localtimestamp, " +
+            "version = version + 1 WHERE project_id IN (SELECT id FROM tb_project WHERE id = ANY(?1) " +
+            "and deleted_date IS NULL) and status <> ?2 and deleted_date IS NULL RETURNING id) " +
+            "SELECT (SELECT count(*) FROM updated_project) AS projects, " +
+            "(SELECT count(*) FROM updated_activity) AS activities", nativeQuery = true)
+    BulkStatusProjection updateStatusCascadeByIdIn(UUID[] itemIds, String statusValue);
+
+    // Only the project is marked, however many activities it has: they are hidden through it, cached ones included,
+    // and the purge removes them in batches before the project.
+    @Modifying
+    @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, key = "#p0")
+    @Query(value = "UPDATE tb_project SET deleted_date = localtimestamp WHERE id = ?1 and deleted_date IS NULL",
+            nativeQuery = true)
+    int removeById(UUID itemId);
+
+    // Called once the client has no activities left; returns the ids removed for the caller to evict.
+    @Transactional
+    @Query(value = "UPDATE tb_project SET deleted_date = localtimestamp WHERE id IN (SELECT id FROM tb_project " +
+            "WHERE client_id = ?1 and deleted_date IS NULL LIMIT ?2) RETURNING id", nativeQuery = true)
+    List<UUID> removeBatchByClientId(UUID clientId, int batchSize);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM tb_project WHERE id IN (SELECT p.id FROM tb_project p WHERE p.deleted_date IS NOT NULL " +
+            "and NOT EXISTS (SELECT 1 FROM tb_activity a WHERE a.project_id = p.id) " +
+            "ORDER BY p.deleted_date LIMIT ?1 FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int purgeBatch(int batchSize);
+
+    // A batch moves at most batchSize activities: it takes the projects in order while their activity counts add up to
+    // no more than that, and always the first one. A project moves in one statement with all its activities, since the
+    // reads, the adds and the unique descriptions pick the partition from its flag, so one larger than the batch moves
+    // alone. The marked activities are left where they are for the purge. The projects are locked before their
+    // counts are read, so no activity can be added to them meanwhile.
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, allEntries = true)
+    @Query(value = "WITH candidate AS (SELECT id, update_date, activity_count FROM tb_project WHERE status = 'F' " +
+            "and not archived and deleted_date IS NULL and update_date < localtimestamp - CAST(?1 AS interval) " +
+            "ORDER BY update_date, id LIMIT ?2 FOR UPDATE SKIP LOCKED), " +
+            "archived_project AS (UPDATE tb_project SET archived = true WHERE id IN (SELECT id FROM (SELECT id, " +
+            "row_number() OVER batch AS position, sum(activity_count) OVER batch AS moved FROM candidate " +
+            "WINDOW batch AS (ORDER BY update_date, id)) c WHERE position = 1 or moved <= ?2) RETURNING id), " +
+            "archived_activity AS (UPDATE tb_activity SET archived = true " +
+            "WHERE project_id IN (SELECT id FROM archived_project) and not archived and deleted_date IS NULL) " +
+            "SELECT CAST(count(*) AS integer) FROM archived_project", nativeQuery = true)
+    int archiveBatch(String finishedFor, int batchSize);
+
+    // Bounded by activities like archiveBatch.
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PROJECTS_CACHE, allEntries = true)
+    @Query(value = "WITH candidate AS (SELECT id, activity_count FROM tb_project WHERE status <> 'F' and archived " +
+            "and deleted_date IS NULL ORDER BY id LIMIT ?1 FOR UPDATE SKIP LOCKED), " +
+            "restored_project AS (UPDATE tb_project SET archived = false WHERE id IN (SELECT id FROM (SELECT id, " +
+            "row_number() OVER batch AS position, sum(activity_count) OVER batch AS moved FROM candidate " +
+            "WINDOW batch AS (ORDER BY id)) c WHERE position = 1 or moved <= ?1) RETURNING id), " +
+            "restored_activity AS (UPDATE tb_activity SET archived = false " +
+            "WHERE project_id IN (SELECT id FROM restored_project) and archived and deleted_date IS NULL) " +
+            "SELECT CAST(count(*) AS integer) FROM restored_project", nativeQuery = true)
+    int restoreBatch(int batchSize);
 
 }
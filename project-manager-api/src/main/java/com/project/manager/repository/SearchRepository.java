@@ -0,0 +1,97 @@
+package com.project.manager.repository;
+
+import com.project.manager.config.GeneralConfig;
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.SearchCursor;
+import com.project.manager.dto.SearchResultDto;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search over project and activity descriptions. Matches are found through the GIN indexes on their
+ * {@code search_vector} columns, ranked with {@code ts_rank} and read in keyset slices ordered by rank and id. The
+ * query text follows the web search syntax: quoted phrases, {@code or} and a leading {@code -} to exclude a word.
+ */
+@Repository
+@Timed(value = GeneralConfig.JDBC_REPOSITORY_TIMER, histogram = true)
+public class SearchRepository {
+
+    private static final String PROJECT_MATCHES = "SELECT 'PROJECT' AS type, p.id, p.description, p.status, " +
+            "CAST(NULL AS uuid) AS project_id, p.client_id, ts_rank(p.search_vector, query) AS rank " +
+            "FROM tb_project p, websearch_to_tsquery('simple', ?) query " +
+            "WHERE p.search_vector @@ query and p.deleted_date IS NULL";
+    private static final String ACTIVITY_MATCHES = "SELECT 'ACTIVITY' AS type, a.id, a.description, a.status, " +
+            "a.project_id, p.client_id, ts_rank(a.search_vector, query) AS rank " +
+            "FROM tb_activity a LEFT JOIN tb_project p ON p.id = a.project_id, websearch_to_tsquery('simple', ?) query " +
+            "WHERE a.search_vector @@ query and a.deleted_date IS NULL and p.deleted_date IS NULL";
+
+    private static final RowMapper<SearchResultDto> SEARCH_RESULT_MAPPER = (rs, rowNum) -> new SearchResultDto(
+            SearchTypeEnum.valueOf(rs.getString("type")),
+            rs.getObject("id", UUID.class),
+            rs.getString("description"),
+            StatusEnum.fromCode(rs.getString("status")),
+            rs.getObject("project_id", UUID.class),
+            rs.getObject("client_id", UUID.class),
+            rs.getFloat("rank"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * A project id limits the search to the activities of that project, a client id to the projects of that client
+     * and their activities.
+     */
+    public Slice<SearchResultDto> search(Pageable pageable, String text, UUID clientId, UUID projectId,
+                                         SearchCursor after) {
+        StringBuilder query = new StringBuilder("SELECT * FROM (");
+        List<Object> args = new ArrayList<>();
+
+        if (projectId == null) {
+            query.append(PROJECT_MATCHES);
+            args.add(text);
+            if (clientId != null) {
+                query.append(" and p.client_id = ?");
+                args.add(clientId);
+            }
+            query.append(" UNION ALL ");
+        }
+
+        query.append(ACTIVITY_MATCHES);
+        args.add(text);
+        if (clientId != null) {
+            query.append(" and p.client_id = ?");
+            args.add(clientId);
+        }
+        if (projectId != null) {
+            query.append(" and a.project_id = ?");
+            args.add(projectId);
+        }
+        query.append(") matches");
+
+        if (after != null) {
+            query.append(" WHERE (rank, id) < (?, ?)");
+            args.add(after.rank());
+            args.add(after.id());
+        }
+        query.append(" ORDER BY rank DESC, id DESC LIMIT ?");
+        args.add(pageable.getPageSize() + 1);
+
+        List<SearchResultDto> results = jdbcTemplate.query(query.toString(), SEARCH_RESULT_MAPPER, args.toArray());
+        boolean hasNext = results.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? results.subList(0, pageable.getPageSize()) : results, pageable, hasNext);
+    }
+}
@@ -1,48 +1,130 @@
 package com.project.manager.service;
 
 import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.BulkStatusResponseDto;
+import com.project.manager.dto.PageCursor;
 import com.project.manager.entity.ActivityEntity;
 import com.project.manager.entity.ProjectEntity;
 import com.project.manager.exception.ActivityExistent;
 import com.project.manager.exception.ProjectNonExistent;
+import com.project.manager.exception.VersionMismatch;
+import com.project.manager.projection.ActivityProjection;
+import com.project.manager.projection.ActivityRowProjection;
 import com.project.manager.repository.IActivityRepository;
 import com.project.manager.repository.IProjectRepository;
+import com.project.manager.repository.RowEstimateRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ActivityService {
 
     private final static String LEGEND_PROJECT_NON_EXISTENT = "Non existent project";
     private final static String LEGEND_ACTIVITY_ALREADY_EXIST = "Activity already exists for this project";
+    private final static String LEGEND_ACTIVITY_REPEATED_IN_BATCH = "Activity is repeated in the batch";
     private final static String LEGEND_ACTIVITY_NON_EXISTENT = "Non existent activity";
+    private final static String LEGEND_ACTIVITY_VERSION_MISMATCH = "The activity was modified by someone else";
     private final static String LEGEND_ACTIVITY_STATUS_UPDATED = "The activity status was updated";
 
     private final IActivityRepository activityRepository;
     private final IProjectRepository projectRepository;
+    private final RowEstimateRepository rowEstimateRepository;
+    private final SuggestionIndex suggestionIndex;
 
-    public ActivityService(IActivityRepository activityRepository, IProjectRepository projectRepository) {
+    public ActivityService(IActivityRepository activityRepository, IProjectRepository projectRepository,
+                           RowEstimateRepository rowEstimateRepository, SuggestionIndex suggestionIndex) {
         this.activityRepository = activityRepository;
         this.projectRepository = projectRepository;
+        this.rowEstimateRepository = rowEstimateRepository;
+        this.suggestionIndex = suggestionIndex;
     }
 
+    // An activity whose project was deleted is hidden by the project lookup even while its row is still cached.
     public Optional<ActivityEntity> findById(UUID id) {
-        return activityRepository.findById(id);
+        return activityRepository.findRowById(id).flatMap(row -> row.projectId() == null
+                ? Optional.of(toEntity(row, null))
+                : projectRepository.findById(row.projectId()).map(project -> toEntity(row, project)));
     }
 
-    public Page<ActivityEntity> findByProjectIdAndStatus(Pageable pageable, UUID projectId, StatusEnum status) {
+    public Optional<String> findVersionTagById(UUID id) {
+        return activityRepository.findVersionTagById(id);
+    }
+
+    public Page<ActivityProjection> findByProjectIdAndStatus(Pageable pageable, UUID projectId, StatusEnum status) {
         return activityRepository.findAllByProjectIdAndStatus(pageable, projectId, status.getCode());
     }
 
-    public Page<ActivityEntity> findByProjectId(Pageable pageable, UUID projectId) {
+    public Page<ActivityProjection> findByProjectId(Pageable pageable, UUID projectId) {
         return activityRepository.findAllByProjectId(pageable, projectId);
     }
 
+    public Slice<ActivityProjection> findSliceByProjectIdAndStatus(Pageable pageable, UUID projectId, StatusEnum status) {
+        return activityRepository.findSliceByProjectIdAndStatus(pageable, projectId, status.getCode());
+    }
+
+    public Slice<ActivityProjection> findSliceByProjectId(Pageable pageable, UUID projectId) {
+        return activityRepository.findSliceByProjectId(pageable, projectId);
+    }
+
+    public Page<ActivityProjection> findEstimatedByProjectIdAndStatus(Pageable pageable, UUID projectId, StatusEnum status) {
+        Slice<ActivityProjection> slicedActivities = activityRepository.findSliceByProjectIdAndStatus(pageable, projectId,
+                status.getCode());
+
+        return EstimatedPage.of(slicedActivities,
+                () -> rowEstimateRepository.estimateActivitiesByProjectIdAndStatus(projectId, status.getCode()));
+    }
+
+    public Page<ActivityProjection> findEstimatedByProjectId(Pageable pageable, UUID projectId) {
+        Slice<ActivityProjection> slicedActivities = activityRepository.findSliceByProjectId(pageable, projectId);
+
+        return EstimatedPage.of(slicedActivities,
+                () -> rowEstimateRepository.estimateActivitiesByProjectId(projectId));
+    }
+
+    public Slice<ActivityProjection> findByProjectIdAndStatusAfter(Pageable pageable, UUID projectId, StatusEnum status,
+                                                               PageCursor after) {
+        if (after == null) {
+            return activityRepository.findSliceByProjectIdAndStatus(pageable, projectId, status.getCode());
+        }
+
+        return activityRepository.findSliceByProjectIdAndStatusAfter(pageable, projectId, status.getCode(),
+                after.creationDate(), after.id());
+    }
+
+    public Slice<ActivityProjection> findByProjectIdAfter(Pageable pageable, UUID projectId, PageCursor after) {
+        if (after == null) {
+            return activityRepository.findSliceByProjectId(pageable, projectId);
+        }
+
+        return activityRepository.findSliceByProjectIdAfter(pageable, projectId, after.creationDate(), after.id());
+    }
+
+    @Transactional
+    public void exportByProjectId(UUID projectId, Consumer<ActivityProjection> consumer) {
+        try (Stream<ActivityProjection> activities = activityRepository.streamAllByProjectId(projectId)) {
+            activities.forEach(consumer);
+        }
+    }
+
+    @Transactional
+    public void exportByClientId(UUID clientId, Consumer<ActivityProjection> consumer) {
+        try (Stream<ActivityProjection> activities = activityRepository.streamAllByClientId(clientId)) {
+            activities.forEach(consumer);
+        }
+    }
+
     @Transactional
     public ActivityEntity add(UUID projectId, ActivityEntity activityEntity) {
         Optional<ProjectEntity> optionalProjectEntity = projectRepository.findById(projectId);
@@ -50,30 +132,129 @@ public class ActivityService {
             throw new ProjectNonExistent(LEGEND_PROJECT_NON_EXISTENT);
         }
 
-        boolean existActivity = activityRepository.existsByProjectIdAndDescription(projectId, activityEntity.getDescription());
-        if (existActivity) {
+        // The project read above may come from the cache, so an insert that adds nothing tells a duplicate description
+        // from a project deleted meanwhile by reading the project again.
+        ActivityEntity savedActivity = activityRepository.insertIfAbsent(projectId, activityEntity.getDescription(),
+                        StatusEnum.OPEN.getCode())
+                .orElseThrow(() -> projectRepository.existsById(projectId)
+                        ? new ActivityExistent(LEGEND_ACTIVITY_ALREADY_EXIST)
+                        : new ProjectNonExistent(LEGEND_PROJECT_NON_EXISTENT));
+        savedActivity.setProject(optionalProjectEntity.get());
+        suggestionIndex.putActivity(savedActivity.getId(), savedActivity.getDescription(), projectId);
+
+        return savedActivity;
+    }
+
+    @Transactional
+    public List<ActivityEntity> addAll(UUID projectId, List<ActivityEntity> activityEntities) {
+        // The activities go to the partition of their project, read under the lock their counter updates take on it
+        // anyway, so the archival job can't move the project while they are being inserted.
+        ProjectEntity projectEntity = projectRepository.lockById(projectId)
+                .orElseThrow(() -> new ProjectNonExistent(LEGEND_PROJECT_NON_EXISTENT));
+
+        Set<String> descriptions = new LinkedHashSet<>();
+        for (ActivityEntity activityEntity : activityEntities) {
+            if (!descriptions.add(activityEntity.getDescription())) {
+                throw new ActivityExistent(LEGEND_ACTIVITY_REPEATED_IN_BATCH + ": " + activityEntity.getDescription());
+            }
+        }
+
+        List<String> existingDescriptions = activityRepository.findDescriptionsByProjectIdAndDescriptionIn(projectId,
+                descriptions);
+        if (!existingDescriptions.isEmpty()) {
+            throw new ActivityExistent(LEGEND_ACTIVITY_ALREADY_EXIST + ": " + String.join(", ", existingDescriptions));
+        }
+
+        activityEntities.forEach(activityEntity -> {
+            activityEntity.setProject(projectEntity);
+            activityEntity.setStatus(StatusEnum.OPEN);
+            activityEntity.setArchived(projectEntity.isArchived());
+        });
+        List<ActivityEntity> savedActivities;
+        try {
+            savedActivities = activityRepository.saveAll(activityEntities);
+            activityRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
             throw new ActivityExistent(LEGEND_ACTIVITY_ALREADY_EXIST);
         }
+        savedActivities.forEach(activity -> suggestionIndex.putActivity(activity.getId(), activity.getDescription(),
+                projectId));
 
-        activityEntity.setProject(optionalProjectEntity.get());
-        activityEntity.setStatus(StatusEnum.OPEN);
-        return activityRepository.save(activityEntity);
+        return savedActivities;
     }
 
     @Transactional
-    public ActivityEntity update(ActivityEntity activityEntity) {
-        return activityRepository.save(activityEntity);
+    public Optional<ActivityEntity> update(UUID id, ActivityEntity activityEntity, String expectedVersionTag) {
+        String statusValue = Optional.ofNullable(activityEntity.getStatus()).map(StatusEnum::getCode).orElse(null);
+
+        Optional<ActivityEntity> updatedActivity;
+        try {
+            updatedActivity = activityRepository.updateById(id, activityEntity.getDescription(), statusValue,
+                    expectedVersionTag);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ActivityExistent(LEGEND_ACTIVITY_ALREADY_EXIST);
+        }
+        if (updatedActivity.isEmpty()) {
+            checkVersionMismatch(id, expectedVersionTag);
+        }
+        updatedActivity.ifPresent(activity -> suggestionIndex.putActivity(activity.getId(), activity.getDescription(),
+                activity.getProject() == null ? null : activity.getProject().getId()));
+
+        return updatedActivity;
     }
 
     @Transactional
-    public String updateStatus(UUID id, StatusEnum status) {
-        activityRepository.updateStatus(id, status.getCode());
+    public Optional<String> updateStatus(UUID id, StatusEnum status, String expectedVersionTag) {
+        if (activityRepository.updateStatus(id, status.getCode(), expectedVersionTag) == 0) {
+            checkVersionMismatch(id, expectedVersionTag);
+            return Optional.empty();
+        }
 
-        return LEGEND_ACTIVITY_STATUS_UPDATED;
+        return Optional.of(LEGEND_ACTIVITY_STATUS_UPDATED);
     }
 
     @Transactional
-    public void delete(ActivityEntity activityEntity) {
-        activityRepository.delete(activityEntity);
+    public BulkStatusResponseDto updateStatus(List<UUID> ids, StatusEnum status) {
+        int activities = activityRepository.updateStatusByIdIn(ids.toArray(UUID[]::new), status.getCode());
+
+        return new BulkStatusResponseDto(status, 0, activities);
+    }
+
+    @Transactional
+    public BulkStatusResponseDto updateStatusByProjectId(UUID projectId, StatusEnum fromStatus, StatusEnum status) {
+        int activities = fromStatus == null
+                ? activityRepository.updateStatusByProjectId(projectId, status.getCode())
+                : activityRepository.updateStatusByProjectIdAndStatus(projectId, fromStatus.getCode(), status.getCode());
+
+        return new BulkStatusResponseDto(status, 0, activities);
+    }
+
+    @Transactional
+    public boolean delete(UUID id) {
+        if (activityRepository.removeById(id) == 0) {
+            return false;
+        }
+        suggestionIndex.remove(id);
+
+        return true;
+    }
+
+    // The tag lookup, unlike existsById, also misses an activity whose project was deleted.
+    private void checkVersionMismatch(UUID id, String expectedVersionTag) {
+        if (expectedVersionTag != null && activityRepository.findVersionTagById(id).isPresent()) {
+            throw new VersionMismatch(LEGEND_ACTIVITY_VERSION_MISMATCH);
+        }
+    }
+
+    private static ActivityEntity toEntity(ActivityRowProjection row, ProjectEntity project) {
+        return ActivityEntity.builder()
+                .id(row.id())
+                .description(row.description())
+                .status(row.status())
+                .creationDate(row.creationDate())
+                .updateDate(row.updateDate())
+                .version(row.version())
+                .project(project)
+                .build();
     }
 }
@@ -0,0 +1,51 @@
+package com.project.manager.service;
+
+import com.project.manager.repository.IProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Moves the activities of the projects finished for a while to the archived partition of tb_activity, and brings back
+ * to the hot one those of the archived projects that were reopened. The reopened projects go first since they are
+ * being worked on again, and archiving only gets the time they leave. A batch moves up to batch-size activities, and a
+ * project always moves in the same batch as all its activities, alone when it has more than that.
+ */
+@Service
+public class ArchiveService {
+
+    private final static Logger log = LoggerFactory.getLogger(ArchiveService.class);
+
+    private final IProjectRepository projectRepository;
+    private final Duration finishedFor;
+    private final Duration maxDuration;
+    private final BatchRunner batchRunner;
+
+    public ArchiveService(IProjectRepository projectRepository,
+                          @Value("${project-manager.archive.finished-for}") Duration finishedFor,
+                          @Value("${project-manager.archive.max-duration}") Duration maxDuration,
+                          @Value("${project-manager.archive.batch-size}") int batchSize,
+                          @Value("${project-manager.archive.pause}") Duration pause) {
+        this.projectRepository = projectRepository;
+        this.finishedFor = finishedFor;
+        this.maxDuration = maxDuration;
+        this.batchRunner = new BatchRunner(batchSize, pause);
+    }
+
+    @Scheduled(cron = "${project-manager.archive.cron}")
+    public void archive() {
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+
+        long restored = batchRunner.run(projectRepository::restoreBatch, deadline);
+        long archived = batchRunner.run(size -> projectRepository.archiveBatch(finishedFor.toString(), size),
+                deadline);
+
+        if (restored + archived > 0) {
+            log.info("Archived {} projects and restored {} projects", archived, restored);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.manager.service;
+
+import java.time.Duration;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Runs a batch operation over and over until it has nothing left to do or its deadline passes. Each batch is a short
+ * transaction of its own followed by a pause that leaves room to the user traffic, so the scheduled jobs that go
+ * through large tables never hold their locks for long.
+ */
+class BatchRunner {
+
+    private final int batchSize;
+    private final Duration pause;
+
+    BatchRunner(int batchSize, Duration pause) {
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    long run(IntUnaryOperator operation, long deadline) {
+        long done = 0;
+        while (System.nanoTime() - deadline < 0) {
+            int rows = operation.applyAsInt(batchSize);
+            if (rows == 0) {
+                break;
+            }
+            done += rows;
+
+            try {
+                Thread.sleep(pause.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return done;
+    }
+}
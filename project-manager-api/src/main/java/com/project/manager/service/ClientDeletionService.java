@@ -0,0 +1,137 @@
+package com.project.manager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.manager.config.CacheConfig;
+import com.project.manager.constant.DeletionStatusEnum;
+import com.project.manager.dto.ClientDeletionDto;
+import com.project.manager.projection.StatusCountProjection;
+import com.project.manager.repository.IActivityRepository;
+import com.project.manager.repository.IClientRepository;
+import com.project.manager.repository.IProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Deletes a client in the background for clients too large for one statement. Activities and then projects are
+ * deleted in batches, each in its own transaction and followed by a pause, so no statement holds its locks or builds
+ * its trigger transition tables for long, and the client goes last through {@link ClientService#delete}. A deletion
+ * that runs out of time fails and can be started again where it stopped. The progress of a deletion is kept in memory
+ * of the instance that runs it for a while after it ends.
+ */
+@Service
+public class ClientDeletionService {
+
+    private final static Logger log = LoggerFactory.getLogger(ClientDeletionService.class);
+    private final static Duration DELETION_RETENTION = Duration.ofHours(1);
+
+    private final IClientRepository clientRepository;
+    private final IProjectRepository projectRepository;
+    private final IActivityRepository activityRepository;
+    private final ClientService clientService;
+    private final CacheManager cacheManager;
+    private final TaskExecutor taskExecutor;
+    private final Duration maxDuration;
+    private final BatchRunner batchRunner;
+    private final Cache<UUID, ClientDeletionDto> deletions = Caffeine.newBuilder()
+            .expireAfterWrite(DELETION_RETENTION)
+            .build();
+
+    public ClientDeletionService(IClientRepository clientRepository, IProjectRepository projectRepository,
+                                 IActivityRepository activityRepository, ClientService clientService,
+                                 CacheManager cacheManager,
+                                 @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                 TaskExecutor taskExecutor,
+                                 @Value("${project-manager.client-deletion.max-duration}") Duration maxDuration,
+                                 @Value("${project-manager.client-deletion.batch-size}") int batchSize,
+                                 @Value("${project-manager.client-deletion.pause}") Duration pause) {
+        this.clientRepository = clientRepository;
+        this.projectRepository = projectRepository;
+        this.activityRepository = activityRepository;
+        this.clientService = clientService;
+        this.cacheManager = cacheManager;
+        this.taskExecutor = taskExecutor;
+        this.maxDuration = maxDuration;
+        this.batchRunner = new BatchRunner(batchSize, pause);
+    }
+
+    /**
+     * Starts deleting the client, or returns the deletion already running for it. Empty when the client does not
+     * exist.
+     */
+    public Optional<ClientDeletionDto> start(UUID clientId) {
+        ClientDeletionDto running = deletions.getIfPresent(clientId);
+        if (running != null && running.status() == DeletionStatusEnum.RUNNING) {
+            return Optional.of(running);
+        }
+        if (!clientRepository.existsById(clientId)) {
+            return Optional.empty();
+        }
+
+        List<StatusCountProjection> statusCounts = clientRepository.findStatusCountsById(clientId);
+        ClientDeletionDto started = ClientDeletionDto.start(clientId,
+                total(statusCounts, StatusCountProjection.PROJECTS), total(statusCounts, StatusCountProjection.ACTIVITIES));
+        ClientDeletionDto deletion = deletions.asMap().merge(clientId, started,
+                (previous, next) -> previous.status() == DeletionStatusEnum.RUNNING ? previous : next);
+        if (deletion == started) {
+            taskExecutor.execute(() -> delete(clientId));
+        }
+
+        return Optional.of(deletion);
+    }
+
+    public Optional<ClientDeletionDto> findById(UUID clientId) {
+        return Optional.ofNullable(deletions.getIfPresent(clientId));
+    }
+
+    private void delete(UUID clientId) {
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        try {
+            batchRunner.run(batchSize -> {
+                List<UUID> deleted = activityRepository.removeBatchByClientId(clientId, batchSize);
+                evict(CacheConfig.ACTIVITIES_CACHE, deleted);
+                progress(clientId, 0, deleted.size());
+                return deleted.size();
+            }, deadline);
+            batchRunner.run(batchSize -> {
+                List<UUID> deleted = projectRepository.removeBatchByClientId(clientId, batchSize);
+                evict(CacheConfig.PROJECTS_CACHE, deleted);
+                progress(clientId, deleted.size(), 0);
+                return deleted.size();
+            }, deadline);
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IllegalStateException("Deletion did not finish within " + maxDuration);
+            }
+            clientService.delete(clientId);
+
+            deletions.asMap().computeIfPresent(clientId, (id, deletion) -> deletion.finished());
+        } catch (RuntimeException ex) {
+            log.error("Deletion of client {} failed", clientId, ex);
+            deletions.asMap().computeIfPresent(clientId, (id, deletion) -> deletion.failed(ex.getMessage()));
+        }
+    }
+
+    // Each batch commits before its rows are evicted, so a read racing the batch cannot cache them back.
+    private void evict(String cacheName, List<UUID> ids) {
+        Optional.ofNullable(cacheManager.getCache(cacheName)).ifPresent(cache -> ids.forEach(cache::evict));
+    }
+
+    private void progress(UUID clientId, long projects, long activities) {
+        deletions.asMap().computeIfPresent(clientId, (id, deletion) -> deletion.withDeleted(projects, activities));
+    }
+
+    private static long total(List<StatusCountProjection> statusCounts, String kind) {
+        return StatusCountProjection.totalsOf(statusCounts, kind).values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -1,30 +1,75 @@
 package com.project.manager.service;
 
+import com.project.manager.dto.ClientSummaryDto;
+import com.project.manager.dto.PageCursor;
 import com.project.manager.entity.ClientEntity;
+import com.project.manager.exception.VersionMismatch;
+import com.project.manager.projection.StatusCountProjection;
 import com.project.manager.repository.IClientRepository;
+import com.project.manager.repository.RowEstimateRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class ClientService {
 
+    private final static String LEGEND_CLIENT_VERSION_MISMATCH = "The client was modified by someone else";
+
     private final IClientRepository clientRepository;
+    private final RowEstimateRepository rowEstimateRepository;
+    private final SuggestionIndex suggestionIndex;
 
-    public ClientService(IClientRepository clientRepository) {
+    public ClientService(IClientRepository clientRepository, RowEstimateRepository rowEstimateRepository,
+                         SuggestionIndex suggestionIndex) {
         this.clientRepository = clientRepository;
+        this.rowEstimateRepository = rowEstimateRepository;
+        this.suggestionIndex = suggestionIndex;
     }
 
     public Optional<ClientEntity> findById(UUID id) {
         return clientRepository.findById(id);
     }
 
+    public Optional<String> findVersionTagById(UUID id) {
+        return clientRepository.findVersionTagById(id);
+    }
+
+    public Optional<ClientSummaryDto> findSummaryById(UUID id) {
+        List<StatusCountProjection> statusCounts = clientRepository.findStatusCountsById(id);
+        if (statusCounts.isEmpty() && !clientRepository.existsById(id)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(ClientSummaryDto.of(id, statusCounts));
+    }
+
     public Page<ClientEntity> findAll(Pageable pageable) {
-        return clientRepository.findAll(pageable);
+        return clientRepository.findAllClients(pageable);
+    }
+
+    public Slice<ClientEntity> findSliceAll(Pageable pageable) {
+        return clientRepository.findSliceAll(pageable);
+    }
+
+    public Page<ClientEntity> findEstimatedAll(Pageable pageable) {
+        Slice<ClientEntity> slicedClients = clientRepository.findSliceAll(pageable);
+
+        return EstimatedPage.of(slicedClients, rowEstimateRepository::estimateClients);
+    }
+
+    public Slice<ClientEntity> findAllAfter(Pageable pageable, PageCursor after) {
+        if (after == null) {
+            return clientRepository.findSliceAll(pageable);
+        }
+
+        return clientRepository.findSliceAllAfter(pageable, after.creationDate(), after.id());
     }
 
     @Transactional
@@ -33,7 +78,23 @@ public class ClientService {
     }
 
     @Transactional
-    public void delete(ClientEntity clientEntity) {
-        clientRepository.delete(clientEntity);
+    public Optional<ClientEntity> update(UUID id, ClientEntity clientEntity, String expectedVersionTag) {
+        Optional<ClientEntity> updatedClient = clientRepository.updateById(id, clientEntity.getName(),
+                expectedVersionTag);
+        if (updatedClient.isEmpty() && expectedVersionTag != null && clientRepository.existsById(id)) {
+            throw new VersionMismatch(LEGEND_CLIENT_VERSION_MISMATCH);
+        }
+
+        return updatedClient;
+    }
+
+    @Transactional
+    public boolean delete(UUID id) {
+        if (clientRepository.removeById(id) == 0) {
+            return false;
+        }
+        suggestionIndex.removeClient(id);
+
+        return true;
     }
 }
@@ -0,0 +1,20 @@
+package com.project.manager.service;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.function.LongSupplier;
+
+final class EstimatedPage {
+
+    private EstimatedPage() {
+    }
+
+    static <T> Page<T> of(Slice<T> slice, LongSupplier estimate) {
+        long seenRecords = slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+
+        return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(),
+                () -> Math.max(estimate.getAsLong(), seenRecords));
+    }
+}
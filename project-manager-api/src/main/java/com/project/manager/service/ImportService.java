@@ -0,0 +1,46 @@
+package com.project.manager.service;
+
+import com.project.manager.dto.ImportReportDto;
+import com.project.manager.projection.SuggestionProjection;
+import com.project.manager.repository.BulkImportRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class ImportService {
+
+    private final BulkImportRepository bulkImportRepository;
+    private final SuggestionIndex suggestionIndex;
+
+    public ImportService(BulkImportRepository bulkImportRepository, SuggestionIndex suggestionIndex) {
+        this.bulkImportRepository = bulkImportRepository;
+        this.suggestionIndex = suggestionIndex;
+    }
+
+    @Transactional
+    public ImportReportDto importClients(InputStream csv) {
+        return bulkImportRepository.importClients(csv);
+    }
+
+    @Transactional
+    public ImportReportDto importProjects(InputStream csv) {
+        List<SuggestionProjection> imported = new ArrayList<>();
+        ImportReportDto report = bulkImportRepository.importProjects(csv, imported::add);
+        suggestionIndex.putProjects(imported);
+
+        return report;
+    }
+
+    @Transactional
+    public ImportReportDto importActivities(InputStream csv) {
+        List<SuggestionProjection> imported = new ArrayList<>();
+        ImportReportDto report = bulkImportRepository.importActivities(csv, imported::add);
+        suggestionIndex.putActivities(imported);
+
+        return report;
+    }
+}
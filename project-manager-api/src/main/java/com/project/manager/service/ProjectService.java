@@ -1,19 +1,33 @@
 package com.project.manager.service;
 
 import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.BulkStatusResponseDto;
+import com.project.manager.dto.PageCursor;
+import com.project.manager.dto.ProjectDetailDto;
+import com.project.manager.dto.ProjectSummaryDto;
 import com.project.manager.entity.ClientEntity;
 import com.project.manager.entity.ProjectEntity;
 import com.project.manager.exception.ClientNonExistent;
 import com.project.manager.exception.ProjectExistent;
+import com.project.manager.exception.VersionMismatch;
+import com.project.manager.projection.BulkStatusProjection;
+import com.project.manager.projection.ProjectProjection;
+import com.project.manager.projection.StatusCountProjection;
 import com.project.manager.repository.IClientRepository;
 import com.project.manager.repository.IProjectRepository;
+import com.project.manager.repository.RowEstimateRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ProjectService {
@@ -21,32 +35,119 @@ public class ProjectService {
     private final static String LEGEND_CLIENT_NON_EXISTENT = "Non existent client";
     private final static String LEGEND_PROJECT_ALREADY_EXIST = "Project already exists for this client";
     private final static String LEGEND_PROJECT_NON_EXISTENT = "Non existent project";
+    private final static String LEGEND_PROJECT_VERSION_MISMATCH = "The project was modified by someone else";
     private final static String LEGEND_PROJECT_STATUS_UPDATED = "The project status was updated";
 
     private final IProjectRepository projectRepository;
     private final IClientRepository clientRepository;
+    private final RowEstimateRepository rowEstimateRepository;
+    private final SuggestionIndex suggestionIndex;
 
-    public ProjectService(IProjectRepository projectRepository, IClientRepository clientRepository) {
+    public ProjectService(IProjectRepository projectRepository, IClientRepository clientRepository,
+                          RowEstimateRepository rowEstimateRepository, SuggestionIndex suggestionIndex) {
         this.projectRepository = projectRepository;
         this.clientRepository = clientRepository;
+        this.rowEstimateRepository = rowEstimateRepository;
+        this.suggestionIndex = suggestionIndex;
     }
 
-    public Optional<ProjectEntity> findById(UUID id) {
-        return projectRepository.findById(id);
+    public Optional<ProjectDetailDto> findDetailById(UUID id) {
+        return projectRepository.findProgressById(id)
+                .flatMap(progress -> projectRepository.findById(id)
+                        .map(projectEntity -> ProjectDetailDto.of(projectEntity, progress)));
     }
 
-    public Page<ProjectEntity> findByClientIdAndStatus(Pageable pageable, UUID clientId, StatusEnum status) {
+    public Optional<String> findVersionTagById(UUID id) {
+        return projectRepository.findVersionTagById(id);
+    }
+
+    public Optional<ProjectSummaryDto> findSummaryById(UUID id) {
+        List<StatusCountProjection> statusCounts = projectRepository.findStatusCountsById(id);
+        if (statusCounts.isEmpty() && !projectRepository.existsById(id)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(ProjectSummaryDto.of(id, statusCounts));
+    }
+
+    public Page<ProjectProjection> findByClientIdAndStatus(Pageable pageable, UUID clientId, StatusEnum status) {
         return projectRepository.findAllByClientIdAndStatus(pageable, clientId, status.getCode());
     }
 
-    public Page<ProjectEntity> findAll(Pageable pageable) {
-        return projectRepository.findAll(pageable);
+    public Page<ProjectProjection> findAll(Pageable pageable) {
+        return projectRepository.findAllProjections(pageable);
     }
 
-    public Page<ProjectEntity> findAllByStatus(Pageable pageable, StatusEnum status) {
+    public Page<ProjectProjection> findAllByStatus(Pageable pageable, StatusEnum status) {
         return projectRepository.findAllByStatus(pageable, status.getCode());
     }
 
+    public Slice<ProjectProjection> findSliceByClientIdAndStatus(Pageable pageable, UUID clientId, StatusEnum status) {
+        return projectRepository.findSliceByClientIdAndStatus(pageable, clientId, status.getCode());
+    }
+
+    public Slice<ProjectProjection> findSliceAll(Pageable pageable) {
+        return projectRepository.findSliceAll(pageable);
+    }
+
+    public Slice<ProjectProjection> findSliceAllByStatus(Pageable pageable, StatusEnum status) {
+        return projectRepository.findSliceByStatus(pageable, status.getCode());
+    }
+
+    public Page<ProjectProjection> findEstimatedByClientIdAndStatus(Pageable pageable, UUID clientId, StatusEnum status) {
+        Slice<ProjectProjection> slicedProjects = projectRepository.findSliceByClientIdAndStatus(pageable, clientId,
+                status.getCode());
+
+        return EstimatedPage.of(slicedProjects,
+                () -> rowEstimateRepository.estimateProjectsByClientIdAndStatus(clientId, status.getCode()));
+    }
+
+    public Page<ProjectProjection> findEstimatedAll(Pageable pageable) {
+        Slice<ProjectProjection> slicedProjects = projectRepository.findSliceAll(pageable);
+
+        return EstimatedPage.of(slicedProjects, rowEstimateRepository::estimateProjects);
+    }
+
+    public Page<ProjectProjection> findEstimatedAllByStatus(Pageable pageable, StatusEnum status) {
+        Slice<ProjectProjection> slicedProjects = projectRepository.findSliceByStatus(pageable, status.getCode());
+
+        return EstimatedPage.of(slicedProjects,
+                () -> rowEstimateRepository.estimateProjectsByStatus(status.getCode()));
+    }
+
+    public Slice<ProjectProjection> findByClientIdAndStatusAfter(Pageable pageable, UUID clientId, StatusEnum status,
+                                                             PageCursor after) {
+        if (after == null) {
+            return projectRepository.findSliceByClientIdAndStatus(pageable, clientId, status.getCode());
+        }
+
+        return projectRepository.findSliceByClientIdAndStatusAfter(pageable, clientId, status.getCode(),
+                after.creationDate(), after.id());
+    }
+
+    public Slice<ProjectProjection> findAllAfter(Pageable pageable, PageCursor after) {
+        if (after == null) {
+            return projectRepository.findSliceAll(pageable);
+        }
+
+        return projectRepository.findSliceAllAfter(pageable, after.creationDate(), after.id());
+    }
+
+    public Slice<ProjectProjection> findAllByStatusAfter(Pageable pageable, StatusEnum status, PageCursor after) {
+        if (after == null) {
+            return projectRepository.findSliceByStatus(pageable, status.getCode());
+        }
+
+        return projectRepository.findSliceByStatusAfter(pageable, status.getCode(), after.creationDate(), after.id());
+    }
+
+    @Transactional
+    public void exportByClientId(UUID clientId, Consumer<ProjectProjection> consumer) {
+        try (Stream<ProjectProjection> projects = projectRepository.streamAllByClientId(clientId)) {
+            projects.forEach(consumer);
+        }
+    }
+
     @Transactional
     public ProjectEntity add(UUID clientId, ProjectEntity projectEntity) {
         Optional<ClientEntity> optionalClientEntity = clientRepository.findById(clientId);
@@ -54,31 +155,70 @@ public class ProjectService {
             throw new ClientNonExistent(LEGEND_CLIENT_NON_EXISTENT);
         }
 
-        boolean existProject = projectRepository.existsByClientIdAndDescription(clientId, projectEntity.getDescription());
-        if (existProject) {
+        ProjectEntity savedProject = projectRepository.insertIfAbsent(clientId, projectEntity.getDescription(),
+                        StatusEnum.OPEN.getCode())
+                .orElseThrow(() -> new ProjectExistent(LEGEND_PROJECT_ALREADY_EXIST));
+        savedProject.setClient(optionalClientEntity.get());
+        suggestionIndex.putProject(savedProject.getId(), savedProject.getDescription(), clientId);
+
+        return savedProject;
+    }
+
+    @Transactional
+    public Optional<ProjectEntity> update(UUID id, ProjectEntity projectEntity, String expectedVersionTag) {
+        String statusValue = Optional.ofNullable(projectEntity.getStatus()).map(StatusEnum::getCode).orElse(null);
+
+        Optional<ProjectEntity> updatedProject;
+        try {
+            updatedProject = projectRepository.updateById(id, projectEntity.getDescription(), statusValue,
+                    expectedVersionTag);
+        } catch (DataIntegrityViolationException ex) {
             throw new ProjectExistent(LEGEND_PROJECT_ALREADY_EXIST);
         }
+        if (updatedProject.isEmpty()) {
+            checkVersionMismatch(id, expectedVersionTag);
+        }
+        updatedProject.ifPresent(project -> suggestionIndex.putProject(project.getId(), project.getDescription(),
+                project.getClient() == null ? null : project.getClient().getId()));
 
-        projectEntity.setClient(optionalClientEntity.get());
-        projectEntity.setStatus(StatusEnum.OPEN);
-
-        return projectRepository.save(projectEntity);
+        return updatedProject;
     }
 
     @Transactional
-    public ProjectEntity update(ProjectEntity projectEntity) {
-        return projectRepository.save(projectEntity);
+    public Optional<String> updateStatus(UUID id, StatusEnum status, String expectedVersionTag) {
+        if (projectRepository.updateStatus(id, status.getCode(), expectedVersionTag) == 0) {
+            checkVersionMismatch(id, expectedVersionTag);
+            return Optional.empty();
+        }
+
+        return Optional.of(LEGEND_PROJECT_STATUS_UPDATED);
     }
 
     @Transactional
-    public String updateStatus(UUID id, StatusEnum status) {
-        projectRepository.updateStatus(id, status.getCode());
+    public BulkStatusResponseDto updateStatus(List<UUID> ids, StatusEnum status, boolean cascade) {
+        UUID[] itemIds = ids.toArray(UUID[]::new);
+        if (!cascade) {
+            return new BulkStatusResponseDto(status, projectRepository.updateStatusByIdIn(itemIds, status.getCode()), 0);
+        }
 
-        return LEGEND_PROJECT_STATUS_UPDATED;
+        BulkStatusProjection updated = projectRepository.updateStatusCascadeByIdIn(itemIds, status.getCode());
+
+        return new BulkStatusResponseDto(status, updated.getProjects(), updated.getActivities());
     }
 
     @Transactional
-    public void delete(ProjectEntity projectEntity) {
-        projectRepository.delete(projectEntity);
+    public boolean delete(UUID id) {
+        if (projectRepository.removeById(id) == 0) {
+            return false;
+        }
+        suggestionIndex.remove(id);
+
+        return true;
+    }
+
+    private void checkVersionMismatch(UUID id, String expectedVersionTag) {
+        if (expectedVersionTag != null && projectRepository.existsById(id)) {
+            throw new VersionMismatch(LEGEND_PROJECT_VERSION_MISMATCH);
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.project.manager.service;
+
+import com.project.manager.repository.IActivityRepository;
+import com.project.manager.repository.IClientRepository;
+import com.project.manager.repository.IProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Physically removes the rows marked as deleted, oldest first: activities, then the activities of deleted projects,
+ * which are not marked themselves, then projects and clients once nothing is left below them, so a purge never
+ * cascades. A run is scheduled for the quiet hours and stops once its time is up, leaving the rest to the next run.
+ * Rows locked by another instance purging at the same time are skipped.
+ */
+@Service
+public class PurgeService {
+
+    private final static Logger log = LoggerFactory.getLogger(PurgeService.class);
+
+    private final IClientRepository clientRepository;
+    private final IProjectRepository projectRepository;
+    private final IActivityRepository activityRepository;
+    private final Duration maxDuration;
+    private final BatchRunner batchRunner;
+
+    public PurgeService(IClientRepository clientRepository, IProjectRepository projectRepository,
+                        IActivityRepository activityRepository,
+                        @Value("${project-manager.purge.max-duration}") Duration maxDuration,
+                        @Value("${project-manager.purge.batch-size}") int batchSize,
+                        @Value("${project-manager.purge.pause}") Duration pause) {
+        this.clientRepository = clientRepository;
+        this.projectRepository = projectRepository;
+        this.activityRepository = activityRepository;
+        this.maxDuration = maxDuration;
+        this.batchRunner = new BatchRunner(batchSize, pause);
+    }
+
+    @Scheduled(cron = "${project-manager.purge.cron}")
+    public void purge() {
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+
+        long activities = batchRunner.run(activityRepository::purgeBatch, deadline)
+                + batchRunner.run(activityRepository::purgeBatchOfDeletedProjects, deadline);
+        long projects = batchRunner.run(projectRepository::purgeBatch, deadline);
+        long clients = batchRunner.run(clientRepository::purgeBatch, deadline);
+
+        if (clients + projects + activities > 0) {
+            log.info("Purged {} clients, {} projects and {} activities", clients, projects, activities);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.manager.service;
+
+import com.project.manager.dto.SearchCursor;
+import com.project.manager.dto.SearchResultDto;
+import com.project.manager.exception.InvalidSearchQuery;
+import com.project.manager.repository.SearchRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+@Service
+public class SearchService {
+
+    private final static String LEGEND_EMPTY_SEARCH = "The search text is empty";
+    private final static int SEARCH_MAX_LENGTH = 200;
+    private final static String LEGEND_SEARCH_TOO_LONG = "The search text is longer than " + SEARCH_MAX_LENGTH + " characters";
+
+    private final SearchRepository searchRepository;
+
+    public SearchService(SearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    public Slice<SearchResultDto> search(Pageable pageable, String text, UUID clientId, UUID projectId,
+                                         SearchCursor after) {
+        if (text == null || text.isBlank()) {
+            throw new InvalidSearchQuery(LEGEND_EMPTY_SEARCH);
+        }
+        if (text.length() > SEARCH_MAX_LENGTH) {
+            throw new InvalidSearchQuery(LEGEND_SEARCH_TOO_LONG);
+        }
+
+        return searchRepository.search(pageable, text.strip(), clientId, projectId, after);
+    }
+}
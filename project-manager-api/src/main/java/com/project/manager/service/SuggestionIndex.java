@@ -0,0 +1,462 @@
+package com.project.manager.service;
+
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.dto.SuggestionDto;
+import com.project.manager.exception.InvalidSearchQuery;
+import com.project.manager.projection.SuggestionProjection;
+import com.project.manager.repository.IActivityRepository;
+import com.project.manager.repository.IProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead over project and activity descriptions, served from memory so keystrokes never reach the database.
+ * Descriptions are split into lower-cased words kept in a sorted vocabulary, each with the ids of the descriptions
+ * holding it. Every typed word must be found in a suggested description: the last one as a prefix, the others as whole
+ * words, and a typed word found neither way falls back to the vocabulary words sharing at least half of its trigrams
+ * ({@code pg_trgm} style, padded with two spaces in front and one behind), which tolerates typos. Words with digits,
+ * mostly codes and numbers unique to a description, are only matched by prefix. Suggestions are
+ * read from the postings of the typed word with the fewest of them, best matching vocabulary words first, and the
+ * search stops once no remaining word can beat the suggestions found or a bounded number of descriptions was examined,
+ * so a one letter prefix costs about as much as a rare word.
+ * <p>
+ * The index is loaded when the application is ready and reloaded on a fixed delay to pick up writes made by other
+ * instances. Writes of this instance are applied once their transaction commits; those committed while a reload runs
+ * are applied again on the reloaded index.
+ */
+@Service
+public class SuggestionIndex {
+
+    private final static Logger log = LoggerFactory.getLogger(SuggestionIndex.class);
+    private final static float EXACT_SIMILARITY = 1.0f;
+    private final static float PREFIX_SIMILARITY = 0.9f;
+    private final static float FUZZY_SIMILARITY = 0.8f;
+    private final static float MIN_SHARED_TRIGRAMS = 0.5f;
+    private final static int MAX_WORDS_PER_TYPED_WORD = 200;
+    private final static int MAX_WORDS_PER_TRIGRAM = 10_000;
+    private final static int MAX_EXAMINED_DESCRIPTIONS = 2_000;
+    private final static int SUGGEST_MAX_LENGTH = 100;
+    private final static String LEGEND_SUGGEST_TOO_LONG = "The typed text is longer than " + SUGGEST_MAX_LENGTH + " characters";
+    private final static Comparator<SuggestionDto> SUGGESTION_ORDER = Comparator.comparingDouble(SuggestionDto::score).reversed()
+            .thenComparingInt(suggestion -> suggestion.description().length())
+            .thenComparing(SuggestionDto::description)
+            .thenComparing(SuggestionDto::id);
+
+    private final IProjectRepository projectRepository;
+    private final IActivityRepository activityRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object reloadLock = new Object();
+    private volatile Index index = new Index();
+    private List<Consumer<Index>> changesDuringReload;
+
+    public SuggestionIndex(IProjectRepository projectRepository, IActivityRepository activityRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        this.activityRepository = activityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public List<SuggestionDto> suggest(String text, UUID clientId, UUID projectId, int size) {
+        if (text != null && text.length() > SUGGEST_MAX_LENGTH) {
+            throw new InvalidSearchQuery(LEGEND_SUGGEST_TOO_LONG);
+        }
+
+        String[] typedWords = words(text);
+        if (typedWords.length == 0 || size <= 0) {
+            return List.of();
+        }
+
+        Index current = index;
+        List<Map<String, Float>> matchingWords = new ArrayList<>();
+        for (int i = 0; i < typedWords.length; i++) {
+            Map<String, Float> matches = current.matchingWords(typedWords[i], i == typedWords.length - 1);
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            matchingWords.add(matches);
+        }
+
+        Map<String, Float> leadingWords = matchingWords.stream()
+                .min(Comparator.comparingLong(current::postingCount))
+                .orElseThrow();
+        List<Map.Entry<String, Float>> leadingWordOrder = leadingWords.entrySet().stream()
+                .sorted(Map.Entry.<String, Float>comparingByValue().reversed()
+                        .thenComparingInt(word -> word.getKey().length())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .toList();
+
+        Map<String, Integer> leadingWordRanks = new HashMap<>();
+        PriorityQueue<SuggestionDto> best = new PriorityQueue<>(SUGGESTION_ORDER.reversed());
+        int examined = 0;
+        search:
+        for (Map.Entry<String, Float> leadingWord : leadingWordOrder) {
+            float bestPossibleScore = (leadingWord.getValue() + matchingWords.size() - 1) / matchingWords.size();
+            for (Entry entry : current.postings.getOrDefault(leadingWord.getKey(), Set.of())) {
+                if (examined++ >= MAX_EXAMINED_DESCRIPTIONS
+                        || best.size() == size && bestPossibleScore < best.peek().score()) {
+                    break search;
+                }
+                if (isExaminedBefore(entry, leadingWordRanks) || !current.isWithin(entry, clientId, projectId)) {
+                    continue;
+                }
+                float score = score(entry, matchingWords);
+                if (score > 0 && (best.size() < size || ranksBefore(score, entry.description(), best.peek()))) {
+                    best.add(new SuggestionDto(entry.type(), entry.id(), entry.description(), entry.parentId(), score));
+                    if (best.size() > size) {
+                        best.poll();
+                    }
+                }
+            }
+            leadingWordRanks.put(leadingWord.getKey(), leadingWordRanks.size());
+        }
+
+        return best.stream().sorted(SUGGESTION_ORDER).toList();
+    }
+
+    public void putProject(UUID id, String description, UUID clientId) {
+        afterCommit(index -> index.put(new Entry(SearchTypeEnum.PROJECT, id, description, clientId)));
+    }
+
+    public void putActivity(UUID id, String description, UUID projectId) {
+        afterCommit(index -> index.put(new Entry(SearchTypeEnum.ACTIVITY, id, description, projectId)));
+    }
+
+    public void putProjects(List<SuggestionProjection> projects) {
+        if (!projects.isEmpty()) {
+            afterCommit(index -> projects.forEach(project -> index.put(new Entry(SearchTypeEnum.PROJECT, project.id(),
+                    project.description(), project.parentId()))));
+        }
+    }
+
+    public void putActivities(List<SuggestionProjection> activities) {
+        if (!activities.isEmpty()) {
+            afterCommit(index -> activities.forEach(activity -> index.put(new Entry(SearchTypeEnum.ACTIVITY,
+                    activity.id(), activity.description(), activity.parentId()))));
+        }
+    }
+
+    /**
+     * Removes a project or an activity, and with a project its activities.
+     */
+    public void remove(UUID id) {
+        afterCommit(index -> index.remove(id, true));
+    }
+
+    public void removeClient(UUID clientId) {
+        afterCommit(index -> index.removeChildren(clientId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${project-manager.suggest.reload-interval}",
+            initialDelayString = "${project-manager.suggest.reload-interval}")
+    public void reload() {
+        synchronized (reloadLock) {
+            reloadIndex();
+        }
+    }
+
+    private void reloadIndex() {
+        synchronized (this) {
+            changesDuringReload = new ArrayList<>();
+        }
+
+        Index reloaded = new Index();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<SuggestionProjection> projects = projectRepository.streamAllSuggestions()) {
+                    projects.forEach(project -> reloaded.put(new Entry(SearchTypeEnum.PROJECT, project.id(),
+                            project.description(), project.parentId())));
+                }
+                try (Stream<SuggestionProjection> activities = activityRepository.streamAllSuggestions()) {
+                    activities.forEach(activity -> reloaded.put(new Entry(SearchTypeEnum.ACTIVITY, activity.id(),
+                            activity.description(), activity.parentId())));
+                }
+            });
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                changesDuringReload = null;
+            }
+            throw ex;
+        }
+
+        synchronized (this) {
+            changesDuringReload.forEach(change -> change.accept(reloaded));
+            changesDuringReload = null;
+            index = reloaded;
+        }
+        log.info("Suggestion index loaded with {} descriptions", reloaded.entries.size());
+    }
+
+    private void afterCommit(Consumer<Index> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<Index> change) {
+        change.accept(index);
+        if (changesDuringReload != null) {
+            changesDuringReload.add(change);
+        }
+    }
+
+    /**
+     * Average over the typed words of the best similarity of a word of the description, or zero when a typed word has
+     * no match in it.
+     */
+    private static float score(Entry entry, List<Map<String, Float>> matchingWords) {
+        float total = 0;
+        for (Map<String, Float> matches : matchingWords) {
+            float bestSimilarity = 0;
+            for (String word : entry.words()) {
+                Float similarity = matches.get(word);
+                if (similarity != null && similarity > bestSimilarity) {
+                    bestSimilarity = similarity;
+                }
+            }
+            if (bestSimilarity == 0) {
+                return 0;
+            }
+            total += bestSimilarity;
+        }
+
+        return total / matchingWords.size();
+    }
+
+    /**
+     * Whether the description also holds a leading word whose postings were read before.
+     */
+    private static boolean isExaminedBefore(Entry entry, Map<String, Integer> leadingWordRanks) {
+        if (leadingWordRanks.isEmpty()) {
+            return false;
+        }
+        for (String word : entry.words()) {
+            if (leadingWordRanks.containsKey(word)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean ranksBefore(float score, String description, SuggestionDto suggestion) {
+        if (score != suggestion.score()) {
+            return score > suggestion.score();
+        }
+        if (description.length() != suggestion.description().length()) {
+            return description.length() < suggestion.description().length();
+        }
+
+        return description.compareTo(suggestion.description()) < 0;
+    }
+
+    static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+
+        String lowerCase = text.toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i < lowerCase.length(); ) {
+            int codePoint = lowerCase.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                start = start < 0 ? i : start;
+            } else if (start >= 0) {
+                addWord(words, lowerCase.substring(start, i));
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (start >= 0) {
+            addWord(words, lowerCase.substring(start));
+        }
+
+        return words.toArray(String[]::new);
+    }
+
+    private static void addWord(List<String> words, String word) {
+        if (!words.contains(word)) {
+            words.add(word);
+        }
+    }
+
+    private static boolean hasDigit(String word) {
+        return word.chars().anyMatch(Character::isDigit);
+    }
+
+    static Set<String> trigrams(String word, boolean prefix) {
+        Set<String> trigrams = new LinkedHashSet<>();
+        String padded = "  " + word + (prefix ? "" : " ");
+        for (int start = 0; start + 3 <= padded.length(); start++) {
+            trigrams.add(padded.substring(start, start + 3));
+        }
+
+        return trigrams;
+    }
+
+    private record Entry(SearchTypeEnum type, UUID id, String description, UUID parentId, String[] words) {
+
+        private Entry(SearchTypeEnum type, UUID id, String description, UUID parentId) {
+            this(type, id, description, parentId, SuggestionIndex.words(description));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Entry entry && id.equals(entry.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode();
+        }
+    }
+
+    /**
+     * Entries by id and by word, vocabulary words by trigram and, for clients and projects, the ids of their projects
+     * and activities.
+     */
+    private static class Index {
+
+        private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Set<Entry>> postings = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<String>> vocabularyByTrigram = new ConcurrentHashMap<>();
+        private final Map<UUID, Set<UUID>> children = new ConcurrentHashMap<>();
+
+        private Map<String, Float> matchingWords(String typedWord, boolean prefix) {
+            Map<String, Float> matches = new HashMap<>();
+            if (postings.containsKey(typedWord)) {
+                matches.put(typedWord, EXACT_SIMILARITY);
+            }
+            if (prefix) {
+                postings.subMap(typedWord, false, typedWord + Character.MAX_VALUE, false).keySet().stream()
+                        .limit(MAX_WORDS_PER_TYPED_WORD)
+                        .forEach(word -> matches.put(word, PREFIX_SIMILARITY));
+            }
+            if (!matches.isEmpty()) {
+                return matches;
+            }
+
+            Set<String> trigrams = trigrams(typedWord, prefix);
+            Map<String, Integer> sharedTrigrams = new HashMap<>();
+            for (String trigram : trigrams) {
+                Set<String> words = vocabularyByTrigram.get(trigram);
+                if (words != null && words.size() <= MAX_WORDS_PER_TRIGRAM) {
+                    words.forEach(word -> sharedTrigrams.merge(word, 1, Integer::sum));
+                }
+            }
+
+            int minShared = (int) Math.ceil(trigrams.size() * MIN_SHARED_TRIGRAMS);
+            sharedTrigrams.entrySet().stream()
+                    .filter(shared -> shared.getValue() >= minShared)
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(MAX_WORDS_PER_TYPED_WORD)
+                    .forEach(shared -> matches.put(shared.getKey(),
+                            FUZZY_SIMILARITY * shared.getValue() / trigrams.size()));
+
+            return matches;
+        }
+
+        private long postingCount(Map<String, Float> words) {
+            return words.keySet().stream().mapToLong(word -> postings.getOrDefault(word, Set.of()).size()).sum();
+        }
+
+        private void put(Entry entry) {
+            remove(entry.id(), false);
+
+            entries.put(entry.id(), entry);
+            for (String word : entry.words()) {
+                postings.computeIfAbsent(word, key -> {
+                    if (!hasDigit(word)) {
+                        trigrams(word, false).forEach(trigram -> vocabularyByTrigram
+                                .computeIfAbsent(trigram, words -> ConcurrentHashMap.newKeySet()).add(word));
+                    }
+                    return ConcurrentHashMap.newKeySet();
+                }).add(entry);
+            }
+            if (entry.parentId() != null) {
+                children.computeIfAbsent(entry.parentId(), key -> ConcurrentHashMap.newKeySet()).add(entry.id());
+            }
+        }
+
+        private void remove(UUID id, boolean withChildren) {
+            Entry entry = entries.remove(id);
+            if (entry != null) {
+                for (String word : entry.words()) {
+                    postings.computeIfPresent(word, (key, wordEntries) -> {
+                        if (!wordEntries.remove(entry) || !wordEntries.isEmpty()) {
+                            return wordEntries;
+                        }
+                        if (!hasDigit(word)) {
+                            trigrams(word, false).forEach(trigram -> vocabularyByTrigram.computeIfPresent(trigram,
+                                    (key2, words) -> words.remove(word) && words.isEmpty() ? null : words));
+                        }
+                        return null;
+                    });
+                }
+                if (entry.parentId() != null) {
+                    children.computeIfPresent(entry.parentId(), (key, ids) -> ids.remove(id) && ids.isEmpty() ? null : ids);
+                }
+            }
+            if (withChildren) {
+                removeChildren(id);
+            }
+        }
+
+        private void removeChildren(UUID parentId) {
+            Set<UUID> childIds = children.remove(parentId);
+            if (childIds != null) {
+                childIds.forEach(childId -> remove(childId, true));
+            }
+        }
+
+        private boolean isWithin(Entry entry, UUID clientId, UUID projectId) {
+            if (projectId != null && !(entry.type() == SearchTypeEnum.ACTIVITY && projectId.equals(entry.parentId()))) {
+                return false;
+            }
+            if (clientId == null) {
+                return true;
+            }
+            if (entry.type() == SearchTypeEnum.PROJECT) {
+                return clientId.equals(entry.parentId());
+            }
+            Entry project = entry.parentId() == null ? null : entries.get(entry.parentId());
+            return project != null && clientId.equals(project.parentId());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+-- Activities are split in a hot partition and an archived one, listed by the archived flag of their project, which
+-- the archival job sets on projects finished for a while and moves their activities along. The flag of an activity
+-- always follows its project, so a description stays unique within its project even though the unique index has to
+-- hold the partition key, and reads by project touch the partition of that project alone: the lists of the projects
+-- in progress walk indexes that hold no finished work.
+-- The primary key has to hold the partition key as well, so it can't stop an id from being taken in both partitions:
+-- tb_activity_id keeps the ids unique across them, filled and emptied by statement triggers along with tb_activity.
+-- A move between partitions is an update and leaves it alone. Moving a row to the other partition makes a concurrent
+-- update or delete of it fail with a serialization failure (40001) instead of following the row, which the API
+-- answers with 409 Conflict for the caller to retry.
+alter table tb_project add column archived boolean not null default false;
+
+create index ix_project_archivable on tb_project (update_date) where status = 'F' and not archived and deleted_date is null;
+create index ix_project_reopened on tb_project (id) where status <> 'F' and archived and deleted_date is null;
+
+alter table tb_activity rename to tb_activity_unpartitioned;
+
+create table tb_activity (
+    id uuid not null,
+    project_id uuid,
+    description varchar(100) not null,
+    status char(1) not null,
+    creation_date timestamp(6),
+    update_date timestamp(6),
+    version bigint not null default 0,
+    search_vector tsvector generated always as (to_tsvector('simple', description)) stored,
+    deleted_date timestamp(6),
+    archived boolean not null default false
+) partition by list (archived);
+
+create table tb_activity_hot partition of tb_activity for values in (false);
+create table tb_activity_archived partition of tb_activity for values in (true);
+
+insert into tb_activity (id, project_id, description, status, creation_date, update_date, version, deleted_date)
+select id, project_id, description, status, creation_date, update_date, version, deleted_date
+from tb_activity_unpartitioned;
+
+drop table tb_activity_unpartitioned;
+
+create table tb_activity_id (id uuid primary key);
+insert into tb_activity_id select id from tb_activity;
+
+alter table tb_activity add constraint tb_activity_pkey primary key (id, archived);
+alter table tb_activity add constraint fk_project_id foreign key (project_id) references tb_project(id) on delete cascade;
+alter table tb_activity add constraint ck_activity_status check (status in ('O', 'P', 'B', 'F', 'C'));
+
+create index ix_activity_project_status_creation on tb_activity (project_id, status, creation_date, id)
+    where deleted_date is null;
+create index ix_activity_project_creation on tb_activity (project_id, creation_date, id) where deleted_date is null;
+create unique index ix_activity_project_description on tb_activity (project_id, description, archived)
+    where deleted_date is null;
+create index ix_activity_search on tb_activity using gin (search_vector) where deleted_date is null;
+create index ix_activity_deleted on tb_activity (deleted_date) where deleted_date is not null;
+
+create trigger tr_count_activities_insert after insert on tb_activity
+    referencing new table as new_activities for each statement execute function fn_count_activities();
+create trigger tr_count_activities_update after update on tb_activity
+    referencing old table as old_activities new table as new_activities for each statement execute function fn_count_activities();
+create trigger tr_count_activities_delete after delete on tb_activity
+    referencing old table as old_activities for each statement execute function fn_count_activities();
+
+create function fn_register_activity_ids() returns trigger as $$
+begin
+    if tg_op = 'INSERT' then
+        insert into tb_activity_id select id from new_activities;
+    else
+        delete from tb_activity_id where id in (select id from old_activities);
+    end if;
+
+    return null;
+end
+$$ language plpgsql;
+
+create trigger tr_register_activity_ids_insert after insert on tb_activity
+    referencing new table as new_activities for each statement execute function fn_register_activity_ids();
+create trigger tr_register_activity_ids_delete after delete on tb_activity
+    referencing old table as old_activities for each statement execute function fn_register_activity_ids();
@@ -0,0 +1,2 @@
+-- The list of all projects pages in creation order like the other lists, and reads it from this index.
+create index ix_project_creation on tb_project (creation_date, id) where deleted_date is null;
@@ -0,0 +1,46 @@
+-- Every write on activities takes their projects before the counter rows, in id order: an add locks its project before
+-- its insert, and a status change or delete of another activity of that project, which used to upsert the counters
+-- first, now waits for it there instead of deadlocking on them.
+create or replace function fn_count_activities() returns trigger as $$
+declare
+    changes status_count_change[];
+begin
+    if tg_op = 'INSERT' then
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities
+                         where deleted_date is null);
+    elsif tg_op = 'DELETE' then
+        changes := array(select (project_id, status, -1)::status_count_change from old_activities
+                         where deleted_date is null);
+    else
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities
+                         where deleted_date is null
+                         union all
+                         select (project_id, status, -1)::status_count_change from old_activities
+                         where deleted_date is null);
+    end if;
+
+    perform 1 from tb_project
+    where id in (select scope_id from unnest(changes)) and deleted_date is null
+    order by id
+    for no key update;
+
+    perform fn_add_status_counts('A', array(
+            select (p.id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id and p.deleted_date is null
+            union all
+            select (p.client_id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id and p.deleted_date is null));
+
+    update tb_project p
+    set activity_count = p.activity_count + d.total,
+        finished_activity_count = p.finished_activity_count + d.finished
+    from (select scope_id, sum(delta) as total, coalesce(sum(delta) filter (where status = 'F'), 0) as finished
+          from unnest(changes)
+          where scope_id is not null
+          group by scope_id
+          having sum(delta) <> 0 or sum(delta) filter (where status = 'F') <> 0) d
+    where p.id = d.scope_id and p.deleted_date is null;
+
+    return null;
+end
+$$ language plpgsql;
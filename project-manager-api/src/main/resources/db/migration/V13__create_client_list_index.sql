@@ -0,0 +1,2 @@
+-- The list of all clients pages in creation order like the other lists, and reads it from this index.
+create index ix_client_creation on tb_client (creation_date, id) where deleted_date is null;
@@ -0,0 +1,4 @@
+-- A purge deletes marked projects and clients, and the cascade of their foreign keys looks the children up by the
+-- parent id among the marked rows too. The partial indexes skip those rows, so the cascade reads these full ones.
+create index ix_activity_project on tb_activity (project_id);
+create index ix_project_client on tb_project (client_id);
@@ -0,0 +1,29 @@
+create table tb_client (
+    id uuid not null,
+    name varchar(50) not null,
+    creation_date timestamp(6),
+    update_date timestamp(6),
+    primary key (id)
+);
+
+create table tb_project (
+    id uuid not null,
+    client_id uuid,
+    description varchar(100) not null,
+    status varchar(255) not null,
+    creation_date timestamp(6),
+    update_date timestamp(6),
+    primary key (id),
+    constraint fk_client_id foreign key (client_id) references tb_client(id) on delete cascade
+);
+
+create table tb_activity (
+    id uuid not null,
+    project_id uuid,
+    description varchar(100) not null,
+    status varchar(255) not null,
+    creation_date timestamp(6),
+    update_date timestamp(6),
+    primary key (id),
+    constraint fk_project_id foreign key (project_id) references tb_project(id) on delete cascade
+);
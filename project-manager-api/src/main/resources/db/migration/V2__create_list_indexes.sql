@@ -0,0 +1,7 @@
+create index ix_project_client_status_creation on tb_project (client_id, status, creation_date, id);
+create index ix_project_status_creation on tb_project (status, creation_date, id);
+create index ix_project_client_description on tb_project (client_id, description);
+
+create index ix_activity_project_status_creation on tb_activity (project_id, status, creation_date, id);
+create index ix_activity_project_creation on tb_activity (project_id, creation_date, id);
+create index ix_activity_project_description on tb_activity (project_id, description);
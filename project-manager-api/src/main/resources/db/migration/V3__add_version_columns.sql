@@ -0,0 +1,3 @@
+alter table tb_client add column version bigint not null default 0;
+alter table tb_project add column version bigint not null default 0;
+alter table tb_activity add column version bigint not null default 0;
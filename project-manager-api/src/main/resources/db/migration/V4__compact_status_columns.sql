@@ -0,0 +1,5 @@
+alter table tb_project alter column status type char(1);
+alter table tb_project add constraint ck_project_status check (status in ('O', 'P', 'B', 'F', 'C'));
+
+alter table tb_activity alter column status type char(1);
+alter table tb_activity add constraint ck_activity_status check (status in ('O', 'P', 'B', 'F', 'C'));
@@ -0,0 +1,133 @@
+-- Projects per status of each client (kind P) and activities per status of each client and of each project (kind A).
+-- Triggers keep the counts in the same transaction as every write, bulk updates, COPY imports and cascaded
+-- deletes included, so a dashboard reads a handful of rows instead of aggregating tb_project and tb_activity.
+create table tb_status_counter (
+    scope_id uuid not null,
+    kind char(1) not null,
+    status char(1) not null,
+    total bigint not null,
+    primary key (scope_id, kind, status),
+    constraint ck_status_counter_kind check (kind in ('P', 'A'))
+);
+
+create type status_count_change as (
+    scope_id uuid,
+    status char(1),
+    delta bigint
+);
+
+-- Changes that cancel out (an update that keeps the status) are dropped, and the rows are written in key order so
+-- concurrent writers lock them in the same order.
+create function fn_add_status_counts(counter_kind char(1), changes status_count_change[]) returns void as $$
+    insert into tb_status_counter as c (scope_id, kind, status, total)
+    select scope_id, counter_kind, status, sum(delta)
+    from unnest(changes)
+    where scope_id is not null
+    group by scope_id, status
+    having sum(delta) <> 0
+    order by scope_id, status
+    on conflict (scope_id, kind, status) do update set total = c.total + excluded.total
+$$ language sql;
+
+-- Activities count for their project and for its client. Once the project is gone (a cascaded delete) neither scope
+-- is touched: the project trigger settles both.
+create function fn_count_activities() returns trigger as $$
+declare
+    changes status_count_change[];
+begin
+    if tg_op = 'INSERT' then
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities);
+    elsif tg_op = 'DELETE' then
+        changes := array(select (project_id, status, -1)::status_count_change from old_activities);
+    else
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities
+                         union all
+                         select (project_id, status, -1)::status_count_change from old_activities);
+    end if;
+
+    perform fn_add_status_counts('A', array(
+            select (p.id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id
+            union all
+            select (p.client_id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id));
+
+    return null;
+end
+$$ language plpgsql;
+
+-- Projects count for their client. A project that leaves a client, deleted or moved, takes its activity counts along.
+create function fn_count_projects() returns trigger as $$
+declare
+    changes status_count_change[];
+begin
+    if tg_op = 'INSERT' then
+        changes := array(select (client_id, status, 1)::status_count_change from new_projects);
+    elsif tg_op = 'DELETE' then
+        changes := array(select (client_id, status, -1)::status_count_change from old_projects);
+
+        perform fn_add_status_counts('A', array(
+                select (o.client_id, s.status, -s.total)::status_count_change
+                from old_projects o
+                join tb_client cl on cl.id = o.client_id
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'));
+        delete from tb_status_counter where scope_id in (select id from old_projects);
+    else
+        changes := array(select (client_id, status, 1)::status_count_change from new_projects
+                         union all
+                         select (client_id, status, -1)::status_count_change from old_projects);
+
+        perform fn_add_status_counts('A', array(
+                select (o.client_id, s.status, -s.total)::status_count_change
+                from old_projects o
+                join new_projects n on n.id = o.id and n.client_id is distinct from o.client_id
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'
+                union all
+                select (n.client_id, s.status, s.total)::status_count_change
+                from old_projects o
+                join new_projects n on n.id = o.id and n.client_id is distinct from o.client_id
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'));
+    end if;
+
+    perform fn_add_status_counts('P', array(
+            select (c.scope_id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_client cl on cl.id = c.scope_id));
+
+    return null;
+end
+$$ language plpgsql;
+
+create function fn_count_clients() returns trigger as $$
+begin
+    delete from tb_status_counter where scope_id in (select id from old_clients);
+
+    return null;
+end
+$$ language plpgsql;
+
+create trigger tr_count_activities_insert after insert on tb_activity
+    referencing new table as new_activities for each statement execute function fn_count_activities();
+create trigger tr_count_activities_update after update on tb_activity
+    referencing old table as old_activities new table as new_activities for each statement execute function fn_count_activities();
+create trigger tr_count_activities_delete after delete on tb_activity
+    referencing old table as old_activities for each statement execute function fn_count_activities();
+
+create trigger tr_count_projects_insert after insert on tb_project
+    referencing new table as new_projects for each statement execute function fn_count_projects();
+create trigger tr_count_projects_update after update on tb_project
+    referencing old table as old_projects new table as new_projects for each statement execute function fn_count_projects();
+create trigger tr_count_projects_delete after delete on tb_project
+    referencing old table as old_projects for each statement execute function fn_count_projects();
+
+create trigger tr_count_clients_delete after delete on tb_client
+    referencing old table as old_clients for each statement execute function fn_count_clients();
+
+insert into tb_status_counter (scope_id, kind, status, total)
+select client_id, 'P', status, count(*) from tb_project where client_id is not null group by client_id, status
+union all
+select project_id, 'A', status, count(*) from tb_activity where project_id is not null group by project_id, status
+union all
+select p.client_id, 'A', a.status, count(*)
+from tb_activity a join tb_project p on p.id = a.project_id
+where p.client_id is not null
+group by p.client_id, a.status;
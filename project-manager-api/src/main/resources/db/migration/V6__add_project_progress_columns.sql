@@ -0,0 +1,97 @@
+-- Activities of each project and how many of them are finished, kept on the project row itself so every project
+-- listing can show its progress without joining or aggregating tb_activity.
+alter table tb_project
+    add column activity_count integer not null default 0,
+    add column finished_activity_count integer not null default 0;
+
+update tb_project p
+set activity_count = a.total, finished_activity_count = a.finished
+from (select project_id, count(*) as total, count(*) filter (where status = 'F') as finished
+      from tb_activity group by project_id) a
+where p.id = a.project_id;
+
+-- Same status changes as before, now also applied to the project rows. The increments run under the project row lock,
+-- so concurrent writers of a project queue behind each other instead of losing updates.
+create or replace function fn_count_activities() returns trigger as $$
+declare
+    changes status_count_change[];
+begin
+    if tg_op = 'INSERT' then
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities);
+    elsif tg_op = 'DELETE' then
+        changes := array(select (project_id, status, -1)::status_count_change from old_activities);
+    else
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities
+                         union all
+                         select (project_id, status, -1)::status_count_change from old_activities);
+    end if;
+
+    perform fn_add_status_counts('A', array(
+            select (p.id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id
+            union all
+            select (p.client_id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id));
+
+    update tb_project p
+    set activity_count = p.activity_count + d.total,
+        finished_activity_count = p.finished_activity_count + d.finished
+    from (select scope_id, sum(delta) as total, coalesce(sum(delta) filter (where status = 'F'), 0) as finished
+          from unnest(changes)
+          where scope_id is not null
+          group by scope_id
+          having sum(delta) <> 0 or sum(delta) filter (where status = 'F') <> 0) d
+    where p.id = d.scope_id;
+
+    return null;
+end
+$$ language plpgsql;
+
+-- Updates that keep the status and the client of every project, the progress updates above among them, have nothing
+-- to count and return straight away.
+create or replace function fn_count_projects() returns trigger as $$
+declare
+    changes status_count_change[];
+begin
+    if tg_op = 'UPDATE' then
+        if not exists(select 1 from old_projects o join new_projects n on n.id = o.id
+                      where n.status <> o.status or n.client_id is distinct from o.client_id) then
+            return null;
+        end if;
+    end if;
+
+    if tg_op = 'INSERT' then
+        changes := array(select (client_id, status, 1)::status_count_change from new_projects);
+    elsif tg_op = 'DELETE' then
+        changes := array(select (client_id, status, -1)::status_count_change from old_projects);
+
+        perform fn_add_status_counts('A', array(
+                select (o.client_id, s.status, -s.total)::status_count_change
+                from old_projects o
+                join tb_client cl on cl.id = o.client_id
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'));
+        delete from tb_status_counter where scope_id in (select id from old_projects);
+    else
+        changes := array(select (client_id, status, 1)::status_count_change from new_projects
+                         union all
+                         select (client_id, status, -1)::status_count_change from old_projects);
+
+        perform fn_add_status_counts('A', array(
+                select (o.client_id, s.status, -s.total)::status_count_change
+                from old_projects o
+                join new_projects n on n.id = o.id and n.client_id is distinct from o.client_id
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'
+                union all
+                select (n.client_id, s.status, s.total)::status_count_change
+                from old_projects o
+                join new_projects n on n.id = o.id and n.client_id is distinct from o.client_id
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'));
+    end if;
+
+    perform fn_add_status_counts('P', array(
+            select (c.scope_id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_client cl on cl.id = c.scope_id));
+
+    return null;
+end
+$$ language plpgsql;
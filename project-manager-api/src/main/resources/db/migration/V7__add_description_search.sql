@@ -0,0 +1,10 @@
+-- Descriptions are searched through a stored tsvector that PostgreSQL recomputes on every insert and update, so no
+-- write path can leave it behind. The simple configuration neither stems nor drops stop words, as descriptions mix
+-- languages and are often short codes.
+alter table tb_project add column search_vector tsvector
+    generated always as (to_tsvector('simple', description)) stored;
+alter table tb_activity add column search_vector tsvector
+    generated always as (to_tsvector('simple', description)) stored;
+
+create index ix_project_search on tb_project using gin (search_vector);
+create index ix_activity_search on tb_activity using gin (search_vector);
@@ -0,0 +1,7 @@
+-- A description is unique within its client or project. The unique indexes replace the plain ones and let an add
+-- detect a duplicate in the insert itself, which stays correct for concurrent requests.
+drop index ix_project_client_description;
+create unique index ix_project_client_description on tb_project (client_id, description);
+
+drop index ix_activity_project_description;
+create unique index ix_activity_project_description on tb_activity (project_id, description);
@@ -0,0 +1,147 @@
+-- A delete only marks the row and the rows below it, and a purge job removes the marked rows later in small batches.
+-- Every index the application reads through skips the marked rows, so they cost the lists and lookups nothing, and a
+-- description is unique among the rows that are not deleted.
+alter table tb_client add column deleted_date timestamp(6);
+alter table tb_project add column deleted_date timestamp(6);
+alter table tb_activity add column deleted_date timestamp(6);
+
+drop index ix_project_client_status_creation;
+drop index ix_project_status_creation;
+drop index ix_project_client_description;
+drop index ix_project_search;
+create index ix_project_client_status_creation on tb_project (client_id, status, creation_date, id)
+    where deleted_date is null;
+create index ix_project_status_creation on tb_project (status, creation_date, id) where deleted_date is null;
+create unique index ix_project_client_description on tb_project (client_id, description) where deleted_date is null;
+create index ix_project_search on tb_project using gin (search_vector) where deleted_date is null;
+
+drop index ix_activity_project_status_creation;
+drop index ix_activity_project_creation;
+drop index ix_activity_project_description;
+drop index ix_activity_search;
+create index ix_activity_project_status_creation on tb_activity (project_id, status, creation_date, id)
+    where deleted_date is null;
+create index ix_activity_project_creation on tb_activity (project_id, creation_date, id) where deleted_date is null;
+create unique index ix_activity_project_description on tb_activity (project_id, description) where deleted_date is null;
+create index ix_activity_search on tb_activity using gin (search_vector) where deleted_date is null;
+
+-- The purge reads the marked rows oldest first.
+create index ix_client_deleted on tb_client (deleted_date) where deleted_date is not null;
+create index ix_project_deleted on tb_project (deleted_date) where deleted_date is not null;
+create index ix_activity_deleted on tb_activity (deleted_date) where deleted_date is not null;
+
+-- Marked activities stop counting, and once their project is marked neither scope is touched: the project trigger
+-- settles both.
+create or replace function fn_count_activities() returns trigger as $$
+declare
+    changes status_count_change[];
+begin
+    if tg_op = 'INSERT' then
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities
+                         where deleted_date is null);
+    elsif tg_op = 'DELETE' then
+        changes := array(select (project_id, status, -1)::status_count_change from old_activities
+                         where deleted_date is null);
+    else
+        changes := array(select (project_id, status, 1)::status_count_change from new_activities
+                         where deleted_date is null
+                         union all
+                         select (project_id, status, -1)::status_count_change from old_activities
+                         where deleted_date is null);
+    end if;
+
+    perform fn_add_status_counts('A', array(
+            select (p.id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id and p.deleted_date is null
+            union all
+            select (p.client_id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_project p on p.id = c.scope_id and p.deleted_date is null));
+
+    update tb_project p
+    set activity_count = p.activity_count + d.total,
+        finished_activity_count = p.finished_activity_count + d.finished
+    from (select scope_id, sum(delta) as total, coalesce(sum(delta) filter (where status = 'F'), 0) as finished
+          from unnest(changes)
+          where scope_id is not null
+          group by scope_id
+          having sum(delta) <> 0 or sum(delta) filter (where status = 'F') <> 0) d
+    where p.id = d.scope_id and p.deleted_date is null;
+
+    return null;
+end
+$$ language plpgsql;
+
+-- A marked project leaves its client like a deleted one, taking its activity counts along, and projects of a marked
+-- client are not counted at all.
+create or replace function fn_count_projects() returns trigger as $$
+declare
+    changes status_count_change[];
+begin
+    if tg_op = 'UPDATE' then
+        if not exists(select 1 from old_projects o join new_projects n on n.id = o.id
+                      where n.status <> o.status or n.client_id is distinct from o.client_id
+                         or n.deleted_date is distinct from o.deleted_date) then
+            return null;
+        end if;
+    end if;
+
+    if tg_op = 'INSERT' then
+        changes := array(select (client_id, status, 1)::status_count_change from new_projects
+                         where deleted_date is null);
+    elsif tg_op = 'DELETE' then
+        changes := array(select (client_id, status, -1)::status_count_change from old_projects
+                         where deleted_date is null);
+
+        perform fn_add_status_counts('A', array(
+                select (o.client_id, s.status, -s.total)::status_count_change
+                from old_projects o
+                join tb_client cl on cl.id = o.client_id and cl.deleted_date is null
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'));
+        delete from tb_status_counter where scope_id in (select id from old_projects);
+    else
+        changes := array(select (client_id, status, 1)::status_count_change from new_projects
+                         where deleted_date is null
+                         union all
+                         select (client_id, status, -1)::status_count_change from old_projects
+                         where deleted_date is null);
+
+        perform fn_add_status_counts('A', array(
+                select (o.client_id, s.status, -s.total)::status_count_change
+                from old_projects o
+                join new_projects n on n.id = o.id and o.deleted_date is null
+                    and (n.client_id is distinct from o.client_id or n.deleted_date is not null)
+                join tb_client cl on cl.id = o.client_id and cl.deleted_date is null
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'
+                union all
+                select (n.client_id, s.status, s.total)::status_count_change
+                from old_projects o
+                join new_projects n on n.id = o.id and n.client_id is distinct from o.client_id
+                    and n.deleted_date is null
+                join tb_status_counter s on s.scope_id = o.id and s.kind = 'A'));
+        delete from tb_status_counter
+        where scope_id in (select n.id from old_projects o join new_projects n on n.id = o.id
+                           where o.deleted_date is null and n.deleted_date is not null);
+    end if;
+
+    perform fn_add_status_counts('P', array(
+            select (c.scope_id, c.status, c.delta)::status_count_change
+            from unnest(changes) c join tb_client cl on cl.id = c.scope_id and cl.deleted_date is null));
+
+    return null;
+end
+$$ language plpgsql;
+
+create or replace function fn_count_clients() returns trigger as $$
+begin
+    if tg_op = 'DELETE' then
+        delete from tb_status_counter where scope_id in (select id from old_clients);
+    else
+        delete from tb_status_counter where scope_id in (select id from new_clients where deleted_date is not null);
+    end if;
+
+    return null;
+end
+$$ language plpgsql;
+
+create trigger tr_count_clients_update after update on tb_client
+    referencing new table as new_clients for each statement execute function fn_count_clients();
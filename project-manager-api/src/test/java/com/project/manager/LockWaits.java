@@ -0,0 +1,37 @@
+package com.project.manager;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lets a concurrency test keep its transaction open until the statement it races is waiting on its locks, instead of
+ * sleeping for a while and hoping the statement got there.
+ */
+public final class LockWaits {
+
+    private final static long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private LockWaits() {
+    }
+
+    public static void awaitLockWaiter(JdbcTemplate jdbcTemplate) {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (System.nanoTime() - deadline < 0) {
+            // The activity view is read once per transaction unless its snapshot is dropped.
+            jdbcTemplate.execute("SELECT pg_stat_clear_snapshot()");
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_stat_activity " +
+                    "WHERE datname = current_database() and pid <> pg_backend_pid() and wait_event_type = 'Lock')",
+                    Boolean.class))) {
+                return;
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        throw new IllegalStateException("No statement waited on the locks of the test transaction");
+    }
+}
@@ -0,0 +1,63 @@
+package com.project.manager.config;
+
+import com.project.manager.entity.ProjectEntity;
+import com.project.manager.repository.IProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+class CacheConfigTest {
+
+    private final static UUID CLIENT_ID = UUID.fromString("7a1c0e5d-3b2f-4c6a-9d8e-1f0a2b3c4d01");
+    private final static UUID PROJECT_ID = UUID.fromString("7a1c0e5d-3b2f-4c6a-9d8e-1f0a2b3c4d02");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IProjectRepository projectRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_client (id, name) VALUES (?, 'Cached client')", CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status) " +
+                "VALUES (?, ?, 'Cached project', 'O')", PROJECT_ID, CLIENT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_project WHERE id = ?", PROJECT_ID);
+        jdbcTemplate.update("DELETE FROM tb_client WHERE id = ?", CLIENT_ID);
+    }
+
+    @Test
+    void should_evict_a_written_project_once_its_transaction_commits() {
+        assertThat(projectRepository.findById(PROJECT_ID).orElseThrow().getDescription(), is("Cached project"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            projectRepository.updateById(PROJECT_ID, "Renamed project", null, null);
+
+            ProjectEntity readBeforeCommit = CompletableFuture
+                    .supplyAsync(() -> projectRepository.findById(PROJECT_ID).orElseThrow())
+                    .join();
+            assertThat(readBeforeCommit.getDescription(), is("Cached project"));
+        });
+
+        assertThat(projectRepository.findById(PROJECT_ID).orElseThrow().getDescription(), is("Renamed project"));
+    }
+}
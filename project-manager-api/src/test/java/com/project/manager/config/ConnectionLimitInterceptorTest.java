@@ -0,0 +1,93 @@
+package com.project.manager.config;
+
+import com.project.manager.exception.ServiceOverloaded;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionLimitInterceptorTest {
+
+    private ConnectionLimitInterceptor connectionLimitInterceptor;
+    private HandlerMethod limitedHandler;
+    private HandlerMethod unlimitedHandler;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        connectionLimitInterceptor = new ConnectionLimitInterceptor(1, Duration.ofMillis(10));
+        limitedHandler = new HandlerMethod(new Handlers(), Handlers.class.getMethod("limited"));
+        unlimitedHandler = new HandlerMethod(new Handlers(), Handlers.class.getMethod("unlimited"));
+    }
+
+    @Test
+    void should_release_the_permit_when_the_request_completes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        assertTrue(connectionLimitInterceptor.preHandle(request, response, limitedHandler));
+        assertThat(connectionLimitInterceptor.availablePermits(), is(0));
+
+        connectionLimitInterceptor.afterCompletion(request, response, null, null);
+        assertThat(connectionLimitInterceptor.availablePermits(), is(1));
+    }
+
+    @Test
+    void should_reject_a_request_when_every_permit_is_taken() throws Exception {
+        connectionLimitInterceptor.preHandle(new MockHttpServletRequest(), response, limitedHandler);
+
+        assertThrows(ServiceOverloaded.class,
+                () -> connectionLimitInterceptor.preHandle(new MockHttpServletRequest(), response, limitedHandler));
+    }
+
+    @Test
+    void should_keep_the_permit_of_an_async_request_until_its_dispatch_completes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        connectionLimitInterceptor.preHandle(request, response, limitedHandler);
+        connectionLimitInterceptor.afterConcurrentHandlingStarted(request, response, null);
+
+        request.setDispatcherType(DispatcherType.ASYNC);
+        assertTrue(connectionLimitInterceptor.preHandle(request, response, limitedHandler));
+        assertThat(connectionLimitInterceptor.availablePermits(), is(0));
+
+        connectionLimitInterceptor.afterCompletion(request, response, null, null);
+        assertThat(connectionLimitInterceptor.availablePermits(), is(1));
+    }
+
+    @Test
+    void should_not_release_a_permit_twice() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        connectionLimitInterceptor.preHandle(request, response, limitedHandler);
+
+        connectionLimitInterceptor.afterCompletion(request, response, null, null);
+        connectionLimitInterceptor.afterCompletion(request, response, null, null);
+
+        assertThat(connectionLimitInterceptor.availablePermits(), is(1));
+    }
+
+    @Test
+    void should_not_take_a_permit_for_a_handler_that_is_not_limited() throws Exception {
+        connectionLimitInterceptor.preHandle(new MockHttpServletRequest(), response, limitedHandler);
+
+        assertTrue(connectionLimitInterceptor.preHandle(new MockHttpServletRequest(), response, unlimitedHandler));
+        assertThat(connectionLimitInterceptor.availablePermits(), is(0));
+    }
+
+    static class Handlers {
+
+        @ConnectionLimited
+        public void limited() {
+        }
+
+        public void unlimited() {
+        }
+    }
+}
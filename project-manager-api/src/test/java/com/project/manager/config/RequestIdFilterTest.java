@@ -0,0 +1,53 @@
+package com.project.manager.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.nullValue;
+
+class RequestIdFilterTest {
+
+    private final RequestIdFilter requestIdFilter = new RequestIdFilter();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final AtomicReference<String> loggedRequestId = new AtomicReference<>();
+    private final MockFilterChain filterChain = new MockFilterChain(new HttpServlet() {
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) {
+            loggedRequestId.set(MDC.get(RequestIdFilter.REQUEST_ID_KEY));
+        }
+    });
+
+    @Test
+    void should_reuse_the_request_id_of_the_caller() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, "checkout-42.a");
+
+        requestIdFilter.doFilter(request, response, filterChain);
+
+        assertThat(loggedRequestId.get(), is("checkout-42.a"));
+        assertThat(response.getHeader(RequestIdFilter.REQUEST_ID_HEADER), is("checkout-42.a"));
+        assertThat(MDC.get(RequestIdFilter.REQUEST_ID_KEY), is(nullValue()));
+    }
+
+    @Test
+    void should_generate_a_request_id_when_the_caller_sends_an_unusable_one() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(RequestIdFilter.REQUEST_ID_HEADER, "id with spaces");
+
+        requestIdFilter.doFilter(request, response, filterChain);
+
+        assertThat(loggedRequestId.get(), matchesPattern("[0-9a-f-]{36}"));
+        assertThat(response.getHeader(RequestIdFilter.REQUEST_ID_HEADER), is(loggedRequestId.get()));
+    }
+}
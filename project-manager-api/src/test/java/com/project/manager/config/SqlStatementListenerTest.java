@@ -0,0 +1,135 @@
+package com.project.manager.config;
+
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.proxy.JdbcProxyFactory;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogicFactory;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SqlStatementListenerTest {
+
+    private final static Duration SLOW_THRESHOLD = Duration.ofMillis(200);
+
+    @Test
+    void should_replace_literals_and_collapse_whitespace() {
+        String sql = """
+                select a1_0.id, a1_0.description
+                from tb_activity a1_0
+                where a1_0.status = 'O' and a1_0.description <> 'it''s' and a1_0.version > 10
+                fetch first ? rows only""";
+
+        assertThat(SqlStatementListener.normalize(sql), is("select a1_0.id, a1_0.description from tb_activity a1_0 "
+                + "where a1_0.status = ? and a1_0.description <> ? and a1_0.version > ? fetch first ? rows only"));
+    }
+
+    @Test
+    void should_sample_no_request_and_every_request_at_the_bounds() {
+        SqlStatementListener never = new SqlStatementListener(0.0, SLOW_THRESHOLD);
+        SqlStatementListener always = new SqlStatementListener(1.0, SLOW_THRESHOLD);
+
+        String requestId = UUID.randomUUID().toString();
+        assertThat(never.isSampled(requestId), is(false));
+        assertThat(never.isSampled(null), is(false));
+        assertThat(always.isSampled(requestId), is(true));
+        assertThat(always.isSampled(null), is(true));
+    }
+
+    @Test
+    void should_sample_every_statement_of_a_request_alike() {
+        SqlStatementListener listener = new SqlStatementListener(0.5, SLOW_THRESHOLD);
+        String requestId = UUID.randomUUID().toString();
+
+        boolean sampled = listener.isSampled(requestId);
+
+        IntStream.range(0, 10).forEach(statement -> assertThat(listener.isSampled(requestId), is(sampled)));
+    }
+
+    @Test
+    void should_sample_roughly_the_configured_share_of_requests() {
+        SqlStatementListener listener = new SqlStatementListener(0.1, SLOW_THRESHOLD);
+
+        long sampled = IntStream.range(0, 10_000)
+                .filter(request -> listener.isSampled(UUID.randomUUID().toString()))
+                .count();
+
+        assertThat(sampled, allOf(greaterThan(700L), lessThan(1300L)));
+    }
+
+    @Test
+    void should_forget_a_result_set_closed_by_itself() throws SQLException {
+        SqlStatementListener listener = new SqlStatementListener(1.0, SLOW_THRESHOLD);
+        Statement statement = proxy(listener).createStatement();
+
+        ResultSet resultSet = statement.executeQuery("select 1");
+        resultSet.next();
+        assertThat(listener.openResultSetCount(), is(1));
+
+        resultSet.close();
+        assertThat(listener.openResultSetCount(), is(0));
+    }
+
+    @Test
+    void should_forget_a_result_set_closed_with_its_statement() throws SQLException {
+        SqlStatementListener listener = new SqlStatementListener(1.0, SLOW_THRESHOLD);
+        Connection connection = proxy(listener);
+        Statement statement = connection.createStatement();
+        connection.createStatement().executeQuery("select 2");
+
+        statement.executeQuery("select 1");
+        assertThat(listener.openResultSetCount(), is(2));
+
+        statement.close();
+        assertThat(listener.openResultSetCount(), is(1));
+    }
+
+    @Test
+    void should_forget_the_result_sets_closed_with_their_connection() throws SQLException {
+        SqlStatementListener listener = new SqlStatementListener(1.0, SLOW_THRESHOLD);
+        Connection connection = proxy(listener);
+
+        connection.createStatement().executeQuery("select 1");
+        connection.createStatement().executeQuery("select 2");
+        assertThat(listener.openResultSetCount(), is(2));
+
+        connection.close();
+        assertThat(listener.openResultSetCount(), is(0));
+    }
+
+    private static Connection proxy(SqlStatementListener listener) throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement()).thenAnswer(invocation -> {
+            Statement statement = mock(Statement.class);
+            ResultSet resultSet = mock(ResultSet.class);
+            when(statement.executeQuery(anyString())).thenReturn(resultSet);
+            when(resultSet.next()).thenReturn(true, false);
+            return statement;
+        });
+
+        ConnectionInfo connectionInfo = new ConnectionInfo();
+        connectionInfo.setConnectionId("1");
+        ProxyConfig proxyConfig = ProxyConfig.Builder.create()
+                .queryListener(listener)
+                .methodListener(listener)
+                .resultSetProxyLogicFactory(new SimpleResultSetProxyLogicFactory())
+                .build();
+
+        return JdbcProxyFactory.DEFAULT.createConnection(connection, connectionInfo, proxyConfig);
+    }
+}
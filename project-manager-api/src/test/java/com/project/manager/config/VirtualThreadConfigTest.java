@@ -0,0 +1,58 @@
+package com.project.manager.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+// Virtual-thread mode refuses to start on an older runtime.
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadConfigTest {
+
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Test
+    void should_run_the_background_client_deletions_on_virtual_threads() throws Exception {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+
+        taskExecutor.execute(() -> virtual.complete(isVirtual(Thread.currentThread())));
+
+        assertThat(virtual.get(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    void should_run_the_scheduled_jobs_on_virtual_threads() throws Exception {
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+
+        taskScheduler.schedule(() -> virtual.complete(isVirtual(Thread.currentThread())), Instant.now());
+
+        assertThat(virtual.get(10, TimeUnit.SECONDS), is(true));
+    }
+
+    // Thread.isVirtual is not part of the Java release the sources are compiled against.
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException ex) {
+            return false;
+        }
+    }
+}
@@ -1,11 +1,25 @@
 package com.project.manager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.manager.constant.CountModeEnum;
+import com.project.manager.constant.ExportFormatEnum;
 import com.project.manager.constant.StatusEnum;
-import com.project.manager.dto.PageRecordDto;
 import com.project.manager.dto.ActivityAddRequestDto;
+import com.project.manager.dto.ActivityResponseDto;
 import com.project.manager.dto.ActivityUpdateRequestDto;
+import com.project.manager.dto.BulkStatusRequestDto;
+import com.project.manager.dto.BulkStatusResponseDto;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.PageCursor;
+import com.project.manager.dto.PageRecordDto;
+import com.project.manager.dto.SlicePageRecordDto;
 import com.project.manager.entity.ActivityEntity;
-import com.project.manager.service.ActivityService;
+import com.project.manager.entity.ClientEntity;
+import com.project.manager.entity.ProjectEntity;
+import com.project.manager.exception.InvalidPageCursor;
+import com.project.manager.exception.VersionMismatch;
+import com.project.manager.mapper.ActivityMapperImpl;
+import com.project.manager.projection.ActivityProjection;
 import com.project.manager.service.ActivityService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,19 +30,33 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -45,7 +73,8 @@ class ActivityControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        activityController = new ActivityController(activityServiceMock);
+        activityController = new ActivityController(activityServiceMock, new ActivityMapperImpl(),
+                new ObjectMapper().findAndRegisterModules());
     }
 
     @AfterEach
@@ -59,7 +88,7 @@ class ActivityControllerTest {
 
         when(activityServiceMock.findById(id)).thenReturn(Optional.of(ActivityEntity.builder().build()));
 
-        ResponseEntity<Object> response = activityController.getActivityById(id);
+        ResponseEntity<Object> response = activityController.getActivityById(id, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertNotNull(response);
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
@@ -76,7 +105,7 @@ class ActivityControllerTest {
 
         when(activityServiceMock.findById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = activityController.getActivityById(id);
+        ResponseEntity<Object> response = activityController.getActivityById(id, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertNotNull(response);
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
@@ -87,21 +116,72 @@ class ActivityControllerTest {
         verify(activityServiceMock).findById(id);
     }
 
+    @Test
+    public void should_return_the_entity_tag_of_an_activity_and_its_parents() {
+        UUID id = UUID.randomUUID();
+        ActivityEntity activityEntity = ActivityEntity.builder()
+                .version(3L)
+                .project(ProjectEntity.builder().version(2L).client(ClientEntity.builder().version(1L).build()).build())
+                .build();
+
+        when(activityServiceMock.findById(id)).thenReturn(Optional.of(activityEntity));
+
+        ResponseEntity<Object> response = activityController.getActivityById(id, new ServletWebRequest(new MockHttpServletRequest()));
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getHeaders().getETag(), is("\"3.2.1\""));
+
+        verify(activityServiceMock).findById(id);
+    }
+
+    @Test
+    public void should_return_not_modified_when_the_entity_tag_is_current() {
+        UUID id = UUID.randomUUID();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/activity/id/" + id);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3.2.1\"");
+
+        when(activityServiceMock.findVersionTagById(id)).thenReturn(Optional.of("3.2.1"));
+
+        ResponseEntity<Object> response = activityController.getActivityById(id, new ServletWebRequest(request));
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_MODIFIED.value()));
+        assertNull(response.getBody());
+
+        verify(activityServiceMock).findVersionTagById(id);
+    }
+
+    @Test
+    public void should_return_the_activity_when_the_entity_tag_is_stale() {
+        UUID id = UUID.randomUUID();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/activity/id/" + id);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"2.2.1\"");
+
+        when(activityServiceMock.findVersionTagById(id)).thenReturn(Optional.of("3.2.1"));
+        when(activityServiceMock.findById(id)).thenReturn(Optional.of(ActivityEntity.builder().version(3L).build()));
+
+        ResponseEntity<Object> response = activityController.getActivityById(id, new ServletWebRequest(request));
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+
+        verify(activityServiceMock).findVersionTagById(id);
+        verify(activityServiceMock).findById(id);
+    }
+
     @Test
     public void should_return_a_record_page_when_all_activities_of_a_project_with_a_specific_status_are_consulted() {
         UUID id = UUID.randomUUID();
 
-        List<ActivityEntity> projetEntityList = List.of(new ActivityEntity());
-        Page<ActivityEntity> pageActivities = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
+        List<ActivityProjection> projetEntityList = List.of(mock(ActivityProjection.class));
+        Page<ActivityProjection> pageActivities = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
                 projetEntityList.size());
 
         when(activityServiceMock.findByProjectIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN)))
                 .thenReturn(pageActivities);
 
-        ResponseEntity<PageRecordDto> response = activityController.getAllActivitiesByProjectIdAndStatus(id, StatusEnum.OPEN,
-                0, 10);
+        ResponseEntity<Object> response = activityController.getAllActivitiesByProjectIdAndStatus(id, StatusEnum.OPEN,
+                0, 10, null, CountModeEnum.EXACT);
 
-        PageRecordDto pageRecordDto = response.getBody();
+        PageRecordDto pageRecordDto = (PageRecordDto) response.getBody();
 
         assert pageRecordDto != null;
         assertThat(pageRecordDto.actualPage(), is(0));
@@ -119,16 +199,17 @@ class ActivityControllerTest {
     public void should_return_a_record_page_with_all_activities_of_a_project() {
         UUID id = UUID.randomUUID();
 
-        List<ActivityEntity> projetEntityList = List.of(new ActivityEntity());
-        Page<ActivityEntity> pageActivities = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
+        List<ActivityProjection> projetEntityList = List.of(mock(ActivityProjection.class));
+        Page<ActivityProjection> pageActivities = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
                 projetEntityList.size());
 
         when(activityServiceMock.findByProjectId(any(PageRequest.class), eq(id)))
                 .thenReturn(pageActivities);
 
-        ResponseEntity<PageRecordDto> response = activityController.getAllActivitiesByProjectId(id, 0, 10);
+        ResponseEntity<Object> response = activityController.getAllActivitiesByProjectId(id, 0, 10, null,
+                CountModeEnum.EXACT);
 
-        PageRecordDto pageRecordDto = response.getBody();
+        PageRecordDto pageRecordDto = (PageRecordDto) response.getBody();
 
         assert pageRecordDto != null;
         assertThat(pageRecordDto.actualPage(), is(0));
@@ -142,6 +223,107 @@ class ActivityControllerTest {
         verify(activityServiceMock).findByProjectId(any(PageRequest.class), eq(id));
     }
 
+    @Test
+    public void should_return_a_slice_without_totals_when_the_count_is_disabled() {
+        UUID id = UUID.randomUUID();
+
+        Slice<ActivityProjection> sliceActivities = new SliceImpl<>(List.of(mock(ActivityProjection.class)), PageRequest.of(0, 10), true);
+
+        when(activityServiceMock.findSliceByProjectIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN)))
+                .thenReturn(sliceActivities);
+
+        ResponseEntity<Object> response = activityController.getAllActivitiesByProjectIdAndStatus(id, StatusEnum.OPEN,
+                0, 10, null, CountModeEnum.NONE);
+
+        SlicePageRecordDto slicePageRecordDto = (SlicePageRecordDto) response.getBody();
+
+        assert slicePageRecordDto != null;
+        assertThat(slicePageRecordDto.actualPage(), is(0));
+        assertTrue(slicePageRecordDto.hasNext());
+        assertThat(slicePageRecordDto.itemList().size(), is(1));
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+
+        verify(activityServiceMock).findSliceByProjectIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN));
+    }
+
+    @Test
+    public void should_return_a_record_page_with_estimated_totals_when_the_count_is_estimated() {
+        UUID id = UUID.randomUUID();
+
+        Page<ActivityProjection> pageActivities = new PageImpl<>(List.of(mock(ActivityProjection.class)), PageRequest.of(0, 10), 1500);
+
+        when(activityServiceMock.findEstimatedByProjectId(any(PageRequest.class), eq(id))).thenReturn(pageActivities);
+
+        ResponseEntity<Object> response = activityController.getAllActivitiesByProjectId(id, 0, 10, null,
+                CountModeEnum.ESTIMATE);
+
+        PageRecordDto pageRecordDto = (PageRecordDto) response.getBody();
+
+        assert pageRecordDto != null;
+        assertThat(pageRecordDto.totalRecords(), is(1500L));
+        assertThat(pageRecordDto.totalPages(), is(150));
+
+        verify(activityServiceMock).findEstimatedByProjectId(any(PageRequest.class), eq(id));
+    }
+
+    @Test
+    public void should_return_a_cursor_page_with_the_next_cursor_when_there_are_more_activities() {
+        UUID id = UUID.randomUUID();
+        ActivityProjection activity = mock(ActivityProjection.class);
+        when(activity.getId()).thenReturn(UUID.randomUUID());
+        when(activity.getCreationDate()).thenReturn(LocalDateTime.of(2024, 6, 30, 19, 47));
+        PageCursor after = new PageCursor(LocalDateTime.of(2024, 6, 30, 19, 0), UUID.randomUUID());
+
+        Slice<ActivityProjection> sliceActivities = new SliceImpl<>(List.of(activity), PageRequest.ofSize(1), true);
+
+        when(activityServiceMock.findByProjectIdAfter(any(PageRequest.class), eq(id), eq(after)))
+                .thenReturn(sliceActivities);
+
+        ResponseEntity<Object> response = activityController.getAllActivitiesByProjectId(id, 0, 1, after.encode(),
+                CountModeEnum.EXACT);
+
+        CursorPageRecordDto cursorPageRecordDto = (CursorPageRecordDto) response.getBody();
+
+        assert cursorPageRecordDto != null;
+        assertTrue(cursorPageRecordDto.hasNext());
+        assertThat(PageCursor.decode(cursorPageRecordDto.nextCursor()),
+                is(new PageCursor(activity.getCreationDate(), activity.getId())));
+        assertThat(cursorPageRecordDto.itemList().size(), is(1));
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+
+        verify(activityServiceMock).findByProjectIdAfter(any(PageRequest.class), eq(id), eq(after));
+    }
+
+    @Test
+    public void should_return_the_first_cursor_page_when_the_cursor_is_empty() {
+        UUID id = UUID.randomUUID();
+
+        Slice<ActivityProjection> sliceActivities = new SliceImpl<>(List.of(mock(ActivityProjection.class)), PageRequest.ofSize(10), false);
+
+        when(activityServiceMock.findByProjectIdAndStatusAfter(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN), isNull()))
+                .thenReturn(sliceActivities);
+
+        ResponseEntity<Object> response = activityController.getAllActivitiesByProjectIdAndStatus(id, StatusEnum.OPEN,
+                0, 10, "", CountModeEnum.EXACT);
+
+        CursorPageRecordDto cursorPageRecordDto = (CursorPageRecordDto) response.getBody();
+
+        assert cursorPageRecordDto != null;
+        assertFalse(cursorPageRecordDto.hasNext());
+        assertNull(cursorPageRecordDto.nextCursor());
+        assertThat(cursorPageRecordDto.itemList().size(), is(1));
+
+        verify(activityServiceMock).findByProjectIdAndStatusAfter(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN), isNull());
+    }
+
+    @Test
+    public void should_reject_a_malformed_cursor() {
+        UUID id = UUID.randomUUID();
+
+        assertThrows(InvalidPageCursor.class, () -> activityController.getAllActivitiesByProjectId(id, 0, 10, "not-a-cursor",
+                CountModeEnum.EXACT));
+    }
+
     @Test
     void should_add_an_activity() {
         UUID id = UUID.randomUUID();
@@ -155,93 +337,188 @@ class ActivityControllerTest {
         verify(activityServiceMock).add(eq(id), any(ActivityEntity.class));
     }
 
+    @Test
+    void should_add_activities_in_batch() {
+        UUID id = UUID.randomUUID();
+        List<ActivityAddRequestDto> activityDtos = List.of(
+                ActivityAddRequestDto.builder().description("Activity 1").build(),
+                ActivityAddRequestDto.builder().description("Activity 2").build());
+
+        when(activityServiceMock.addAll(eq(id), anyList())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        ResponseEntity<Object> response = activityController.addActivities(id, activityDtos);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.CREATED.value()));
+        assertThat(((List<?>) response.getBody()).size(), is(2));
+        assertInstanceOf(ActivityResponseDto.class, ((List<?>) response.getBody()).get(0));
+
+        verify(activityServiceMock).addAll(eq(id), anyList());
+    }
+
     @Test
     public void should_update_an_activity_when_exist() {
         UUID id = UUID.randomUUID();
 
-        ActivityEntity projectEntity = ActivityEntity.builder().build();
+        ActivityEntity activityEntity = ActivityEntity.builder().build();
 
-        when(activityServiceMock.findById(id)).thenReturn(Optional.of(projectEntity));
-        when(activityServiceMock.update(any(ActivityEntity.class))).thenReturn(projectEntity);
+        when(activityServiceMock.update(eq(id), any(ActivityEntity.class), isNull())).thenReturn(Optional.of(activityEntity));
 
-        ResponseEntity<Object> response = activityController.updateActivityById(id, ActivityUpdateRequestDto.builder().build());
+        ResponseEntity<Object> response = activityController.updateActivityById(id, null, ActivityUpdateRequestDto.builder().build());
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(activityServiceMock).findById(id);
-        verify(activityServiceMock).update(any(ActivityEntity.class));
+        verify(activityServiceMock).update(eq(id), any(ActivityEntity.class), isNull());
     }
 
     @Test
     public void should_not_update_an_activity_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(activityServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(activityServiceMock.update(eq(id), any(ActivityEntity.class), isNull())).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = activityController.updateActivityById(id, ActivityUpdateRequestDto.builder().build());
+        ResponseEntity<Object> response = activityController.updateActivityById(id, null, ActivityUpdateRequestDto.builder().build());
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(activityServiceMock).findById(id);
+        verify(activityServiceMock).update(eq(id), any(ActivityEntity.class), isNull());
     }
 
     @Test
-    public void should_update_the_status_of_an_activity_when_exist() {
+    public void should_update_an_activity_with_the_tag_of_the_if_match_header() {
         UUID id = UUID.randomUUID();
 
-        ActivityEntity projectEntity = ActivityEntity.builder().build();
+        when(activityServiceMock.update(eq(id), any(ActivityEntity.class), eq("3.2.1"))).thenReturn(Optional.of(ActivityEntity.builder().build()));
 
-        when(activityServiceMock.findById(id)).thenReturn(Optional.of(projectEntity));
-        when(activityServiceMock.updateStatus(id, StatusEnum.FINISHED)).thenReturn("updated");
+        ResponseEntity<Object> response = activityController.updateActivityById(id, "\"3.2.1\"", ActivityUpdateRequestDto.builder().build());
 
-        ResponseEntity<Object> response = activityController.updateStatusActivityById(id, StatusEnum.FINISHED);
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+
+        verify(activityServiceMock).update(eq(id), any(ActivityEntity.class), eq("3.2.1"));
+        verify(activityServiceMock, never()).findVersionTagById(id);
+    }
+
+    @Test
+    public void should_not_update_an_activity_when_the_if_match_header_holds_a_stale_project_version() {
+        UUID id = UUID.randomUUID();
+
+        when(activityServiceMock.update(eq(id), any(ActivityEntity.class), eq("3.5.2"))).thenThrow(new VersionMismatch());
+
+        assertThrows(VersionMismatch.class,
+                () -> activityController.updateActivityById(id, "\"3.5.2\"", ActivityUpdateRequestDto.builder().build()));
+
+        verify(activityServiceMock).update(eq(id), any(ActivityEntity.class), eq("3.5.2"));
+        verify(activityServiceMock, never()).findVersionTagById(id);
+    }
+
+    @Test
+    public void should_update_the_status_of_an_activity_when_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(activityServiceMock.updateStatus(id, StatusEnum.FINISHED, null)).thenReturn(Optional.of("updated"));
+
+        ResponseEntity<Object> response = activityController.updateStatusActivityById(id, StatusEnum.FINISHED, null);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(activityServiceMock).findById(id);
-        verify(activityServiceMock).updateStatus(id, StatusEnum.FINISHED);
+        verify(activityServiceMock).updateStatus(id, StatusEnum.FINISHED, null);
     }
 
     @Test
     public void should_not_update_the_status_of_an_activity_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(activityServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(activityServiceMock.updateStatus(id, StatusEnum.FINISHED, null)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = activityController.updateStatusActivityById(id, StatusEnum.FINISHED);
+        ResponseEntity<Object> response = activityController.updateStatusActivityById(id, StatusEnum.FINISHED, null);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(activityServiceMock).findById(id);
+        verify(activityServiceMock).updateStatus(id, StatusEnum.FINISHED, null);
     }
 
     @Test
-    public void should_delete_an_activity_when_exist() {
+    public void should_update_the_status_of_many_activities() {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        BulkStatusResponseDto updated = new BulkStatusResponseDto(StatusEnum.FINISHED, 0, 1);
+
+        when(activityServiceMock.updateStatus(ids, StatusEnum.FINISHED)).thenReturn(updated);
+
+        ResponseEntity<Object> response = activityController.updateStatusActivities(StatusEnum.FINISHED,
+                BulkStatusRequestDto.builder().ids(ids).build());
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getBody(), is(updated));
+
+        verify(activityServiceMock).updateStatus(ids, StatusEnum.FINISHED);
+    }
+
+    @Test
+    public void should_update_the_status_of_the_activities_of_a_project() {
+        UUID id = UUID.randomUUID();
+        BulkStatusResponseDto updated = new BulkStatusResponseDto(StatusEnum.FINISHED, 0, 3);
+
+        when(activityServiceMock.updateStatusByProjectId(id, StatusEnum.OPEN, StatusEnum.FINISHED)).thenReturn(updated);
+
+        ResponseEntity<Object> response = activityController.updateStatusActivitiesByProjectId(id, StatusEnum.FINISHED,
+                StatusEnum.OPEN);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getBody(), is(updated));
+
+        verify(activityServiceMock).updateStatusByProjectId(id, StatusEnum.OPEN, StatusEnum.FINISHED);
+    }
+
+    @Test
+    public void should_export_the_activities_of_a_project_as_ndjson() throws Exception {
         UUID id = UUID.randomUUID();
+        ActivityProjection first = mock(ActivityProjection.class);
+        when(first.getDescription()).thenReturn("Activity 1");
+        ActivityProjection second = mock(ActivityProjection.class);
+        when(second.getDescription()).thenReturn("Activity 2");
+
+        doAnswer(invocation -> {
+            Consumer<ActivityProjection> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(activityServiceMock).exportByProjectId(eq(id), any());
+
+        ResponseEntity<StreamingResponseBody> response = activityController.exportActivitiesByProjectId(id,
+                ExportFormatEnum.NDJSON);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(lines.length, is(2));
+        assertTrue(lines[1].contains("\"description\":\"Activity 2\""));
 
-        ActivityEntity projectEntity = ActivityEntity.builder().build();
+        verify(activityServiceMock).exportByProjectId(eq(id), any());
+    }
+
+    @Test
+    public void should_delete_an_activity_when_exist() {
+        UUID id = UUID.randomUUID();
 
-        when(activityServiceMock.findById(id)).thenReturn(Optional.of(projectEntity));
-        doNothing().when(activityServiceMock).delete(any(ActivityEntity.class));
+        when(activityServiceMock.delete(id)).thenReturn(true);
 
         ResponseEntity<Object> response = activityController.deleteClientById(id);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(activityServiceMock).findById(id);
-        verify(activityServiceMock).delete(any(ActivityEntity.class));
+        verify(activityServiceMock).delete(id);
     }
 
     @Test
     public void should_not_delete_an_activity_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(activityServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(activityServiceMock.delete(id)).thenReturn(false);
 
         ResponseEntity<Object> response = activityController.deleteClientById(id);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(activityServiceMock).findById(id);
+        verify(activityServiceMock).delete(id);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,16 @@
 package com.project.manager.controller;
 
+import com.project.manager.constant.CountModeEnum;
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ClientDeletionDto;
 import com.project.manager.dto.ClientDto;
+import com.project.manager.dto.ClientSummaryDto;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.PageCursor;
 import com.project.manager.dto.PageRecordDto;
 import com.project.manager.entity.ClientEntity;
+import com.project.manager.mapper.ClientMapperImpl;
+import com.project.manager.service.ClientDeletionService;
 import com.project.manager.service.ClientService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,10 +22,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,8 +39,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -37,6 +53,9 @@ class ClientControllerTest {
     @Mock
     private ClientService clientServiceMock;
 
+    @Mock
+    private ClientDeletionService clientDeletionServiceMock;
+
     @InjectMocks
     private ClientController clientController;
 
@@ -44,12 +63,13 @@ class ClientControllerTest {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        clientController = new ClientController(clientServiceMock);
+        clientController = new ClientController(clientServiceMock, clientDeletionServiceMock, new ClientMapperImpl());
     }
 
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(clientServiceMock);
+        verifyNoMoreInteractions(clientDeletionServiceMock);
     }
 
     @Test
@@ -58,7 +78,7 @@ class ClientControllerTest {
 
         when(clientServiceMock.findById(id)).thenReturn(Optional.of(ClientEntity.builder().build()));
 
-        ResponseEntity<Object> response = clientController.getClientById(id);
+        ResponseEntity<Object> response = clientController.getClientById(id, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertNotNull(response);
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
@@ -75,7 +95,7 @@ class ClientControllerTest {
 
         when(clientServiceMock.findById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = clientController.getClientById(id);
+        ResponseEntity<Object> response = clientController.getClientById(id, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertNotNull(response);
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
@@ -86,6 +106,35 @@ class ClientControllerTest {
         verify(clientServiceMock).findById(id);
     }
 
+    @Test
+    public void should_return_the_summary_of_a_client() {
+        UUID id = UUID.randomUUID();
+        ClientSummaryDto summary = new ClientSummaryDto(id, Map.of(StatusEnum.OPEN, 1L), Map.of(StatusEnum.OPEN, 2L));
+
+        when(clientServiceMock.findSummaryById(id)).thenReturn(Optional.of(summary));
+
+        ResponseEntity<Object> response = clientController.getClientSummaryById(id);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getBody(), is(summary));
+
+        verify(clientServiceMock).findSummaryById(id);
+    }
+
+    @Test
+    public void should_not_return_a_summary_when_the_client_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(clientServiceMock.findSummaryById(id)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = clientController.getClientSummaryById(id);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
+        assertInstanceOf(String.class, response.getBody());
+
+        verify(clientServiceMock).findSummaryById(id);
+    }
+
     @Test
     public void should_return_a_record_page_when_all_client_are_consulted() {
         List<ClientEntity> clientEntityList = List.of(new ClientEntity());
@@ -93,9 +142,9 @@ class ClientControllerTest {
 
         when(clientServiceMock.findAll(any(PageRequest.class))).thenReturn(pageClients);
 
-        ResponseEntity<PageRecordDto> response = clientController.getAllClients(0, 10);
+        ResponseEntity<Object> response = clientController.getAllClients(0, 10, null, CountModeEnum.EXACT);
 
-        PageRecordDto pageRecordDto = response.getBody();
+        PageRecordDto pageRecordDto = (PageRecordDto) response.getBody();
 
         assert pageRecordDto != null;
         assertThat(pageRecordDto.actualPage(), is(0));
@@ -109,6 +158,32 @@ class ClientControllerTest {
         verify(clientServiceMock).findAll(any(PageRequest.class));
     }
 
+    @Test
+    public void should_return_a_cursor_page_of_all_clients_after_a_cursor() {
+        ClientEntity client = ClientEntity.builder()
+                .id(UUID.randomUUID())
+                .creationDate(LocalDateTime.of(2024, 6, 30, 19, 47))
+                .build();
+        PageCursor after = new PageCursor(LocalDateTime.of(2024, 6, 30, 19, 0), UUID.randomUUID());
+
+        Slice<ClientEntity> sliceClients = new SliceImpl<>(List.of(client), PageRequest.ofSize(1), true);
+
+        when(clientServiceMock.findAllAfter(any(PageRequest.class), eq(after))).thenReturn(sliceClients);
+
+        ResponseEntity<Object> response = clientController.getAllClients(0, 1, after.encode(), CountModeEnum.EXACT);
+
+        CursorPageRecordDto cursorPageRecordDto = (CursorPageRecordDto) response.getBody();
+
+        assert cursorPageRecordDto != null;
+        assertTrue(cursorPageRecordDto.hasNext());
+        assertThat(PageCursor.decode(cursorPageRecordDto.nextCursor()),
+                is(new PageCursor(client.getCreationDate(), client.getId())));
+        assertThat(cursorPageRecordDto.itemList().size(), is(1));
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+
+        verify(clientServiceMock).findAllAfter(any(PageRequest.class), eq(after));
+    }
+
     @Test
     public void should_add_a_client() {
         when(clientServiceMock.save(any(ClientEntity.class))).thenReturn(ClientEntity.builder().build());
@@ -127,57 +202,95 @@ class ClientControllerTest {
 
         ClientEntity clientEntity = ClientEntity.builder().build();
 
-        when(clientServiceMock.findById(id)).thenReturn(Optional.of(clientEntity));
-        when(clientServiceMock.save(any(ClientEntity.class))).thenReturn(clientEntity);
+        when(clientServiceMock.update(eq(id), any(ClientEntity.class), isNull())).thenReturn(Optional.of(clientEntity));
 
-        ResponseEntity<Object> response = clientController.updateClientById(id, ClientDto.builder().build());
+        ResponseEntity<Object> response = clientController.updateClientById(id, null, ClientDto.builder().build());
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(clientServiceMock).findById(id);
-        verify(clientServiceMock).save(any(ClientEntity.class));
+        verify(clientServiceMock).update(eq(id), any(ClientEntity.class), isNull());
     }
 
     @Test
     public void should_not_update_a_client_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(clientServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(clientServiceMock.update(eq(id), any(ClientEntity.class), isNull())).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = clientController.updateClientById(id, ClientDto.builder().build());
+        ResponseEntity<Object> response = clientController.updateClientById(id, null, ClientDto.builder().build());
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(clientServiceMock).findById(id);
+        verify(clientServiceMock).update(eq(id), any(ClientEntity.class), isNull());
     }
 
     @Test
     public void should_delete_a_client_when_exist() {
         UUID id = UUID.randomUUID();
 
-        ClientEntity clientEntity = ClientEntity.builder().build();
-
-        when(clientServiceMock.findById(id)).thenReturn(Optional.of(clientEntity));
-        doNothing().when(clientServiceMock).delete(any(ClientEntity.class));
+        when(clientServiceMock.delete(id)).thenReturn(true);
 
-        ResponseEntity<Object> response = clientController.deleteClientById(id);
+        ResponseEntity<Object> response = clientController.deleteClientById(id, false);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(clientServiceMock).findById(id);
-        verify(clientServiceMock).delete(any(ClientEntity.class));
+        verify(clientServiceMock).delete(id);
     }
 
     @Test
     public void should_not_delete_a_client_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(clientServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(clientServiceMock.delete(id)).thenReturn(false);
 
-        ResponseEntity<Object> response = clientController.deleteClientById(id);
+        ResponseEntity<Object> response = clientController.deleteClientById(id, false);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(clientServiceMock).findById(id);
+        verify(clientServiceMock).delete(id);
+    }
+
+    @Test
+    public void should_start_deleting_a_client_in_the_background() {
+        UUID id = UUID.randomUUID();
+        ClientDeletionDto deletion = ClientDeletionDto.start(id, 2, 10);
+
+        when(clientDeletionServiceMock.start(id)).thenReturn(Optional.of(deletion));
+
+        ResponseEntity<Object> response = clientController.deleteClientById(id, true);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.ACCEPTED.value()));
+        assertThat(response.getHeaders().getLocation().toString(), is("/client/" + id + "/deletion"));
+        assertThat(response.getBody(), is(deletion));
+
+        verify(clientDeletionServiceMock).start(id);
+    }
+
+    @Test
+    public void should_not_start_deleting_a_client_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(clientDeletionServiceMock.start(id)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = clientController.deleteClientById(id, true);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
+
+        verify(clientDeletionServiceMock).start(id);
+    }
+
+    @Test
+    public void should_return_the_progress_of_a_client_deletion() {
+        UUID id = UUID.randomUUID();
+        ClientDeletionDto deletion = ClientDeletionDto.start(id, 2, 10).withDeleted(0, 5);
+
+        when(clientDeletionServiceMock.findById(id)).thenReturn(Optional.of(deletion));
+
+        ResponseEntity<Object> response = clientController.getClientDeletionById(id);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(((ClientDeletionDto) response.getBody()).deletedActivities(), is(5L));
+
+        verify(clientDeletionServiceMock).findById(id);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,161 @@
+package com.project.manager.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConcurrentAddTest {
+
+    private final static String CLIENT_ID = "6b8d0f2a-4c5e-4f70-9a1b-2c3d4e5f6a01";
+    private final static String PROJECT_ID = "6b8d0f2a-4c5e-4f70-9a1b-2c3d4e5f6a02";
+    private final static String ACTIVITY_ID = "6b8d0f2a-4c5e-4f70-9a1b-2c3d4e5f6a03";
+    private final static int THREADS = 4;
+    private final static int REQUESTS = 25;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_client (id, name) VALUES (?::uuid, 'Concurrent client')", CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status) " +
+                "VALUES (?::uuid, ?::uuid, 'Concurrent project', 'O')", PROJECT_ID, CLIENT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_client WHERE id = ?::uuid", CLIENT_ID);
+    }
+
+    @Test
+    void should_add_activities_to_one_project_from_concurrent_requests() throws Exception {
+        assertAllCreated(request -> post("/activity/add/project/{projectid}", PROJECT_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Concurrent activity " + request + "\"}"));
+
+        assertThat(activityCount(), is(THREADS * REQUESTS));
+    }
+
+    @Test
+    void should_add_batches_of_activities_to_one_project_from_concurrent_requests() throws Exception {
+        assertAllCreated(request -> post("/activity/add/project/{projectid}/batch", PROJECT_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(IntStream.rangeClosed(1, 3)
+                        .mapToObj(index -> "{\"description\": \"Concurrent activity " + request + "-" + index + "\"}")
+                        .collect(Collectors.joining(", ", "[", "]"))));
+
+        assertThat(activityCount(), is(THREADS * REQUESTS * 3));
+    }
+
+    // The add locks the project before the counters and the status change used to take them the other way round.
+    @Test
+    void should_add_activities_to_a_project_while_another_activity_of_it_changes_status() throws Exception {
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status) " +
+                "VALUES (?::uuid, ?::uuid, 'Changing activity', 'O')", ACTIVITY_ID, PROJECT_ID);
+
+        CountDownLatch start = new CountDownLatch(1);
+        CompletableFuture<List<Integer>> adds = CompletableFuture.supplyAsync(() -> {
+            await(start);
+            return IntStream.range(0, REQUESTS)
+                    .mapToObj(index -> perform(post("/activity/add/project/{projectid}", PROJECT_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"description\": \"Concurrent activity " + index + "\"}")))
+                    .toList();
+        });
+        CompletableFuture<List<Integer>> changes = CompletableFuture.supplyAsync(() -> {
+            await(start);
+            return IntStream.range(0, REQUESTS)
+                    .mapToObj(index -> perform(patch("/activity/{id}/status/{status}", ACTIVITY_ID,
+                            index % 2 == 0 ? "IN_PROGRESS" : "OPEN")))
+                    .toList();
+        });
+        start.countDown();
+
+        assertThat(adds.get(30, TimeUnit.SECONDS), everyItem(is(201)));
+        assertThat(changes.get(30, TimeUnit.SECONDS), everyItem(is(200)));
+        assertThat(activityCount(), is(REQUESTS + 1));
+    }
+
+    // Another instance deletes the project, so the cache of this one still holds it.
+    @Test
+    void should_not_add_an_activity_to_a_project_deleted_after_it_was_cached() throws Exception {
+        mockMvc.perform(get("/project/id/{id}", PROJECT_ID)).andExpect(status().isOk());
+        jdbcTemplate.update("UPDATE tb_project SET deleted_date = localtimestamp WHERE id = ?::uuid", PROJECT_ID);
+
+        mockMvc.perform(post("/activity/add/project/{projectid}", PROJECT_ID)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\": \"Orphan activity\"}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.errors[0].message").value("Non existent project"));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tb_activity WHERE project_id = ?::uuid",
+                Integer.class, PROJECT_ID), is(0));
+    }
+
+    private void assertAllCreated(IntFunction<RequestBuilder> request) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<List<Integer>>> threads = IntStream.range(0, THREADS)
+                .mapToObj(thread -> CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return IntStream.range(0, REQUESTS)
+                            .mapToObj(index -> perform(request.apply(thread * REQUESTS + index)))
+                            .toList();
+                }))
+                .toList();
+        start.countDown();
+
+        for (CompletableFuture<List<Integer>> thread : threads) {
+            assertThat(thread.get(30, TimeUnit.SECONDS), everyItem(is(201)));
+        }
+    }
+
+    private int perform(RequestBuilder request) {
+        try {
+            return mockMvc.perform(request).andReturn().getResponse().getStatus();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private int activityCount() {
+        return jdbcTemplate.queryForObject("SELECT activity_count FROM tb_project WHERE id = ?::uuid", Integer.class,
+                PROJECT_ID);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.manager.controller;
+
+import com.project.manager.LockWaits;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConcurrentArchivalTest {
+
+    private final static String CLIENT_ID = "9d2e4f60-1a3b-4c5d-8e7f-0a1b2c3d4e01";
+    private final static String PROJECT_ID = "9d2e4f60-1a3b-4c5d-8e7f-0a1b2c3d4e02";
+    private final static String ACTIVITY_ID = "9d2e4f60-1a3b-4c5d-8e7f-0a1b2c3d4e03";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_client (id, name) VALUES (?::uuid, 'Archival client')", CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status) " +
+                "VALUES (?::uuid, ?::uuid, 'Archival project', 'F')", PROJECT_ID, CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status) " +
+                "VALUES (?::uuid, ?::uuid, 'Archival activity', 'F')", ACTIVITY_ID, PROJECT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_client WHERE id = ?::uuid", CLIENT_ID);
+    }
+
+    @Test
+    void should_answer_conflict_to_an_update_of_an_activity_archived_meanwhile() throws Exception {
+        CountDownLatch moved = new CountDownLatch(1);
+        CountDownLatch updating = new CountDownLatch(1);
+
+        CompletableFuture<Void> archival = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    jdbcTemplate.update("UPDATE tb_project SET archived = true WHERE id = ?::uuid", PROJECT_ID);
+                    jdbcTemplate.update("UPDATE tb_activity SET archived = true WHERE project_id = ?::uuid",
+                            PROJECT_ID);
+                    moved.countDown();
+                    await(updating);
+                    LockWaits.awaitLockWaiter(jdbcTemplate);
+                }));
+        try {
+            assertThat(moved.await(10, TimeUnit.SECONDS), is(true));
+            updating.countDown();
+
+            mockMvc.perform(put("/activity/{id}", ACTIVITY_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"description\": \"Renamed activity\", \"status\": \"FINISHED\"}"))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.status").value("409 CONFLICT"));
+        } finally {
+            archival.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
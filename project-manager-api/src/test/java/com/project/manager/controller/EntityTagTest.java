@@ -0,0 +1,39 @@
+package com.project.manager.controller;
+
+import com.project.manager.exception.VersionMismatch;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntityTagTest {
+
+    @Test
+    void should_join_the_known_versions() {
+        assertThat(EntityTag.of(3L, 2L, 1L), is("\"3.2.1\""));
+        assertThat(EntityTag.of(3L, null, null), is("\"3\""));
+    }
+
+    @Test
+    void should_take_the_tag_from_an_if_match_header() {
+        assertThat(EntityTag.expectedVersionTag("\"3.2.1\""), is("3.2.1"));
+        assertThat(EntityTag.expectedVersionTag(" \"7\" "), is("7"));
+    }
+
+    @Test
+    void should_not_expect_a_tag_without_a_specific_if_match_header() {
+        assertNull(EntityTag.expectedVersionTag(null));
+        assertNull(EntityTag.expectedVersionTag(""));
+        assertNull(EntityTag.expectedVersionTag("*"));
+    }
+
+    @Test
+    void should_reject_an_unknown_if_match_header() {
+        assertThrows(VersionMismatch.class, () -> EntityTag.expectedVersionTag("3"));
+        assertThrows(VersionMismatch.class, () -> EntityTag.expectedVersionTag("W/\"3\""));
+        assertThrows(VersionMismatch.class, () -> EntityTag.expectedVersionTag("\"abc\""));
+        assertThrows(VersionMismatch.class, () -> EntityTag.expectedVersionTag("\"3..1\""));
+    }
+}
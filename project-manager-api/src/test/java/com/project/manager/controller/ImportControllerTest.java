@@ -0,0 +1,85 @@
+package com.project.manager.controller;
+
+import com.project.manager.dto.ImportReportDto;
+import com.project.manager.service.ImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ImportControllerTest {
+
+    @Mock
+    private ImportService importServiceMock;
+
+    private ImportController importController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        importController = new ImportController(importServiceMock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(importServiceMock);
+    }
+
+    @Test
+    public void should_return_the_import_report_of_the_clients() {
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        ImportReportDto report = new ImportReportDto(1, 1, 0, List.of());
+
+        when(importServiceMock.importClients(csv)).thenReturn(report);
+
+        ResponseEntity<Object> response = importController.importClients(csv);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getBody(), is(report));
+
+        verify(importServiceMock).importClients(csv);
+    }
+
+    @Test
+    public void should_return_the_import_report_of_the_projects() {
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        ImportReportDto report = new ImportReportDto(2, 1, 1,
+                List.of(new ImportReportDto.RejectedRowDto(3, "Non existent client")));
+
+        when(importServiceMock.importProjects(csv)).thenReturn(report);
+
+        ResponseEntity<Object> response = importController.importProjects(csv);
+
+        assertThat(response.getBody(), is(report));
+
+        verify(importServiceMock).importProjects(csv);
+    }
+
+    @Test
+    public void should_return_the_import_report_of_the_activities() {
+        InputStream csv = new ByteArrayInputStream(new byte[0]);
+        ImportReportDto report = new ImportReportDto(0, 0, 0, List.of());
+
+        when(importServiceMock.importActivities(csv)).thenReturn(report);
+
+        ResponseEntity<Object> response = importController.importActivities(csv);
+
+        assertThat(response.getBody(), is(report));
+
+        verify(importServiceMock).importActivities(csv);
+    }
+}
@@ -1,10 +1,21 @@
 package com.project.manager.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.manager.constant.CountModeEnum;
+import com.project.manager.constant.ExportFormatEnum;
 import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.BulkStatusRequestDto;
+import com.project.manager.dto.BulkStatusResponseDto;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.PageCursor;
 import com.project.manager.dto.PageRecordDto;
 import com.project.manager.dto.ProjectAddRequestDto;
+import com.project.manager.dto.ProjectDetailDto;
+import com.project.manager.dto.ProjectSummaryDto;
 import com.project.manager.dto.ProjectUpdateRequestDto;
 import com.project.manager.entity.ProjectEntity;
+import com.project.manager.mapper.ProjectMapperImpl;
+import com.project.manager.projection.ProjectProjection;
 import com.project.manager.service.ProjectService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,20 +27,33 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -47,7 +71,8 @@ class ProjectControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        projectController = new ProjectController(projectServiceMock);
+        projectController = new ProjectController(projectServiceMock, new ProjectMapperImpl(),
+                new ObjectMapper().findAndRegisterModules());
     }
 
     @AfterEach
@@ -59,26 +84,28 @@ class ProjectControllerTest {
     void should_return_a_project_entity_when_searching_by_id_and_exist() {
         UUID id = UUID.randomUUID();
 
-        when(projectServiceMock.findById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
+        when(projectServiceMock.findDetailById(id)).thenReturn(Optional.of(
+                new ProjectDetailDto(ProjectEntity.builder().version(2L).build(), 4, 1)));
 
-        ResponseEntity<Object> response = projectController.getProjectById(id);
+        ResponseEntity<Object> response = projectController.getProjectById(id, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertNotNull(response);
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getHeaders().getETag(), is("\"2.4.1\""));
 
         var projectEntityResponse = response.getBody();
-        assertInstanceOf(ProjectEntity.class, projectEntityResponse);
+        assertInstanceOf(ProjectDetailDto.class, projectEntityResponse);
 
-        verify(projectServiceMock).findById(id);
+        verify(projectServiceMock).findDetailById(id);
     }
 
     @Test
     public void should_return_a_empty_project_entity_when_searching_by_id_and_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(projectServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(projectServiceMock.findDetailById(id)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = projectController.getProjectById(id);
+        ResponseEntity<Object> response = projectController.getProjectById(id, new ServletWebRequest(new MockHttpServletRequest()));
 
         assertNotNull(response);
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
@@ -86,24 +113,53 @@ class ProjectControllerTest {
         var projectEntityResponse = response.getBody();
         assertInstanceOf(String.class, projectEntityResponse);
 
-        verify(projectServiceMock).findById(id);
+        verify(projectServiceMock).findDetailById(id);
+    }
+
+    @Test
+    public void should_return_the_summary_of_a_project() {
+        UUID id = UUID.randomUUID();
+        ProjectSummaryDto summary = new ProjectSummaryDto(id, Map.of(StatusEnum.OPEN, 1L));
+
+        when(projectServiceMock.findSummaryById(id)).thenReturn(Optional.of(summary));
+
+        ResponseEntity<Object> response = projectController.getProjectSummaryById(id);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getBody(), is(summary));
+
+        verify(projectServiceMock).findSummaryById(id);
+    }
+
+    @Test
+    public void should_not_return_a_summary_when_the_project_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(projectServiceMock.findSummaryById(id)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = projectController.getProjectSummaryById(id);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
+        assertInstanceOf(String.class, response.getBody());
+
+        verify(projectServiceMock).findSummaryById(id);
     }
 
     @Test
     public void should_return_a_record_page_when_all_project_of_a_client_with_a_specific_status_are_consulted() {
         UUID id = UUID.randomUUID();
 
-        List<ProjectEntity> projetEntityList = List.of(new ProjectEntity());
-        Page<ProjectEntity> pageProjects = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
+        List<ProjectProjection> projetEntityList = List.of(mock(ProjectProjection.class));
+        Page<ProjectProjection> pageProjects = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
                 projetEntityList.size());
 
         when(projectServiceMock.findByClientIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN)))
                 .thenReturn(pageProjects);
 
-        ResponseEntity<PageRecordDto> response = projectController.getAllProjectsByClientIdAndStatus(id, StatusEnum.OPEN,
-                0, 10);
+        ResponseEntity<Object> response = projectController.getAllProjectsByClientIdAndStatus(id, StatusEnum.OPEN,
+                0, 10, null, CountModeEnum.EXACT);
 
-        PageRecordDto pageRecordDto = response.getBody();
+        PageRecordDto pageRecordDto = (PageRecordDto) response.getBody();
 
         assert pageRecordDto != null;
         assertThat(pageRecordDto.actualPage(), is(0));
@@ -119,16 +175,16 @@ class ProjectControllerTest {
 
     @Test
     public void should_return_a_record_page_with_all_project() {
-        List<ProjectEntity> projetEntityList = List.of(new ProjectEntity());
-        Page<ProjectEntity> pageProjects = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
+        List<ProjectProjection> projetEntityList = List.of(mock(ProjectProjection.class));
+        Page<ProjectProjection> pageProjects = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
                 projetEntityList.size());
 
         when(projectServiceMock.findAll(any(PageRequest.class)))
                 .thenReturn(pageProjects);
 
-        ResponseEntity<PageRecordDto> response = projectController.getAllProjects(0, 10);
+        ResponseEntity<Object> response = projectController.getAllProjects(0, 10, null, CountModeEnum.EXACT);
 
-        PageRecordDto pageRecordDto = response.getBody();
+        PageRecordDto pageRecordDto = (PageRecordDto) response.getBody();
 
         assert pageRecordDto != null;
         assertThat(pageRecordDto.actualPage(), is(0));
@@ -142,18 +198,44 @@ class ProjectControllerTest {
         verify(projectServiceMock).findAll(any(PageRequest.class));
     }
 
+    @Test
+    public void should_return_a_cursor_page_of_all_projects_after_a_cursor() {
+        ProjectProjection project = mock(ProjectProjection.class);
+        when(project.getId()).thenReturn(UUID.randomUUID());
+        when(project.getCreationDate()).thenReturn(LocalDateTime.of(2024, 6, 30, 19, 47));
+        PageCursor after = new PageCursor(LocalDateTime.of(2024, 6, 30, 19, 0), UUID.randomUUID());
+
+        Slice<ProjectProjection> sliceProjects = new SliceImpl<>(List.of(project), PageRequest.ofSize(1), true);
+
+        when(projectServiceMock.findAllAfter(any(PageRequest.class), eq(after))).thenReturn(sliceProjects);
+
+        ResponseEntity<Object> response = projectController.getAllProjects(0, 1, after.encode(), CountModeEnum.EXACT);
+
+        CursorPageRecordDto cursorPageRecordDto = (CursorPageRecordDto) response.getBody();
+
+        assert cursorPageRecordDto != null;
+        assertTrue(cursorPageRecordDto.hasNext());
+        assertThat(PageCursor.decode(cursorPageRecordDto.nextCursor()),
+                is(new PageCursor(project.getCreationDate(), project.getId())));
+        assertThat(cursorPageRecordDto.itemList().size(), is(1));
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+
+        verify(projectServiceMock).findAllAfter(any(PageRequest.class), eq(after));
+    }
+
     @Test
     public void should_return_a_record_page_with_all_project_when_a_specific_status_are_consulted() {
-        List<ProjectEntity> projetEntityList = List.of(new ProjectEntity());
-        Page<ProjectEntity> pageProjects = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
+        List<ProjectProjection> projetEntityList = List.of(mock(ProjectProjection.class));
+        Page<ProjectProjection> pageProjects = new PageImpl<>(projetEntityList, PageRequest.of(0, 10),
                 projetEntityList.size());
 
         when(projectServiceMock.findAllByStatus(any(PageRequest.class), eq(StatusEnum.OPEN)))
                 .thenReturn(pageProjects);
 
-        ResponseEntity<PageRecordDto> response = projectController.getAllProjectsByStatus(StatusEnum.OPEN, 0, 10);
+        ResponseEntity<Object> response = projectController.getAllProjectsByStatus(StatusEnum.OPEN, 0, 10, null,
+                CountModeEnum.EXACT);
 
-        PageRecordDto pageRecordDto = response.getBody();
+        PageRecordDto pageRecordDto = (PageRecordDto) response.getBody();
 
         assert pageRecordDto != null;
         assertThat(pageRecordDto.actualPage(), is(0));
@@ -186,87 +268,121 @@ class ProjectControllerTest {
 
         ProjectEntity projectEntity = ProjectEntity.builder().build();
 
-        when(projectServiceMock.findById(id)).thenReturn(Optional.of(projectEntity));
-        when(projectServiceMock.update(any(ProjectEntity.class))).thenReturn(projectEntity);
+        when(projectServiceMock.update(eq(id), any(ProjectEntity.class), isNull())).thenReturn(Optional.of(projectEntity));
 
-        ResponseEntity<Object> response = projectController.updateProjectById(id, ProjectUpdateRequestDto.builder().build());
+        ResponseEntity<Object> response = projectController.updateProjectById(id, null, ProjectUpdateRequestDto.builder().build());
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(projectServiceMock).findById(id);
-        verify(projectServiceMock).update(any(ProjectEntity.class));
+        verify(projectServiceMock).update(eq(id), any(ProjectEntity.class), isNull());
     }
 
     @Test
     public void should_not_update_a_project_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(projectServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(projectServiceMock.update(eq(id), any(ProjectEntity.class), isNull())).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = projectController.updateProjectById(id, ProjectUpdateRequestDto.builder().build());
+        ResponseEntity<Object> response = projectController.updateProjectById(id, null, ProjectUpdateRequestDto.builder().build());
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(projectServiceMock).findById(id);
+        verify(projectServiceMock).update(eq(id), any(ProjectEntity.class), isNull());
     }
 
     @Test
     public void should_update_the_status_of_a_project_when_exist() {
         UUID id = UUID.randomUUID();
 
-        ProjectEntity projectEntity = ProjectEntity.builder().build();
-
-        when(projectServiceMock.findById(id)).thenReturn(Optional.of(projectEntity));
-        when(projectServiceMock.updateStatus(id, StatusEnum.FINISHED)).thenReturn("updated");
+        when(projectServiceMock.updateStatus(id, StatusEnum.FINISHED, null)).thenReturn(Optional.of("updated"));
 
-        ResponseEntity<Object> response = projectController.updateStatusProjectById(id, StatusEnum.FINISHED);
+        ResponseEntity<Object> response = projectController.updateStatusProjectById(id, StatusEnum.FINISHED, null);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(projectServiceMock).findById(id);
-        verify(projectServiceMock).updateStatus(id, StatusEnum.FINISHED);
+        verify(projectServiceMock).updateStatus(id, StatusEnum.FINISHED, null);
     }
 
     @Test
     public void should_not_update_the_status_of_a_project_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(projectServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(projectServiceMock.updateStatus(id, StatusEnum.FINISHED, null)).thenReturn(Optional.empty());
 
-        ResponseEntity<Object> response = projectController.updateStatusProjectById(id, StatusEnum.FINISHED);
+        ResponseEntity<Object> response = projectController.updateStatusProjectById(id, StatusEnum.FINISHED, null);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(projectServiceMock).findById(id);
+        verify(projectServiceMock).updateStatus(id, StatusEnum.FINISHED, null);
     }
 
     @Test
-    public void should_delete_a_project_when_exist() {
+    public void should_update_the_status_of_many_projects() {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        BulkStatusResponseDto updated = new BulkStatusResponseDto(StatusEnum.FINISHED, 1, 2);
+
+        when(projectServiceMock.updateStatus(ids, StatusEnum.FINISHED, true)).thenReturn(updated);
+
+        ResponseEntity<Object> response = projectController.updateStatusProjects(StatusEnum.FINISHED, true,
+                BulkStatusRequestDto.builder().ids(ids).build());
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getBody(), is(updated));
+
+        verify(projectServiceMock).updateStatus(ids, StatusEnum.FINISHED, true);
+    }
+
+    @Test
+    public void should_export_the_projects_of_a_client_as_csv() throws Exception {
         UUID id = UUID.randomUUID();
+        ProjectProjection project = mock(ProjectProjection.class);
+        when(project.getDescription()).thenReturn("Project \"A\", phase 1");
+        when(project.getStatus()).thenReturn(StatusEnum.OPEN.getCode());
+        when(project.getActivityCount()).thenReturn(4);
+        when(project.getFinishedActivityCount()).thenReturn(1);
 
-        ProjectEntity projectEntity = ProjectEntity.builder().build();
+        doAnswer(invocation -> {
+            invocation.<Consumer<ProjectProjection>>getArgument(1).accept(project);
+            return null;
+        }).when(projectServiceMock).exportByClientId(eq(id), any());
+
+        ResponseEntity<StreamingResponseBody> response = projectController.exportProjectsByClientId(id, ExportFormatEnum.CSV);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getHeaders().getContentType(), is(ExportFormatEnum.CSV.getMediaType()));
+        assertThat(outputStream.toString(StandardCharsets.UTF_8),
+                is("id,description,status,creation_date,update_date,client_id,client_name,activity_count," +
+                        "finished_activity_count\r\n" +
+                        ",\"Project \"\"A\"\", phase 1\",OPEN,,,,,4,1\r\n"));
+
+        verify(projectServiceMock).exportByClientId(eq(id), any());
+    }
+
+    @Test
+    public void should_delete_a_project_when_exist() {
+        UUID id = UUID.randomUUID();
 
-        when(projectServiceMock.findById(id)).thenReturn(Optional.of(projectEntity));
-        doNothing().when(projectServiceMock).delete(any(ProjectEntity.class));
+        when(projectServiceMock.delete(id)).thenReturn(true);
 
         ResponseEntity<Object> response = projectController.deleteClientById(id);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
 
-        verify(projectServiceMock).findById(id);
-        verify(projectServiceMock).delete(any(ProjectEntity.class));
+        verify(projectServiceMock).delete(id);
     }
 
     @Test
     public void should_not_delete_a_project_when_not_exist() {
         UUID id = UUID.randomUUID();
 
-        when(projectServiceMock.findById(id)).thenReturn(Optional.empty());
+        when(projectServiceMock.delete(id)).thenReturn(false);
 
         ResponseEntity<Object> response = projectController.deleteClientById(id);
 
         assertThat(response.getStatusCodeValue(), is(HttpStatus.NOT_FOUND.value()));
 
-        verify(projectServiceMock).findById(id);
+        verify(projectServiceMock).delete(id);
     }
-}
\ No newline at end of file
+}
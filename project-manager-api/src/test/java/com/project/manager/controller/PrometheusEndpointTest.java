@@ -0,0 +1,39 @@
+package com.project.manager.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class PrometheusEndpointTest {
+
+    private final static String PROJECT_ID = "5b3cb947-bff0-49f0-a332-4f5fae93e5be";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void should_expose_request_and_repository_latency_histograms_with_pool_and_hibernate_metrics() throws Exception {
+        mockMvc.perform(get("/activity/all/{projectid}", PROJECT_ID)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/activity/all/{projectid}\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("method=\"findAllByProjectId\",repository=\"IActivityRepository\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")))
+                .andExpect(content().string(containsString("hibernate_statements_total{")));
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.manager.controller;
+
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.CursorPageRecordDto;
+import com.project.manager.dto.SearchCursor;
+import com.project.manager.dto.SearchResultDto;
+import com.project.manager.exception.InvalidPageCursor;
+import com.project.manager.service.SearchService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class SearchControllerTest {
+
+    @Mock
+    private SearchService searchServiceMock;
+
+    private SearchController searchController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        searchController = new SearchController(searchServiceMock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(searchServiceMock);
+    }
+
+    @Test
+    public void should_return_a_slice_of_results_with_the_cursor_of_the_last_one() {
+        UUID projectId = UUID.randomUUID();
+        SearchCursor after = new SearchCursor(0.0759f, UUID.randomUUID());
+        SearchResultDto result = new SearchResultDto(SearchTypeEnum.ACTIVITY, UUID.randomUUID(), "Database migration",
+                StatusEnum.OPEN, projectId, UUID.randomUUID(), 0.0607f);
+
+        when(searchServiceMock.search(PageRequest.ofSize(1), "migration", null, projectId, after))
+                .thenReturn(new SliceImpl<>(List.of(result), PageRequest.ofSize(1), true));
+
+        ResponseEntity<Object> response = searchController.search("migration", null, projectId, 1, after.encode());
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        CursorPageRecordDto page = (CursorPageRecordDto) response.getBody();
+        assertThat(page.hasNext(), is(true));
+        assertThat(page.itemList(), is(List.of(result)));
+        assertThat(SearchCursor.decode(page.nextCursor()), is(new SearchCursor(result.rank(), result.id())));
+
+        verify(searchServiceMock).search(PageRequest.ofSize(1), "migration", null, projectId, after);
+    }
+
+    @Test
+    public void should_reject_an_invalid_cursor() {
+        assertThrows(InvalidPageCursor.class, () -> searchController.search("migration", null, null, 10, "bm90LWEtY3Vyc29y"));
+    }
+}
@@ -0,0 +1,319 @@
+package com.project.manager.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class StatementCountTest {
+
+    private final static String CLIENT_ID = "f6888a87-b49f-49a1-b3db-56998ee81657";
+    private final static String PROJECT_ID = "5b3cb947-bff0-49f0-a332-4f5fae93e5be";
+    private final static String ACTIVITY_ID = "7d4032e0-8ecf-4b2e-ac2d-597953a29701";
+    private final static String BATCH_PREFIX = "Batch activity ";
+    private final static String MISSING_ID = "00000000-0000-0000-0000-000000000000";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    @Test
+    void should_load_an_activity_in_one_statement_and_its_project_with_its_client_in_another() throws Exception {
+        assertStatements(2, get("/activity/id/{id}", ACTIVITY_ID));
+    }
+
+    @Test
+    void should_keep_the_archived_flags_out_of_an_activity() throws Exception {
+        assertStatements(2, jsonPath("$..archived").isEmpty(), get("/activity/id/{id}", ACTIVITY_ID));
+    }
+
+    @Test
+    void should_load_a_project_with_its_client_in_one_statement_and_its_progress_in_another() throws Exception {
+        assertStatements(2, get("/project/id/{id}", PROJECT_ID));
+        assertStatements(1, get("/project/id/{id}", PROJECT_ID));
+    }
+
+    @Test
+    void should_load_a_client_in_one_statement() throws Exception {
+        assertStatements(1, get("/client/id/{id}", CLIENT_ID));
+    }
+
+    @Test
+    void should_summarize_a_client_from_its_counters_in_one_statement() throws Exception {
+        assertStatements(1, get("/client/{id}/summary", CLIENT_ID));
+    }
+
+    @Test
+    void should_list_activities_of_a_project_with_one_select_and_one_count() throws Exception {
+        assertStatements(2, get("/activity/all/{projectid}", PROJECT_ID).param("size", "1"));
+    }
+
+    @Test
+    void should_list_activities_of_a_project_without_count_in_one_statement() throws Exception {
+        assertStatements(1, get("/activity/all/{projectid}/{status}", PROJECT_ID, "OPEN")
+                .param("size", "1")
+                .param("count", "none"));
+    }
+
+    @Test
+    void should_list_projects_with_one_select_and_one_count() throws Exception {
+        assertStatements(2, get("/project/all").param("size", "1"));
+    }
+
+    @Test
+    void should_list_projects_of_a_client_after_a_cursor_in_one_statement() throws Exception {
+        assertStatements(1, get("/project/all/{clientid}/{status}", CLIENT_ID, "OPEN").param("after", ""));
+    }
+
+    @Test
+    void should_update_the_status_of_an_activity_in_one_statement() throws Exception {
+        assertStatements(1, patch("/activity/{id}/status/{status}", ACTIVITY_ID, "OPEN"));
+    }
+
+    @Test
+    void should_answer_not_found_for_a_missing_activity_from_the_update_itself() throws Exception {
+        assertStatements(1, status().isNotFound(), patch("/activity/{id}/status/{status}", MISSING_ID, "OPEN"));
+        assertStatements(1, status().isNotFound(), delete("/activity/{id}", MISSING_ID));
+    }
+
+    @Test
+    void should_update_an_activity_and_return_it_in_one_statement() throws Exception {
+        assertStatements(1, put("/activity/{id}", ACTIVITY_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Activity 1-1\", \"status\": \"OPEN\"}"));
+    }
+
+    @Test
+    void should_answer_not_modified_for_a_current_entity_tag_without_loading_the_activity() throws Exception {
+        String entityTag = '"' + activityVersionTag() + '"';
+
+        assertStatements(1, status().isNotModified(), get("/activity/id/{id}", ACTIVITY_ID)
+                .header(HttpHeaders.IF_NONE_MATCH, entityTag));
+    }
+
+    @Test
+    void should_reject_an_update_with_an_unknown_entity_tag_without_a_statement() throws Exception {
+        assertStatements(0, status().isPreconditionFailed(), put("/activity/{id}", ACTIVITY_ID)
+                .header(HttpHeaders.IF_MATCH, "\"-1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Activity 1-1\", \"status\": \"OPEN\"}"));
+    }
+
+    @Test
+    void should_reject_an_update_with_a_stale_entity_tag_from_the_update_and_an_existence_check() throws Exception {
+        String[] versions = activityVersionTag().split("\\.");
+        String staleTag = "\"" + (Long.parseLong(versions[0]) + 1) + "." + versions[1] + "." + versions[2] + '"';
+
+        assertStatements(2, status().isPreconditionFailed(), put("/activity/{id}", ACTIVITY_ID)
+                .header(HttpHeaders.IF_MATCH, staleTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Activity 1-1\", \"status\": \"OPEN\"}"));
+    }
+
+    @Test
+    void should_reject_an_update_whose_entity_tag_holds_a_stale_project_version() throws Exception {
+        String[] versions = activityVersionTag().split("\\.");
+        String staleTag = '"' + versions[0] + "." + (Long.parseLong(versions[1]) - 1) + "." + versions[2] + '"';
+
+        assertStatements(2, status().isPreconditionFailed(), put("/activity/{id}", ACTIVITY_ID)
+                .header(HttpHeaders.IF_MATCH, staleTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Activity 1-1\", \"status\": \"OPEN\"}"));
+    }
+
+    @Test
+    void should_check_a_current_entity_tag_in_the_update_itself() throws Exception {
+        assertStatements(1, put("/activity/{id}", ACTIVITY_ID)
+                .header(HttpHeaders.IF_MATCH, '"' + activityVersionTag() + '"')
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\": \"Activity 1-1\", \"status\": \"OPEN\"}"));
+        assertStatements(1, patch("/activity/{id}/status/{status}", ACTIVITY_ID, "OPEN")
+                .header(HttpHeaders.IF_MATCH, '"' + activityVersionTag() + '"'));
+    }
+
+    @Test
+    void should_check_a_current_project_entity_tag_in_the_update_itself() throws Exception {
+        assertStatements(1, patch("/project/{id}/status/{status}", PROJECT_ID, "OPEN")
+                .header(HttpHeaders.IF_MATCH, '"' + projectVersionTag() + '"'));
+    }
+
+    @Test
+    void should_add_an_activity_with_one_read_and_one_insert_that_detects_duplicates() throws Exception {
+        String activity = "{\"description\": \"" + BATCH_PREFIX + "single\"}";
+
+        try {
+            assertStatements(2, status().isCreated(), post("/activity/add/project/{projectid}", PROJECT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(activity));
+            // The project is cached by now; the rejected insert reads it again to tell a duplicate from a deleted project.
+            assertStatements(2, status().isUnprocessableEntity(), post("/activity/add/project/{projectid}", PROJECT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(activity));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_activity WHERE description LIKE ?", BATCH_PREFIX + "%");
+        }
+    }
+
+    @Test
+    void should_add_a_project_with_one_insert_that_detects_duplicates_when_the_client_is_cached() throws Exception {
+        String project = "{\"description\": \"" + BATCH_PREFIX + "project\"}";
+
+        try {
+            assertStatements(1, get("/client/id/{id}", CLIENT_ID));
+            assertStatements(1, status().isCreated(), post("/project/add/client/{clientid}", CLIENT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(project));
+            assertStatements(1, status().isUnprocessableEntity(), post("/project/add/client/{clientid}", CLIENT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(project));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_project WHERE description LIKE ?", BATCH_PREFIX + "%");
+        }
+    }
+
+    @Test
+    void should_add_a_batch_of_activities_with_a_locked_read_a_duplicate_check_and_a_batched_insert() throws Exception {
+        String activities = IntStream.rangeClosed(1, 120)
+                .mapToObj(index -> "{\"description\": \"" + BATCH_PREFIX + index + "\"}")
+                .collect(Collectors.joining(", ", "[", "]"));
+
+        try {
+            assertStatements(3, status().isCreated(), post("/activity/add/project/{projectid}/batch", PROJECT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(activities));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_activity WHERE description LIKE ?", BATCH_PREFIX + "%");
+        }
+    }
+
+    @Test
+    void should_update_the_status_of_projects_and_their_activities_in_one_statement() throws Exception {
+        assertStatements(1, patch("/project/status/{status}", "OPEN")
+                .param("cascade", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [\"" + PROJECT_ID + "\"]}"));
+    }
+
+    @Test
+    void should_serve_a_repeated_activity_lookup_from_the_cache() throws Exception {
+        assertStatements(2, get("/activity/id/{id}", ACTIVITY_ID));
+        assertStatements(0, get("/activity/id/{id}", ACTIVITY_ID));
+    }
+
+    @Test
+    void should_keep_a_project_cached_and_read_its_fresh_progress_after_an_activity_is_added() throws Exception {
+        int activities = jdbcTemplate.queryForObject("SELECT activity_count FROM tb_project WHERE id = ?::uuid",
+                Integer.class, PROJECT_ID);
+
+        try {
+            assertStatements(2, get("/project/id/{id}", PROJECT_ID));
+            assertStatements(1, status().isCreated(), post("/activity/add/project/{projectid}", PROJECT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"description\": \"" + BATCH_PREFIX + "progress\"}"));
+            assertStatements(1, jsonPath("$.activityCount").value(activities + 1), get("/project/id/{id}", PROJECT_ID));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_activity WHERE description LIKE ?", BATCH_PREFIX + "%");
+        }
+    }
+
+    @Test
+    void should_reload_an_activity_after_its_status_is_updated() throws Exception {
+        assertStatements(2, get("/activity/id/{id}", ACTIVITY_ID));
+        assertStatements(1, patch("/activity/{id}/status/{status}", ACTIVITY_ID, "OPEN"));
+        assertStatements(1, get("/activity/id/{id}", ACTIVITY_ID));
+    }
+
+    @Test
+    void should_keep_an_activity_cached_and_reload_its_project_after_the_project_status_is_updated() throws Exception {
+        assertStatements(2, get("/activity/id/{id}", ACTIVITY_ID));
+        assertStatements(1, patch("/project/{id}/status/{status}", PROJECT_ID, "OPEN"));
+        long version = jdbcTemplate.queryForObject("SELECT version FROM tb_project WHERE id = ?::uuid", Long.class,
+                PROJECT_ID);
+        assertStatements(1, jsonPath("$.project.version").value(version), get("/activity/id/{id}", ACTIVITY_ID));
+    }
+
+    @Test
+    void should_keep_an_activity_cached_and_reload_its_project_after_the_client_is_renamed() throws Exception {
+        String name = jdbcTemplate.queryForObject("SELECT name FROM tb_client WHERE id = ?::uuid", String.class,
+                CLIENT_ID);
+
+        try {
+            assertStatements(2, get("/activity/id/{id}", ACTIVITY_ID));
+            assertStatements(1, put("/client/{id}", CLIENT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"Renamed client\"}"));
+            assertStatements(1, jsonPath("$.project.client.name").value("Renamed client"),
+                    get("/activity/id/{id}", ACTIVITY_ID));
+        } finally {
+            mockMvc.perform(put("/client/{id}", CLIENT_ID)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"name\": \"" + name + "\"}"));
+        }
+    }
+
+    private String activityVersionTag() {
+        return jdbcTemplate.queryForObject("SELECT concat_ws('.', a.version, p.version, c.version) "
+                + "FROM tb_activity a JOIN tb_project p ON p.id = a.project_id JOIN tb_client c ON c.id = p.client_id "
+                + "WHERE a.id = ?::uuid", String.class, ACTIVITY_ID);
+    }
+
+    private String projectVersionTag() {
+        return jdbcTemplate.queryForObject("SELECT concat_ws('.', p.version, c.version, p.activity_count, "
+                + "p.finished_activity_count) FROM tb_project p JOIN tb_client c ON c.id = p.client_id "
+                + "WHERE p.id = ?::uuid", String.class, PROJECT_ID);
+    }
+
+    private void assertStatements(long expected, RequestBuilder request) throws Exception {
+        assertStatements(expected, status().isOk(), request);
+    }
+
+    private void assertStatements(long expected, ResultMatcher status, RequestBuilder request) throws Exception {
+        statistics.clear();
+
+        mockMvc.perform(request).andExpect(status);
+
+        assertThat(statistics.getPrepareStatementCount(), is(expected));
+    }
+}
@@ -0,0 +1,57 @@
+package com.project.manager.controller;
+
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.dto.SuggestionDto;
+import com.project.manager.service.SuggestionIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class SuggestionControllerTest {
+
+    @Mock
+    private SuggestionIndex suggestionIndexMock;
+
+    private SuggestionController suggestionController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        suggestionController = new SuggestionController(suggestionIndexMock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(suggestionIndexMock);
+    }
+
+    @Test
+    public void should_return_the_suggestions_of_the_typed_text() {
+        UUID clientId = UUID.randomUUID();
+        List<SuggestionDto> suggestions = List.of(new SuggestionDto(SearchTypeEnum.PROJECT, UUID.randomUUID(),
+                "Warehouse migration", clientId, 1.0f));
+
+        when(suggestionIndexMock.suggest("wareh", clientId, null, 5)).thenReturn(suggestions);
+
+        ResponseEntity<Object> response = suggestionController.suggest("wareh", clientId, null, 5);
+
+        assertThat(response.getStatusCodeValue(), is(HttpStatus.OK.value()));
+        assertThat(response.getBody(), is(suggestions));
+
+        verify(suggestionIndexMock).suggest("wareh", clientId, null, 5);
+    }
+}
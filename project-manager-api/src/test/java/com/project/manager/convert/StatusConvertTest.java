@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class StatusConvertTest {
@@ -48,4 +50,19 @@ class StatusConvertTest {
         StatusEnum response = statusConvert.convertToEntityAttribute("F");
         assertTrue(StatusEnum.FINISHED.equals(response));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void convert_to_Entity_attribute_for_every_status() {
+        for (StatusEnum status : StatusEnum.values()) {
+            assertSame(status, statusConvert.convertToEntityAttribute(statusConvert.convertToDatabaseColumn(status)));
+        }
+    }
+
+    @Test
+    public void convert_to_Entity_attribute_when_code_is_unknown() {
+        assertThrows(IllegalArgumentException.class, () -> statusConvert.convertToEntityAttribute("X"));
+        assertThrows(IllegalArgumentException.class, () -> statusConvert.convertToEntityAttribute("OF"));
+        assertThrows(IllegalArgumentException.class, () -> statusConvert.convertToEntityAttribute("\u00d1"));
+        assertThrows(IllegalArgumentException.class, () -> statusConvert.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.manager.mapper;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ActivityResponseDto;
+import com.project.manager.entity.ActivityEntity;
+import com.project.manager.entity.ProjectEntity;
+import com.project.manager.projection.ActivityProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActivityMapperTest {
+
+    private ActivityMapper activityMapper;
+
+    @BeforeEach
+    void setUp() {
+        activityMapper = new ActivityMapperImpl();
+    }
+
+    @Test
+    public void should_map_an_activity_projection_with_its_project_reference() {
+        UUID id = UUID.randomUUID();
+        UUID projectId = UUID.randomUUID();
+        LocalDateTime creationDate = LocalDateTime.of(2024, 6, 30, 19, 47);
+
+        ActivityProjection activity = mock(ActivityProjection.class);
+        when(activity.getId()).thenReturn(id);
+        when(activity.getDescription()).thenReturn("Activity 1-1");
+        when(activity.getStatus()).thenReturn(StatusEnum.FINISHED.getCode());
+        when(activity.getCreationDate()).thenReturn(creationDate);
+        when(activity.getProjectId()).thenReturn(projectId);
+        when(activity.getProjectDescription()).thenReturn("Project 1");
+
+        ActivityResponseDto response = activityMapper.toResponse(activity);
+
+        assertThat(response.id(), is(id));
+        assertThat(response.description(), is("Activity 1-1"));
+        assertThat(response.status(), is(StatusEnum.FINISHED));
+        assertThat(response.creationDate(), is(creationDate));
+        assertNull(response.updateDate());
+        assertThat(response.project(), is(new ActivityResponseDto.ProjectRefDto(projectId, "Project 1")));
+    }
+
+    @Test
+    public void should_map_an_activity_entity_with_its_project_reference() {
+        UUID id = UUID.randomUUID();
+        UUID projectId = UUID.randomUUID();
+
+        ActivityEntity activity = ActivityEntity.builder()
+                .id(id)
+                .description("Activity 1-1")
+                .status(StatusEnum.OPEN)
+                .project(ProjectEntity.builder().id(projectId).description("Project 1").build())
+                .build();
+
+        ActivityResponseDto response = activityMapper.toResponse(activity);
+
+        assertThat(response.id(), is(id));
+        assertThat(response.status(), is(StatusEnum.OPEN));
+        assertThat(response.project(), is(new ActivityResponseDto.ProjectRefDto(projectId, "Project 1")));
+    }
+}
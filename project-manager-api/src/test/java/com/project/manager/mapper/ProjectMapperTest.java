@@ -0,0 +1,47 @@
+package com.project.manager.mapper;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ProjectResponseDto;
+import com.project.manager.projection.ProjectProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjectMapperTest {
+
+    private ProjectMapper projectMapper;
+
+    @BeforeEach
+    void setUp() {
+        projectMapper = new ProjectMapperImpl();
+    }
+
+    @Test
+    public void should_map_a_project_projection_with_its_client_reference_and_progress() {
+        UUID id = UUID.randomUUID();
+        UUID clientId = UUID.randomUUID();
+
+        ProjectProjection project = mock(ProjectProjection.class);
+        when(project.getId()).thenReturn(id);
+        when(project.getDescription()).thenReturn("Project 1");
+        when(project.getStatus()).thenReturn(StatusEnum.OPEN.getCode());
+        when(project.getClientId()).thenReturn(clientId);
+        when(project.getClientName()).thenReturn("client2");
+        when(project.getActivityCount()).thenReturn(5);
+        when(project.getFinishedActivityCount()).thenReturn(2);
+
+        ProjectResponseDto response = projectMapper.toResponse(project);
+
+        assertThat(response.id(), is(id));
+        assertThat(response.description(), is("Project 1"));
+        assertThat(response.status(), is(StatusEnum.OPEN));
+        assertThat(response.client(), is(new ProjectResponseDto.ClientRefDto(clientId, "client2")));
+        assertThat(response.progress(), is(new ProjectResponseDto.ProgressDto(5, 2)));
+    }
+}
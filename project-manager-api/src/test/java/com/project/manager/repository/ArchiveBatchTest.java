@@ -0,0 +1,85 @@
+package com.project.manager.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+@Transactional
+class ArchiveBatchTest {
+
+    private final static String CLIENT_ID = "f6888a87-b49f-49a1-b3db-56998ee81657";
+    private final static String FINISHED_FOR = "P8000D";
+    private final static int BATCH_SIZE = 4;
+    private final static UUID SMALL_ID = UUID.fromString("2b3c4d5e-0000-4000-8000-000000000001");
+    private final static UUID MEDIUM_ID = UUID.fromString("2b3c4d5e-0000-4000-8000-000000000002");
+    private final static UUID LARGE_ID = UUID.fromString("2b3c4d5e-0000-4000-8000-000000000003");
+
+    @Autowired
+    private IProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Three projects finished long before any other, finished for the longest in this order, with 2, 3 and 5
+    // activities, and one more of the small one marked as deleted.
+    @BeforeEach
+    void setUp() {
+        insertFinishedProject(SMALL_ID, "1990-01-01", 2);
+        insertFinishedProject(MEDIUM_ID, "1990-01-02", 3);
+        insertFinishedProject(LARGE_ID, "1990-01-03", 5);
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status, deleted_date) " +
+                "VALUES (gen_random_uuid(), ?, 'Deleted activity', 'F', localtimestamp)", SMALL_ID);
+    }
+
+    @Test
+    void should_archive_whole_projects_up_to_the_batch_size_in_activities() {
+        assertThat(projectRepository.archiveBatch(FINISHED_FOR, BATCH_SIZE), is(1));
+        assertThat(activitiesIn("tb_activity_archived", SMALL_ID), is(2L));
+        assertThat(activitiesIn("tb_activity_hot", SMALL_ID), is(1L));
+        assertThat(activitiesIn("tb_activity_archived", MEDIUM_ID), is(0L));
+
+        assertThat(projectRepository.archiveBatch(FINISHED_FOR, BATCH_SIZE), is(1));
+        assertThat(activitiesIn("tb_activity_archived", MEDIUM_ID), is(3L));
+        assertThat(activitiesIn("tb_activity_archived", LARGE_ID), is(0L));
+    }
+
+    @Test
+    void should_archive_a_project_larger_than_the_batch_alone() {
+        assertThat(projectRepository.archiveBatch(FINISHED_FOR, 10), is(3));
+        jdbcTemplate.update("UPDATE tb_project SET status = 'O' WHERE id IN (?, ?, ?)", SMALL_ID, MEDIUM_ID, LARGE_ID);
+
+        assertThat(projectRepository.restoreBatch(BATCH_SIZE), is(1));
+        assertThat(projectRepository.restoreBatch(BATCH_SIZE), is(1));
+        assertThat(projectRepository.restoreBatch(BATCH_SIZE), is(1));
+        assertThat(activitiesIn("tb_activity_hot", LARGE_ID), is(5L));
+        assertThat(projectRepository.restoreBatch(BATCH_SIZE), is(0));
+
+        jdbcTemplate.update("UPDATE tb_project SET status = 'F', update_date = '1990-01-01' WHERE id = ?", LARGE_ID);
+
+        assertThat(projectRepository.archiveBatch(FINISHED_FOR, BATCH_SIZE), is(1));
+        assertThat(activitiesIn("tb_activity_archived", LARGE_ID), is(5L));
+        assertThat(activitiesIn("tb_activity_hot", LARGE_ID), is(0L));
+    }
+
+    private void insertFinishedProject(UUID id, String updateDate, int activities) {
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status, update_date) " +
+                "VALUES (?, ?::uuid, ?, 'F', CAST(? AS timestamp))", id, CLIENT_ID, "Finished project " + id, updateDate);
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status) " +
+                "SELECT gen_random_uuid(), ?, 'Finished activity ' || n, 'F' FROM generate_series(1, ?) n", id,
+                activities);
+    }
+
+    private long activitiesIn(String partition, UUID projectId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition + " WHERE project_id = ?",
+                Long.class, projectId);
+    }
+}
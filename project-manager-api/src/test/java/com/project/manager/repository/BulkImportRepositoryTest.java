@@ -0,0 +1,304 @@
+package com.project.manager.repository;
+
+import com.project.manager.LockWaits;
+import com.project.manager.dto.ImportReportDto;
+import com.project.manager.exception.InvalidImportFile;
+import com.project.manager.projection.SuggestionProjection;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class BulkImportRepositoryTest {
+
+    private final static String CLIENT_ID = "f6888a87-b49f-49a1-b3db-56998ee81657";
+    private final static String PROJECT_ID = "5b3cb947-bff0-49f0-a332-4f5fae93e5be";
+    private final static String NEW_CLIENT_ID = "0b9c2a52-7c4e-4bd6-9a0e-5d0c3a9f1e01";
+    private final static String ACTIVITY_ID = "7d4032e0-8ecf-4b2e-ac2d-597953a29701";
+    private final static String MISSING_ID = "00000000-0000-0000-0000-000000000000";
+    private final static String ARCHIVED_PROJECT_ID = "3e5f8b1a-2c4d-4e6f-8a0b-1c2d3e4f5a01";
+    private final static String RACED_PROJECT_ID = "3e5f8b1a-2c4d-4e6f-8a0b-1c2d3e4f5a03";
+    private final static String RACED_ACTIVITY_ID = "3e5f8b1a-2c4d-4e6f-8a0b-1c2d3e4f5a02";
+
+    @Autowired
+    private BulkImportRepository bulkImportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void should_import_valid_clients_and_report_the_rejected_lines() {
+        ImportReportDto report = bulkImportRepository.importClients(csv(
+                "id,name",
+                NEW_CLIENT_ID + ",Imported client",
+                ",Client with generated id",
+                "not-an-id,Broken client",
+                CLIENT_ID + ",Existing id",
+                ","));
+
+        assertThat(report.received(), is(5L));
+        assertThat(report.imported(), is(2L));
+        assertThat(report.rejectedRows(), is(List.of(
+                new ImportReportDto.RejectedRowDto(4, "Invalid id"),
+                new ImportReportDto.RejectedRowDto(5, "Id already exists"),
+                new ImportReportDto.RejectedRowDto(6, "Invalid name"))));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tb_client WHERE name LIKE ?", Long.class,
+                "%Client with generated id%"), is(1L));
+    }
+
+    @Test
+    void should_reject_projects_of_missing_clients_and_repeated_descriptions() {
+        List<SuggestionProjection> imported = new ArrayList<>();
+        ImportReportDto report = bulkImportRepository.importProjects(csv(
+                "id,client_id,description,status",
+                "," + CLIENT_ID + ",Imported project,",
+                "," + CLIENT_ID + ",Imported project,OPEN",
+                "," + CLIENT_ID + ",Project 1,OPEN",
+                "," + MISSING_ID + ",Orphan project,OPEN",
+                "," + CLIENT_ID + ",Finished project,finished",
+                "," + CLIENT_ID + ",Unknown status,PAUSED"), imported::add);
+
+        assertThat(report.imported(), is(2L));
+        assertThat(report.rejectedRows(), is(List.of(
+                new ImportReportDto.RejectedRowDto(3, "Project is repeated in the file"),
+                new ImportReportDto.RejectedRowDto(4, "Project already exists"),
+                new ImportReportDto.RejectedRowDto(5, "Non existent client"),
+                new ImportReportDto.RejectedRowDto(7, "Invalid status"))));
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM tb_project WHERE description = ?", String.class,
+                "Finished project"), is("F"));
+        assertThat(imported.stream().map(SuggestionProjection::description).toList(),
+                contains("Imported project", "Finished project"));
+        assertThat(imported.stream().map(SuggestionProjection::parentId).toList(),
+                everyItem(is(UUID.fromString(CLIENT_ID))));
+    }
+
+    @Test
+    void should_import_activities_into_an_existing_project() {
+        List<SuggestionProjection> imported = new ArrayList<>();
+        ImportReportDto report = bulkImportRepository.importActivities(csv(
+                "id,project_id,description,status",
+                "," + PROJECT_ID + ",\"Imported, quoted activity\",",
+                "," + PROJECT_ID + ",Activity 1-1,",
+                ",," + "No project,"), imported::add);
+
+        assertThat(report.imported(), is(1L));
+        assertThat(report.rejected(), is(2L));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tb_activity WHERE project_id = ?::uuid " +
+                "and description = ?", Long.class, PROJECT_ID, "Imported, quoted activity"), is(1L));
+        assertThat(imported.stream().map(SuggestionProjection::description).toList(),
+                contains("Imported, quoted activity"));
+    }
+
+    @Test
+    void should_keep_activity_ids_unique_across_partitions() {
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status, archived) " +
+                "VALUES (?::uuid, ?::uuid, 'Archived project', 'F', true)", ARCHIVED_PROJECT_ID, CLIENT_ID);
+
+        ImportReportDto report = bulkImportRepository.importActivities(csv(
+                "id,project_id,description,status",
+                ACTIVITY_ID + "," + ARCHIVED_PROJECT_ID + ",Archived activity,"), imported -> { });
+
+        assertThat(report.rejectedRows(), is(List.of(new ImportReportDto.RejectedRowDto(2, "Id already exists"))));
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, " +
+                "description, status, archived) VALUES (?::uuid, ?::uuid, 'Archived activity', 'O', true)",
+                ACTIVITY_ID, ARCHIVED_PROJECT_ID));
+    }
+
+    // Runs outside the test transaction, which would otherwise hold the counters of the client the cleanup needs.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void should_report_a_project_added_concurrently_instead_of_failing() throws Exception {
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch importing = new CountDownLatch(1);
+
+        CompletableFuture<Void> concurrentInsert = CompletableFuture.runAsync(() -> concurrent.executeWithoutResult(
+                status -> {
+                    jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status) " +
+                            "VALUES (gen_random_uuid(), ?::uuid, 'Raced project', 'O')", CLIENT_ID);
+                    inserted.countDown();
+                    await(importing);
+                    LockWaits.awaitLockWaiter(jdbcTemplate);
+                }));
+        try {
+            assertThat(inserted.await(10, TimeUnit.SECONDS), is(true));
+            importing.countDown();
+
+            ImportReportDto report = new TransactionTemplate(transactionManager).execute(status -> {
+                status.setRollbackOnly();
+                return bulkImportRepository.importProjects(csv(
+                        "id,client_id,description,status",
+                        "," + CLIENT_ID + ",Raced project,",
+                        "," + CLIENT_ID + ",Not raced project,"), imported -> { });
+            });
+
+            assertThat(report.imported(), is(1L));
+            assertThat(report.rejected(), is(1L));
+            assertThat(report.rejectedRows(), is(List.of(
+                    new ImportReportDto.RejectedRowDto(2, "Project already exists"))));
+        } finally {
+            concurrentInsert.get(10, TimeUnit.SECONDS);
+            concurrent.executeWithoutResult(status -> jdbcTemplate.update(
+                    "DELETE FROM tb_project WHERE client_id = ?::uuid and description = 'Raced project'", CLIENT_ID));
+        }
+    }
+
+    // The same id goes to a project in progress and to an archived one, whose activities live in another partition.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void should_reject_an_activity_id_imported_concurrently_into_the_other_partition() throws Exception {
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        concurrent.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO tb_project (id, client_id, " +
+                "description, status, archived) VALUES (?::uuid, ?::uuid, 'Archived project', 'F', true)",
+                ARCHIVED_PROJECT_ID, CLIENT_ID));
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch importing = new CountDownLatch(1);
+
+        CompletableFuture<ImportReportDto> concurrentImport = CompletableFuture.supplyAsync(() -> concurrent.execute(
+                status -> {
+                    ImportReportDto report = bulkImportRepository.importActivities(csv(
+                            "id,project_id,description,status",
+                            RACED_ACTIVITY_ID + "," + PROJECT_ID + ",Raced activity,"), imported -> { });
+                    inserted.countDown();
+                    await(importing);
+                    LockWaits.awaitLockWaiter(jdbcTemplate);
+                    return report;
+                }));
+        try {
+            assertThat(inserted.await(10, TimeUnit.SECONDS), is(true));
+            importing.countDown();
+
+            ImportReportDto report = new TransactionTemplate(transactionManager).execute(status -> {
+                status.setRollbackOnly();
+                return bulkImportRepository.importActivities(csv(
+                        "id,project_id,description,status",
+                        RACED_ACTIVITY_ID + "," + ARCHIVED_PROJECT_ID + ",Raced activity,"), imported -> { });
+            });
+
+            assertThat(concurrentImport.get(10, TimeUnit.SECONDS).imported(), is(1L));
+            assertThat(report.imported(), is(0L));
+            assertThat(report.rejectedRows(), is(List.of(
+                    new ImportReportDto.RejectedRowDto(2, "Id already exists"))));
+        } finally {
+            concurrentImport.exceptionally(ex -> null).get(10, TimeUnit.SECONDS);
+            concurrent.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM tb_activity WHERE id = ?::uuid", RACED_ACTIVITY_ID);
+                jdbcTemplate.update("DELETE FROM tb_project WHERE id = ?::uuid", ARCHIVED_PROJECT_ID);
+            });
+        }
+    }
+
+    // Runs outside the test transaction, like the tests above.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void should_report_a_client_id_taken_concurrently_instead_of_failing() throws Exception {
+        try {
+            ImportReportDto report = importWhileUncommitted(
+                    () -> jdbcTemplate.update("INSERT INTO tb_client (id, name) VALUES (?::uuid, 'Raced client')",
+                            NEW_CLIENT_ID),
+                    () -> bulkImportRepository.importClients(csv(
+                            "id,name",
+                            NEW_CLIENT_ID + ",Imported client",
+                            ",Not raced client")));
+
+            assertThat(report.imported(), is(1L));
+            assertThat(report.rejectedRows(), is(List.of(new ImportReportDto.RejectedRowDto(2, "Id already exists"))));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_client WHERE id = ?::uuid", NEW_CLIENT_ID);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void should_report_a_project_id_taken_concurrently_instead_of_failing() throws Exception {
+        try {
+            ImportReportDto report = importWhileUncommitted(
+                    () -> jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status) " +
+                            "VALUES (?::uuid, ?::uuid, 'Raced project', 'O')", RACED_PROJECT_ID, CLIENT_ID),
+                    () -> bulkImportRepository.importProjects(csv(
+                            "id,client_id,description,status",
+                            RACED_PROJECT_ID + "," + CLIENT_ID + ",Imported project,",
+                            "," + CLIENT_ID + ",Not raced project,"), imported -> { }));
+
+            assertThat(report.imported(), is(1L));
+            assertThat(report.rejectedRows(), is(List.of(new ImportReportDto.RejectedRowDto(2, "Id already exists"))));
+        } finally {
+            jdbcTemplate.update("DELETE FROM tb_project WHERE id = ?::uuid", RACED_PROJECT_ID);
+        }
+    }
+
+    @Test
+    void should_refuse_a_file_with_the_wrong_number_of_columns() {
+        assertThrows(InvalidImportFile.class, () -> bulkImportRepository.importClients(csv(
+                "id,name",
+                "a,b,c")));
+    }
+
+    // Runs the import in a transaction that is rolled back, while a concurrent one holds the insert uncommitted until
+    // the import waits on it.
+    private ImportReportDto importWhileUncommitted(Runnable concurrentInsert, Supplier<ImportReportDto> importFile)
+            throws Exception {
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        CountDownLatch inserted = new CountDownLatch(1);
+
+        CompletableFuture<Void> concurrentTransaction = CompletableFuture.runAsync(() -> concurrent
+                .executeWithoutResult(status -> {
+                    concurrentInsert.run();
+                    inserted.countDown();
+                    LockWaits.awaitLockWaiter(jdbcTemplate);
+                }));
+        try {
+            assertThat(inserted.await(10, TimeUnit.SECONDS), is(true));
+
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                status.setRollbackOnly();
+                return importFile.get();
+            });
+        } finally {
+            concurrentTransaction.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static InputStream csv(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.manager.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.not;
+
+// The cascade of a purge deletes the children of each purged row by its id, whether they are marked or not.
+@SpringBootTest
+@Transactional
+class ForeignKeyIndexTest {
+
+    private final static String PROJECT_ID = "5b3cb947-bff0-49f0-a332-4f5fae93e5be";
+    private final static String CLIENT_ID = "f6888a87-b49f-49a1-b3db-56998ee81657";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The test data is small enough for a sequential scan to win, so it is ruled out to see whether an index serves.
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+    }
+
+    @Test
+    void should_cascade_a_project_purge_to_its_activities_through_an_index() {
+        assertThat(plan("EXPLAIN DELETE FROM tb_activity WHERE project_id = '" + PROJECT_ID + "'"),
+                everyItem(not(containsString("Seq Scan"))));
+    }
+
+    @Test
+    void should_cascade_a_client_purge_to_its_projects_through_an_index() {
+        assertThat(plan("EXPLAIN DELETE FROM tb_project WHERE client_id = '" + CLIENT_ID + "'"),
+                everyItem(not(containsString("Seq Scan"))));
+    }
+
+    private List<String> plan(String explain) {
+        return jdbcTemplate.queryForList(explain, String.class);
+    }
+}
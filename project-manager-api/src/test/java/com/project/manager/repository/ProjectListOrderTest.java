@@ -0,0 +1,65 @@
+package com.project.manager.repository;
+
+import com.project.manager.projection.ProjectProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+@SpringBootTest
+@Transactional
+class ProjectListOrderTest {
+
+    private final static UUID CLIENT_ID = UUID.fromString("f6888a87-b49f-49a1-b3db-56998ee81657");
+    private final static UUID FIRST_ID = UUID.fromString("1a2b3c4d-0000-4000-8000-000000000001");
+    private final static UUID SECOND_ID = UUID.fromString("1a2b3c4d-0000-4000-8000-000000000002");
+    private final static UUID THIRD_ID = UUID.fromString("1a2b3c4d-0000-4000-8000-000000000003");
+
+    @Autowired
+    private IProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // The oldest projects of all, inserted out of order and two of them created at the same time.
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status, creation_date) VALUES " +
+                        "(?, ?, 'Third project', 'O', '2000-01-02'), (?, ?, 'Second project', 'O', '2000-01-01'), " +
+                        "(?, ?, 'First project', 'O', '2000-01-01')",
+                THIRD_ID, CLIENT_ID, SECOND_ID, CLIENT_ID, FIRST_ID, CLIENT_ID);
+    }
+
+    @Test
+    void should_list_all_projects_by_creation_date_and_id() {
+        assertThat(ids(projectRepository.findAllProjections(PageRequest.of(0, 3)).getContent()),
+                contains(FIRST_ID, SECOND_ID, THIRD_ID));
+    }
+
+    @Test
+    void should_slice_all_projects_by_creation_date_and_id() {
+        assertThat(ids(projectRepository.findSliceAll(PageRequest.of(0, 3)).getContent()),
+                contains(FIRST_ID, SECOND_ID, THIRD_ID));
+    }
+
+    @Test
+    void should_seek_all_projects_after_a_cursor_by_creation_date_and_id() {
+        assertThat(ids(projectRepository.findSliceAllAfter(PageRequest.ofSize(2), LocalDateTime.of(2000, 1, 1, 0, 0),
+                        FIRST_ID).getContent()),
+                contains(SECOND_ID, THIRD_ID));
+    }
+
+    private static List<UUID> ids(List<ProjectProjection> projects) {
+        return projects.stream().map(ProjectProjection::getId).toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.manager.repository;
+
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.dto.SearchCursor;
+import com.project.manager.dto.SearchResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+@Transactional
+class SearchRepositoryTest {
+
+    private final static UUID CLIENT_ID = UUID.fromString("f6888a87-b49f-49a1-b3db-56998ee81657");
+    private final static UUID PROJECT_ID = UUID.fromString("5b3cb947-bff0-49f0-a332-4f5fae93e5be");
+    private final static UUID OTHER_PROJECT_ID = UUID.fromString("cb32ad0e-92e6-4f78-9d1b-46b84f7d3bec");
+
+    @Autowired
+    private SearchRepository searchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("UPDATE tb_project SET description = 'Warehouse migration' WHERE id = ?", PROJECT_ID);
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status) VALUES " +
+                "(gen_random_uuid(), ?, 'Migration plan for the warehouse migration', 'O'), " +
+                "(gen_random_uuid(), ?, 'Warehouse inventory', 'F'), " +
+                "(gen_random_uuid(), ?, 'Database migration', 'O')", PROJECT_ID, PROJECT_ID, OTHER_PROJECT_ID);
+    }
+
+    @Test
+    void should_return_projects_and_activities_with_the_best_ranked_first() {
+        Slice<SearchResultDto> results = searchRepository.search(PageRequest.ofSize(10), "migration", null, null, null);
+
+        assertThat(descriptions(results.getContent()), containsInAnyOrder("Migration plan for the warehouse migration",
+                "Warehouse migration", "Database migration"));
+        assertThat(results.getContent().get(0).description(), is("Migration plan for the warehouse migration"));
+        assertThat(results.hasNext(), is(false));
+    }
+
+    @Test
+    void should_match_every_word_of_the_search_text() {
+        Slice<SearchResultDto> results = searchRepository.search(PageRequest.ofSize(10), "warehouse -inventory", null,
+                null, null);
+
+        assertThat(descriptions(results.getContent()), containsInAnyOrder("Warehouse migration",
+                "Migration plan for the warehouse migration"));
+    }
+
+    @Test
+    void should_search_the_activities_of_a_project_only() {
+        Slice<SearchResultDto> results = searchRepository.search(PageRequest.ofSize(10), "migration", null,
+                OTHER_PROJECT_ID, null);
+
+        assertThat(results.getContent().size(), is(1));
+        assertThat(results.getContent().get(0).type(), is(SearchTypeEnum.ACTIVITY));
+        assertThat(results.getContent().get(0).projectId(), is(OTHER_PROJECT_ID));
+        assertThat(results.getContent().get(0).clientId(), is(CLIENT_ID));
+    }
+
+    @Test
+    void should_search_within_a_client() {
+        assertThat(searchRepository.search(PageRequest.ofSize(10), "migration", UUID.randomUUID(), null, null)
+                .getContent(), is(empty()));
+        assertThat(searchRepository.search(PageRequest.ofSize(10), "migration", CLIENT_ID, null, null)
+                .getContent().size(), is(3));
+    }
+
+    @Test
+    void should_read_the_results_in_keyset_slices() {
+        List<SearchResultDto> allResults = searchRepository.search(PageRequest.ofSize(10), "migration", null, null,
+                null).getContent();
+
+        List<SearchResultDto> slicedResults = new ArrayList<>();
+        SearchCursor after = null;
+        Slice<SearchResultDto> slice;
+        do {
+            slice = searchRepository.search(PageRequest.ofSize(1), "migration", null, null, after);
+            slicedResults.addAll(slice.getContent());
+            SearchResultDto last = slice.getContent().get(slice.getContent().size() - 1);
+            after = SearchCursor.decode(new SearchCursor(last.rank(), last.id()).encode());
+        } while (slice.hasNext());
+
+        assertThat(slicedResults, contains(allResults.toArray()));
+    }
+
+    private static List<String> descriptions(List<SearchResultDto> results) {
+        return results.stream().map(SearchResultDto::description).toList();
+    }
+}
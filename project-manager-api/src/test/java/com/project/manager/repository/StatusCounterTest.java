@@ -0,0 +1,234 @@
+package com.project.manager.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class StatusCounterTest {
+
+    private final static String CLIENT_ID = "f6888a87-b49f-49a1-b3db-56998ee81657";
+    private final static String PROJECT_ID = "5b3cb947-bff0-49f0-a332-4f5fae93e5be";
+    private final static String NEW_CLIENT_ID = "5c0a7e51-2f7b-4c34-8a0e-6b1d3c9e2a01";
+    private final static String NEW_PROJECT_ID = "5c0a7e51-2f7b-4c34-8a0e-6b1d3c9e2a02";
+    private final static String RECOUNT = "SELECT client_id AS scope_id, 'P' AS kind, status, count(*) AS total "
+            + "FROM tb_project WHERE client_id IS NOT NULL AND deleted_date IS NULL GROUP BY client_id, status "
+            + "UNION ALL SELECT a.project_id, 'A', a.status, count(*) FROM tb_activity a "
+            + "JOIN tb_project p ON p.id = a.project_id WHERE p.deleted_date IS NULL AND a.deleted_date IS NULL "
+            + "GROUP BY a.project_id, a.status "
+            + "UNION ALL SELECT p.client_id, 'A', a.status, count(*) FROM tb_activity a "
+            + "JOIN tb_project p ON p.id = a.project_id WHERE p.client_id IS NOT NULL AND p.deleted_date IS NULL "
+            + "AND a.deleted_date IS NULL GROUP BY p.client_id, a.status";
+
+    private final static String PROGRESS_RECOUNT = "SELECT p.id, count(a.id) AS activities, "
+            + "count(a.id) FILTER (WHERE a.status = 'F') AS finished "
+            + "FROM tb_project p LEFT JOIN tb_activity a ON a.project_id = p.id AND a.deleted_date IS NULL "
+            + "WHERE p.deleted_date IS NULL GROUP BY p.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IClientRepository clientRepository;
+
+    @Autowired
+    private IProjectRepository projectRepository;
+
+    @Autowired
+    private IActivityRepository activityRepository;
+
+    @Test
+    void should_start_from_the_existing_projects_and_activities() {
+        assertCountersMatchARecount();
+    }
+
+    @Test
+    void should_count_inserted_projects_and_activities_and_their_status_changes() {
+        insertClientWithProject();
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status) "
+                + "SELECT gen_random_uuid(), ?::uuid, 'Counted activity ' || n, 'O' FROM generate_series(1, 5) n",
+                NEW_PROJECT_ID);
+        jdbcTemplate.update("UPDATE tb_activity SET status = 'F' WHERE description IN (?, ?)",
+                "Counted activity 1", "Counted activity 2");
+        jdbcTemplate.update("UPDATE tb_activity SET description = description || '.' WHERE project_id = ?::uuid",
+                NEW_PROJECT_ID);
+        jdbcTemplate.update("UPDATE tb_project SET status = 'P' WHERE id = ?::uuid", NEW_PROJECT_ID);
+
+        assertCountersMatchARecount();
+        assertThat(counter(NEW_CLIENT_ID, "A", "F"), is(2L));
+        assertThat(counter(NEW_PROJECT_ID, "A", "O"), is(3L));
+        assertThat(counter(NEW_CLIENT_ID, "P", "P"), is(1L));
+        assertThat(jdbcTemplate.queryForObject("SELECT finished_activity_count FROM tb_project WHERE id = ?::uuid",
+                Integer.class, NEW_PROJECT_ID), is(2));
+    }
+
+    @Test
+    void should_move_the_activity_counts_of_a_project_that_changes_client() {
+        insertClientWithProject();
+
+        jdbcTemplate.update("UPDATE tb_project SET client_id = ?::uuid WHERE id = ?::uuid", NEW_CLIENT_ID, PROJECT_ID);
+
+        assertCountersMatchARecount();
+    }
+
+    @Test
+    void should_discount_a_deleted_project_and_its_cascaded_activities() {
+        jdbcTemplate.update("DELETE FROM tb_project WHERE id = ?::uuid", PROJECT_ID);
+
+        assertCountersMatchARecount();
+        assertThat(countersOf(PROJECT_ID), is(0L));
+    }
+
+    @Test
+    void should_drop_the_counters_of_a_deleted_client() {
+        jdbcTemplate.update("DELETE FROM tb_client WHERE id = ?::uuid", CLIENT_ID);
+
+        assertCountersMatchARecount();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tb_status_counter", Long.class), is(0L));
+    }
+
+    @Test
+    void should_keep_the_counters_while_a_client_is_deleted_in_batches() {
+        insertClientWithProject();
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status) "
+                + "SELECT gen_random_uuid(), ?::uuid, 'Counted activity ' || n, 'O' FROM generate_series(1, 5) n",
+                NEW_PROJECT_ID);
+
+        UUID clientId = UUID.fromString(NEW_CLIENT_ID);
+        assertThat(activityRepository.removeBatchByClientId(clientId, 3).size(), is(3));
+        assertCountersMatchARecount();
+        assertThat(activityRepository.removeBatchByClientId(clientId, 3).size(), is(2));
+        assertThat(activityRepository.removeBatchByClientId(clientId, 3).size(), is(0));
+        assertThat(projectRepository.removeBatchByClientId(clientId, 3).size(), is(1));
+
+        assertCountersMatchARecount();
+        assertThat(counter(NEW_CLIENT_ID, "A", "O"), is(0L));
+        assertThat(counter(NEW_CLIENT_ID, "P", "O"), is(0L));
+    }
+
+    @Test
+    void should_discount_a_soft_deleted_activity_and_ignore_its_purge() {
+        UUID activityId = jdbcTemplate.queryForObject("SELECT id FROM tb_activity WHERE project_id = ?::uuid LIMIT 1",
+                UUID.class, PROJECT_ID);
+
+        assertThat(activityRepository.removeById(activityId), is(1));
+        assertCountersMatchARecount();
+        assertThat(activityRepository.removeById(activityId), is(0));
+
+        assertThat(activityRepository.purgeBatch(10), is(1));
+        assertCountersMatchARecount();
+    }
+
+    @Test
+    void should_discount_a_soft_deleted_project_and_hide_its_activities_until_they_are_purged() {
+        UUID projectId = UUID.fromString(PROJECT_ID);
+        UUID activityId = jdbcTemplate.queryForObject("SELECT id FROM tb_activity WHERE project_id = ?::uuid LIMIT 1",
+                UUID.class, PROJECT_ID);
+
+        assertThat(projectRepository.removeById(projectId), is(1));
+
+        assertCountersMatchARecount();
+        assertThat(countersOf(PROJECT_ID), is(0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tb_activity WHERE deleted_date IS NOT NULL",
+                Long.class), is(0L));
+        assertThat(activityRepository.findAllByProjectId(PageRequest.of(0, 10), projectId).getTotalElements(), is(0L));
+        assertTrue(activityRepository.findVersionTagById(activityId).isEmpty());
+        assertThat(activityRepository.removeById(activityId), is(0));
+
+        assertThat(projectRepository.purgeBatch(10), is(0));
+        while (activityRepository.purgeBatchOfDeletedProjects(2) > 0) {
+            assertCountersMatchARecount();
+        }
+        assertThat(projectRepository.purgeBatch(10), is(1));
+        assertCountersMatchARecount();
+    }
+
+    @Test
+    void should_drop_the_counters_of_a_soft_deleted_client_and_purge_it_after_its_projects() {
+        assertThat(clientRepository.removeById(UUID.fromString(CLIENT_ID)), is(1));
+
+        assertCountersMatchARecount();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tb_status_counter", Long.class), is(0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM tb_activity WHERE deleted_date IS NOT NULL",
+                Long.class), is(0L));
+
+        assertThat(clientRepository.purgeBatch(10), is(0));
+        while (activityRepository.purgeBatchOfDeletedProjects(10) > 0) {
+            assertCountersMatchARecount();
+        }
+        while (projectRepository.purgeBatch(10) > 0) {
+            assertCountersMatchARecount();
+        }
+        assertThat(clientRepository.purgeBatch(10), is(1));
+    }
+
+    @Test
+    void should_move_the_activities_of_an_archived_project_without_changing_the_counters() {
+        long activities = activityRepository.findAllByProjectId(PageRequest.of(0, 1), UUID.fromString(PROJECT_ID))
+                .getTotalElements();
+        jdbcTemplate.update("UPDATE tb_project SET status = 'F', update_date = localtimestamp - interval '31 days' "
+                + "WHERE id = ?::uuid", PROJECT_ID);
+
+        assertThat(projectRepository.archiveBatch("P30D", 10), is(1));
+        assertCountersMatchARecount();
+        assertThat(activitiesIn("tb_activity_archived"), is(activities));
+        assertThat(activityRepository.findAllByProjectId(PageRequest.of(0, 1), UUID.fromString(PROJECT_ID))
+                .getTotalElements(), is(activities));
+
+        jdbcTemplate.update("UPDATE tb_project SET status = 'O' WHERE id = ?::uuid", PROJECT_ID);
+
+        assertThat(projectRepository.restoreBatch(10), is(1));
+        assertCountersMatchARecount();
+        assertThat(activitiesIn("tb_activity_hot"), is(activities));
+    }
+
+    private void insertClientWithProject() {
+        jdbcTemplate.update("INSERT INTO tb_client (id, name) VALUES (?::uuid, 'Counted client')", NEW_CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status) "
+                + "VALUES (?::uuid, ?::uuid, 'Counted project', 'O')", NEW_PROJECT_ID, NEW_CLIENT_ID);
+    }
+
+    private void assertCountersMatchARecount() {
+        List<Map<String, Object>> counters = jdbcTemplate.queryForList(
+                "SELECT scope_id, kind, status, total FROM tb_status_counter WHERE total <> 0");
+        List<Map<String, Object>> recount = jdbcTemplate.queryForList(
+                "SELECT scope_id, CAST(kind AS char(1)) AS kind, status, total FROM (" + RECOUNT + ") r");
+
+        assertThat(counters, containsInAnyOrder(recount.toArray()));
+
+        List<Map<String, Object>> progress = jdbcTemplate.queryForList("SELECT id, CAST(activity_count AS bigint) "
+                + "AS activities, CAST(finished_activity_count AS bigint) AS finished FROM tb_project "
+                + "WHERE deleted_date IS NULL");
+        List<Map<String, Object>> progressRecount = jdbcTemplate.queryForList(PROGRESS_RECOUNT);
+
+        assertThat(progress, containsInAnyOrder(progressRecount.toArray()));
+    }
+
+    private long counter(String scopeId, String kind, String status) {
+        return jdbcTemplate.queryForObject("SELECT total FROM tb_status_counter "
+                + "WHERE scope_id = ?::uuid AND kind = ? AND status = ?", Long.class, scopeId, kind, status);
+    }
+
+    private long activitiesIn(String partition) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition + " WHERE project_id = ?::uuid",
+                Long.class, PROJECT_ID);
+    }
+
+    private long countersOf(String scopeId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM tb_status_counter WHERE scope_id = ?::uuid",
+                Long.class, scopeId);
+    }
+}
@@ -1,12 +1,17 @@
 package com.project.manager.service;
 
 import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.BulkStatusResponseDto;
 import com.project.manager.entity.ActivityEntity;
 import com.project.manager.entity.ProjectEntity;
 import com.project.manager.exception.ActivityExistent;
 import com.project.manager.exception.ProjectNonExistent;
+import com.project.manager.exception.VersionMismatch;
+import com.project.manager.projection.ActivityProjection;
+import com.project.manager.projection.ActivityRowProjection;
 import com.project.manager.repository.IActivityRepository;
 import com.project.manager.repository.IProjectRepository;
+import com.project.manager.repository.RowEstimateRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,24 +19,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
-import static org.junit.jupiter.api.Assertions.assertInstanceOf;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -44,6 +53,12 @@ class ActivityServiceTest {
     @Mock
     private IProjectRepository projectRepositoryMock;
 
+    @Mock
+    private RowEstimateRepository rowEstimateRepositoryMock;
+
+    @Mock
+    private SuggestionIndex suggestionIndexMock;
+
     @InjectMocks
     private ActivityService activityService;
 
@@ -51,40 +66,64 @@ class ActivityServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        activityService = new ActivityService(activityRepositoryMock, projectRepositoryMock);
+        activityService = new ActivityService(activityRepositoryMock, projectRepositoryMock, rowEstimateRepositoryMock,
+                suggestionIndexMock);
     }
 
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(activityRepositoryMock);
         verifyNoMoreInteractions(projectRepositoryMock);
+        verifyNoMoreInteractions(rowEstimateRepositoryMock);
+        verifyNoMoreInteractions(suggestionIndexMock);
     }
 
     @Test
     public void should_return_a_activity_entity_when_searching_by_id() {
         UUID id = UUID.randomUUID();
+        ProjectEntity project = ProjectEntity.builder().id(UUID.randomUUID()).build();
+
+        when(activityRepositoryMock.findRowById(id)).thenReturn(Optional.of(new ActivityRowProjection(id,
+                "Activity", StatusEnum.OPEN, LocalDateTime.now(), LocalDateTime.now(), 1L, project.getId())));
+        when(projectRepositoryMock.findById(project.getId())).thenReturn(Optional.of(project));
+
+        ActivityEntity response = activityService.findById(id).orElseThrow();
+        assertThat(response.getId(), is(id));
+        assertThat(response.getVersion(), is(1L));
+        assertThat(response.getProject(), is(project));
+
+        verify(activityRepositoryMock).findRowById(id);
+        verify(projectRepositoryMock).findById(project.getId());
+    }
+
+    @Test
+    public void should_not_return_a_cached_activity_whose_project_was_deleted() {
+        UUID id = UUID.randomUUID();
+        UUID projectId = UUID.randomUUID();
 
-        when(activityRepositoryMock.findById(id)).thenReturn(Optional.of(ActivityEntity.builder().build()));
+        when(activityRepositoryMock.findRowById(id)).thenReturn(Optional.of(new ActivityRowProjection(id,
+                "Activity", StatusEnum.OPEN, LocalDateTime.now(), LocalDateTime.now(), 1L, projectId)));
+        when(projectRepositoryMock.findById(projectId)).thenReturn(Optional.empty());
 
-        Optional<ActivityEntity> response = activityService.findById(id);
-        assertNotNull(response);
+        assertTrue(activityService.findById(id).isEmpty());
 
-        verify(activityRepositoryMock).findById(id);
+        verify(activityRepositoryMock).findRowById(id);
+        verify(projectRepositoryMock).findById(projectId);
     }
 
     @Test
     public void should_return_a_record_page_when_all_activities_of_a_client_with_a_specific_status_are_consulted() {
         UUID id = UUID.randomUUID();
 
-        List<ActivityEntity> activityEntityList = List.of(new ActivityEntity());
+        List<ActivityProjection> activityEntityList = List.of(mock(ActivityProjection.class));
         PageRequest pageRequest = PageRequest.of(1, 10);
-        Page<ActivityEntity> pageActivity = new PageImpl<>(activityEntityList, pageRequest,
+        Page<ActivityProjection> pageActivity = new PageImpl<>(activityEntityList, pageRequest,
                 activityEntityList.size());
 
         when(activityRepositoryMock.findAllByProjectIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN.getCode())))
                 .thenReturn(pageActivity);
 
-        Page<ActivityEntity> response = activityService.findByProjectIdAndStatus(pageRequest, id, StatusEnum.OPEN);
+        Page<ActivityProjection> response = activityService.findByProjectIdAndStatus(pageRequest, id, StatusEnum.OPEN);
 
         verify(activityRepositoryMock).findAllByProjectIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN.getCode()));
         var returnedPageContentList = response.getContent();
@@ -96,15 +135,15 @@ class ActivityServiceTest {
     public void should_return_a_record_page_when_all_activities_of_a_client() {
         UUID id = UUID.randomUUID();
 
-        List<ActivityEntity> activityEntityList = List.of(new ActivityEntity());
+        List<ActivityProjection> activityEntityList = List.of(mock(ActivityProjection.class));
         PageRequest pageRequest = PageRequest.of(1, 10);
-        Page<ActivityEntity> pageActivity = new PageImpl<>(activityEntityList, pageRequest,
+        Page<ActivityProjection> pageActivity = new PageImpl<>(activityEntityList, pageRequest,
                 activityEntityList.size());
 
         when(activityRepositoryMock.findAllByProjectId(any(PageRequest.class), eq(id)))
                 .thenReturn(pageActivity);
 
-        Page<ActivityEntity> response = activityService.findByProjectId(pageRequest, id);
+        Page<ActivityProjection> response = activityService.findByProjectId(pageRequest, id);
 
         verify(activityRepositoryMock).findAllByProjectId(any(PageRequest.class), eq(id));
         var returnedPageContentList = response.getContent();
@@ -113,21 +152,38 @@ class ActivityServiceTest {
     }
 
 
+    @Test
+    public void should_hand_every_streamed_activity_of_a_project_to_the_consumer() {
+        UUID id = UUID.randomUUID();
+        List<ActivityProjection> activities = List.of(mock(ActivityProjection.class), mock(ActivityProjection.class));
+
+        when(activityRepositoryMock.streamAllByProjectId(id)).thenReturn(activities.stream());
+
+        List<ActivityProjection> exported = new ArrayList<>();
+        activityService.exportByProjectId(id, exported::add);
+
+        assertThat(exported, is(activities));
+
+        verify(activityRepositoryMock).streamAllByProjectId(id);
+    }
+
     @Test
     public void should_add_an_activity_when_the_project_exist_and_activity_descripcion_is_unique() {
         UUID id = UUID.randomUUID();
 
-        when(projectRepositoryMock.findById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
-        when(activityRepositoryMock.existsByProjectIdAndDescription(eq(id), any(String.class))).thenReturn(false);
-        when(activityRepositoryMock.save(any(ActivityEntity.class))).thenReturn(ActivityEntity.builder().build());
+        ProjectEntity project = ProjectEntity.builder().id(id).build();
+        when(projectRepositoryMock.findById(id)).thenReturn(Optional.of(project));
+        UUID activityId = UUID.randomUUID();
+        when(activityRepositoryMock.insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode()))
+                .thenReturn(Optional.of(ActivityEntity.builder().id(activityId).description("fake").build()));
 
         ActivityEntity response = activityService.add(id, ActivityEntity.builder().description("fake").build());
 
-        assertInstanceOf(ActivityEntity.class, response);
+        assertThat(response.getProject(), is(project));
 
         verify(projectRepositoryMock).findById(id);
-        verify(activityRepositoryMock).existsByProjectIdAndDescription(eq(id), any(String.class));
-        verify(activityRepositoryMock).save(any(ActivityEntity.class));
+        verify(activityRepositoryMock).insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode());
+        verify(suggestionIndexMock).putActivity(activityId, "fake", id);
     }
 
     @Test
@@ -145,44 +201,260 @@ class ActivityServiceTest {
         UUID id = UUID.randomUUID();
 
         when(projectRepositoryMock.findById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
-        when(activityRepositoryMock.existsByProjectIdAndDescription(eq(id), any(String.class))).thenReturn(true);
+        when(activityRepositoryMock.insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode())).thenReturn(Optional.empty());
+        when(projectRepositoryMock.existsById(id)).thenReturn(true);
 
         assertThrows(ActivityExistent.class, () -> activityService.add(id, ActivityEntity.builder().description("fake").build()));
         verify(projectRepositoryMock).findById(id);
-        verify(activityRepositoryMock).existsByProjectIdAndDescription(eq(id), any(String.class));
+        verify(activityRepositoryMock).insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode());
+        verify(projectRepositoryMock).existsById(id);
+    }
+
+    @Test
+    public void should_not_add_an_activity_when_the_cached_project_was_deleted_meanwhile() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.findById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
+        when(activityRepositoryMock.insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode())).thenReturn(Optional.empty());
+        when(projectRepositoryMock.existsById(id)).thenReturn(false);
+
+        assertThrows(ProjectNonExistent.class, () -> activityService.add(id, ActivityEntity.builder().description("fake").build()));
+        verify(projectRepositoryMock).findById(id);
+        verify(activityRepositoryMock).insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode());
+        verify(projectRepositoryMock).existsById(id);
+    }
+
+    @Test
+    public void should_add_activities_in_batch_with_one_duplicate_check() {
+        UUID id = UUID.randomUUID();
+        List<ActivityEntity> activities = List.of(ActivityEntity.builder().description("fake 1").build(),
+                ActivityEntity.builder().description("fake 2").build());
+
+        when(projectRepositoryMock.lockById(id)).thenReturn(Optional.of(ProjectEntity.builder().archived(true).build()));
+        when(activityRepositoryMock.findDescriptionsByProjectIdAndDescriptionIn(id, Set.of("fake 1", "fake 2")))
+                .thenReturn(List.of());
+        when(activityRepositoryMock.saveAll(activities)).thenReturn(activities);
+
+        List<ActivityEntity> response = activityService.addAll(id, activities);
+
+        assertThat(response.size(), is(2));
+        assertThat(response.get(0).getStatus(), is(StatusEnum.OPEN));
+        assertThat(response.get(1).getProject(), is(notNullValue()));
+        assertTrue(response.get(1).isArchived());
+
+        verify(projectRepositoryMock).lockById(id);
+        verify(activityRepositoryMock).findDescriptionsByProjectIdAndDescriptionIn(id, Set.of("fake 1", "fake 2"));
+        verify(activityRepositoryMock).saveAll(activities);
+        verify(activityRepositoryMock).flush();
+        verify(suggestionIndexMock).putActivity(null, "fake 1", id);
+        verify(suggestionIndexMock).putActivity(null, "fake 2", id);
+    }
+
+    @Test
+    public void should_not_add_activities_in_batch_when_project_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.lockById(id)).thenReturn(Optional.empty());
+
+        assertThrows(ProjectNonExistent.class, () -> activityService.addAll(id,
+                List.of(ActivityEntity.builder().description("fake").build())));
+        verify(projectRepositoryMock).lockById(id);
+    }
+
+    @Test
+    public void should_not_add_activities_in_batch_when_repeated_in_the_batch() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.lockById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
+
+        assertThrows(ActivityExistent.class, () -> activityService.addAll(id,
+                List.of(ActivityEntity.builder().description("fake").build(),
+                        ActivityEntity.builder().description("fake").build())));
+        verify(projectRepositoryMock).lockById(id);
+    }
+
+    @Test
+    public void should_not_add_activities_in_batch_when_one_already_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.lockById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
+        when(activityRepositoryMock.findDescriptionsByProjectIdAndDescriptionIn(id, Set.of("fake 1", "fake 2")))
+                .thenReturn(List.of("fake 2"));
+
+        ActivityExistent exception = assertThrows(ActivityExistent.class, () -> activityService.addAll(id,
+                List.of(ActivityEntity.builder().description("fake 1").build(),
+                        ActivityEntity.builder().description("fake 2").build())));
+
+        assertTrue(exception.getMessage().endsWith("fake 2"));
+        verify(projectRepositoryMock).lockById(id);
+        verify(activityRepositoryMock).findDescriptionsByProjectIdAndDescriptionIn(id, Set.of("fake 1", "fake 2"));
+    }
+
+    @Test
+    public void should_not_add_activities_in_batch_when_one_was_added_concurrently() {
+        UUID id = UUID.randomUUID();
+        List<ActivityEntity> activities = List.of(ActivityEntity.builder().description("fake").build());
+
+        when(projectRepositoryMock.lockById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
+        when(activityRepositoryMock.findDescriptionsByProjectIdAndDescriptionIn(id, Set.of("fake"))).thenReturn(List.of());
+        when(activityRepositoryMock.saveAll(activities)).thenReturn(activities);
+        doThrow(new DataIntegrityViolationException("duplicate key")).when(activityRepositoryMock).flush();
+
+        assertThrows(ActivityExistent.class, () -> activityService.addAll(id, activities));
+        verify(projectRepositoryMock).lockById(id);
+        verify(activityRepositoryMock).findDescriptionsByProjectIdAndDescriptionIn(id, Set.of("fake"));
+        verify(activityRepositoryMock).saveAll(activities);
+        verify(activityRepositoryMock).flush();
     }
 
     @Test
     public void should_update_an_activity() {
-        when(activityRepositoryMock.save(any(ActivityEntity.class))).thenReturn(ActivityEntity.builder().build());
+        UUID id = UUID.randomUUID();
+
+        UUID projectId = UUID.randomUUID();
+        when(activityRepositoryMock.updateById(id, "fake", StatusEnum.FINISHED.getCode(), null)).thenReturn(Optional.of(ActivityEntity.builder()
+                .id(id).description("fake").project(ProjectEntity.builder().id(projectId).build()).build()));
 
-        ActivityEntity response = activityService.update(ActivityEntity.builder().build());
+        Optional<ActivityEntity> response = activityService.update(id, ActivityEntity.builder().description("fake").status(StatusEnum.FINISHED).build(), null);
 
-        assertInstanceOf(ActivityEntity.class, response);
+        assertTrue(response.isPresent());
 
-        verify(activityRepositoryMock).save(any(ActivityEntity.class));
+        verify(activityRepositoryMock).updateById(id, "fake", StatusEnum.FINISHED.getCode(), null);
+        verify(suggestionIndexMock).putActivity(id, "fake", projectId);
+    }
+
+    @Test
+    public void should_keep_the_status_when_updating_an_activity_without_status() {
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.updateById(id, "fake", null, null)).thenReturn(Optional.empty());
+
+        Optional<ActivityEntity> response = activityService.update(id, ActivityEntity.builder().description("fake").build(), null);
+
+        assertTrue(response.isEmpty());
+
+        verify(activityRepositoryMock).updateById(id, "fake", null, null);
     }
 
     @Test
     public void should_update_the_status_of_an_activity() {
         UUID id = UUID.randomUUID();
 
-        doNothing().when(activityRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode());
+        when(activityRepositoryMock.updateStatus(id, StatusEnum.OPEN.getCode(), null)).thenReturn(1);
+
+        Optional<String> response = activityService.updateStatus(id, StatusEnum.OPEN, null);
+
+        assertTrue(response.isPresent());
+        assertTrue("The activity status was updated".equals(response.get()));
+
+        verify(activityRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode(), null);
+    }
+
+    @Test
+    public void should_not_update_the_status_of_an_activity_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.updateStatus(id, StatusEnum.OPEN.getCode(), null)).thenReturn(0);
+
+        Optional<String> response = activityService.updateStatus(id, StatusEnum.OPEN, null);
+
+        assertTrue(response.isEmpty());
+
+        verify(activityRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode(), null);
+    }
+
+    @Test
+    public void should_reject_an_update_when_the_activity_version_changed() {
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.updateById(id, "fake", null, "3.2.1")).thenReturn(Optional.empty());
+        when(activityRepositoryMock.findVersionTagById(id)).thenReturn(Optional.of("4.2.1"));
+
+        VersionMismatch exception = assertThrows(VersionMismatch.class,
+                () -> activityService.update(id, ActivityEntity.builder().description("fake").build(), "3.2.1"));
+
+        assertThat(exception.getMessage(), is("The activity was modified by someone else"));
+        verify(activityRepositoryMock).updateById(id, "fake", null, "3.2.1");
+        verify(activityRepositoryMock).findVersionTagById(id);
+    }
+
+    @Test
+    public void should_not_update_the_status_of_an_activity_with_a_version_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.updateStatus(id, StatusEnum.OPEN.getCode(), "3.2.1")).thenReturn(0);
+        when(activityRepositoryMock.findVersionTagById(id)).thenReturn(Optional.empty());
+
+        Optional<String> response = activityService.updateStatus(id, StatusEnum.OPEN, "3.2.1");
+
+        assertTrue(response.isEmpty());
+
+        verify(activityRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode(), "3.2.1");
+        verify(activityRepositoryMock).findVersionTagById(id);
+    }
+
+    @Test
+    public void should_update_the_status_of_many_activities_in_one_statement() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+        when(activityRepositoryMock.updateStatusByIdIn(ids.toArray(UUID[]::new), StatusEnum.FINISHED.getCode()))
+                .thenReturn(2);
+
+        BulkStatusResponseDto response = activityService.updateStatus(ids, StatusEnum.FINISHED);
+
+        assertThat(response, is(new BulkStatusResponseDto(StatusEnum.FINISHED, 0, 2)));
+
+        verify(activityRepositoryMock).updateStatusByIdIn(ids.toArray(UUID[]::new), StatusEnum.FINISHED.getCode());
+    }
+
+    @Test
+    public void should_update_the_status_of_all_the_activities_of_a_project() {
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.updateStatusByProjectId(id, StatusEnum.FINISHED.getCode())).thenReturn(3);
+
+        BulkStatusResponseDto response = activityService.updateStatusByProjectId(id, null, StatusEnum.FINISHED);
+
+        assertThat(response.activities(), is(3L));
+
+        verify(activityRepositoryMock).updateStatusByProjectId(id, StatusEnum.FINISHED.getCode());
+    }
+
+    @Test
+    public void should_update_the_status_of_the_activities_of_a_project_in_a_given_status() {
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.updateStatusByProjectIdAndStatus(id, StatusEnum.OPEN.getCode(),
+                StatusEnum.FINISHED.getCode())).thenReturn(1);
 
-        String response = activityService.updateStatus(id, StatusEnum.OPEN);
+        BulkStatusResponseDto response = activityService.updateStatusByProjectId(id, StatusEnum.OPEN, StatusEnum.FINISHED);
 
-        assertInstanceOf(String.class, response);
-        assertTrue("The activity status was updated".equals(response));
+        assertThat(response.activities(), is(1L));
 
-        verify(activityRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode());
+        verify(activityRepositoryMock).updateStatusByProjectIdAndStatus(id, StatusEnum.OPEN.getCode(),
+                StatusEnum.FINISHED.getCode());
     }
 
     @Test
     public void should_delete_an_activity() {
-        doNothing().when(activityRepositoryMock).delete(any(ActivityEntity.class));
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.removeById(id)).thenReturn(1);
+
+        assertTrue(activityService.delete(id));
+
+        verify(activityRepositoryMock).removeById(id);
+        verify(suggestionIndexMock).remove(id);
+    }
+
+    @Test
+    public void should_not_delete_an_activity_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(activityRepositoryMock.removeById(id)).thenReturn(0);
 
-        activityService.delete(ActivityEntity.builder().id(UUID.randomUUID()).build());
+        assertFalse(activityService.delete(id));
 
-        verify(activityRepositoryMock).delete(any(ActivityEntity.class));
+        verify(activityRepositoryMock).removeById(id);
     }
-}
\ No newline at end of file
+}
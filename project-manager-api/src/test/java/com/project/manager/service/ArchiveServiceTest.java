@@ -0,0 +1,50 @@
+package com.project.manager.service;
+
+import com.project.manager.repository.IProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ArchiveServiceTest {
+
+    private final static int BATCH_SIZE = 2;
+    private final static Duration FINISHED_FOR = Duration.ofDays(30);
+
+    @Mock
+    private IProjectRepository projectRepositoryMock;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(projectRepositoryMock);
+    }
+
+    @Test
+    public void should_restore_reopened_projects_then_archive_finished_ones_in_batches() {
+        ArchiveService archiveService = new ArchiveService(projectRepositoryMock, FINISHED_FOR, Duration.ofMinutes(1),
+                BATCH_SIZE, Duration.ZERO);
+
+        when(projectRepositoryMock.restoreBatch(BATCH_SIZE)).thenReturn(1, 0);
+        when(projectRepositoryMock.archiveBatch("PT720H", BATCH_SIZE)).thenReturn(2, 2, 0);
+
+        archiveService.archive();
+
+        InOrder inOrder = inOrder(projectRepositoryMock);
+        inOrder.verify(projectRepositoryMock, times(2)).restoreBatch(BATCH_SIZE);
+        inOrder.verify(projectRepositoryMock, times(3)).archiveBatch("PT720H", BATCH_SIZE);
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.manager.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchRunnerTest {
+
+    private final static int BATCH_SIZE = 2;
+
+    @Test
+    public void should_run_batches_until_one_comes_back_empty_and_add_up_their_rows() {
+        BatchRunner batchRunner = new BatchRunner(BATCH_SIZE, Duration.ZERO);
+        Iterator<Integer> rows = List.of(2, 2, 1, 0).iterator();
+        List<Integer> sizes = new ArrayList<>();
+
+        long done = batchRunner.run(size -> {
+            sizes.add(size);
+            return rows.next();
+        }, System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+        assertEquals(5, done);
+        assertEquals(List.of(BATCH_SIZE, BATCH_SIZE, BATCH_SIZE, BATCH_SIZE), sizes);
+    }
+
+    @Test
+    public void should_not_run_a_batch_once_the_deadline_has_passed() {
+        BatchRunner batchRunner = new BatchRunner(BATCH_SIZE, Duration.ZERO);
+        List<Integer> sizes = new ArrayList<>();
+
+        long done = batchRunner.run(size -> {
+            sizes.add(size);
+            return size;
+        }, System.nanoTime());
+
+        assertEquals(0, done);
+        assertTrue(sizes.isEmpty());
+    }
+
+    @Test
+    public void should_stop_after_the_batch_whose_pause_outlasts_the_deadline() {
+        BatchRunner batchRunner = new BatchRunner(BATCH_SIZE, Duration.ofMillis(200));
+
+        long done = batchRunner.run(size -> size, System.nanoTime() + Duration.ofMillis(100).toNanos());
+
+        assertEquals(BATCH_SIZE, done);
+    }
+
+    @Test
+    public void should_stop_and_keep_the_interrupt_when_interrupted_during_a_pause() {
+        BatchRunner batchRunner = new BatchRunner(BATCH_SIZE, Duration.ofMinutes(1));
+
+        Thread.currentThread().interrupt();
+        long done = batchRunner.run(size -> size, System.nanoTime() + Duration.ofMinutes(1).toNanos());
+
+        assertEquals(BATCH_SIZE, done);
+        assertTrue(Thread.interrupted());
+    }
+}
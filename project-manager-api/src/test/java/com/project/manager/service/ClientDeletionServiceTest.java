@@ -0,0 +1,199 @@
+package com.project.manager.service;
+
+import com.project.manager.config.CacheConfig;
+import com.project.manager.constant.DeletionStatusEnum;
+import com.project.manager.dto.ClientDeletionDto;
+import com.project.manager.projection.StatusCountProjection;
+import com.project.manager.repository.IActivityRepository;
+import com.project.manager.repository.IClientRepository;
+import com.project.manager.repository.IProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ClientDeletionServiceTest {
+
+    private final static int BATCH_SIZE = 2;
+
+    @Mock
+    private IClientRepository clientRepositoryMock;
+
+    @Mock
+    private IProjectRepository projectRepositoryMock;
+
+    @Mock
+    private IActivityRepository activityRepositoryMock;
+
+    @Mock
+    private ClientService clientServiceMock;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
+            CacheConfig.PROJECTS_CACHE, CacheConfig.ACTIVITIES_CACHE);
+
+    private ClientDeletionService clientDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        clientDeletionService = new ClientDeletionService(clientRepositoryMock, projectRepositoryMock,
+                activityRepositoryMock, clientServiceMock, cacheManager, tasks::add, Duration.ofMinutes(1), BATCH_SIZE,
+                Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(clientRepositoryMock);
+        verifyNoMoreInteractions(projectRepositoryMock);
+        verifyNoMoreInteractions(activityRepositoryMock);
+        verifyNoMoreInteractions(clientServiceMock);
+    }
+
+    @Test
+    public void should_delete_activities_then_projects_in_batches_and_then_the_client() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.existsById(id)).thenReturn(true);
+        List<StatusCountProjection> statusCounts = List.of(
+                statusCount(StatusCountProjection.PROJECTS, "O", 1L),
+                statusCount(StatusCountProjection.ACTIVITIES, "O", 2L),
+                statusCount(StatusCountProjection.ACTIVITIES, "F", 1L));
+        when(clientRepositoryMock.findStatusCountsById(id)).thenReturn(statusCounts);
+        UUID projectId = UUID.randomUUID();
+        List<UUID> activityIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        when(activityRepositoryMock.removeBatchByClientId(id, BATCH_SIZE))
+                .thenReturn(activityIds.subList(0, 2), activityIds.subList(2, 3), List.of());
+        when(projectRepositoryMock.removeBatchByClientId(id, BATCH_SIZE)).thenReturn(List.of(projectId), List.of());
+        when(clientServiceMock.delete(id)).thenReturn(true);
+        UUID otherActivityId = UUID.randomUUID();
+        activityIds.forEach(activityId -> cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE).put(activityId, "cached"));
+        cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE).put(otherActivityId, "cached");
+        cacheManager.getCache(CacheConfig.PROJECTS_CACHE).put(projectId, "cached");
+
+        ClientDeletionDto started = clientDeletionService.start(id).orElseThrow();
+
+        assertThat(started.status(), is(DeletionStatusEnum.RUNNING));
+        assertThat(started.projects(), is(1L));
+        assertThat(started.activities(), is(3L));
+
+        tasks.forEach(Runnable::run);
+        ClientDeletionDto deletion = clientDeletionService.findById(id).orElseThrow();
+
+        assertThat(deletion.status(), is(DeletionStatusEnum.FINISHED));
+        assertThat(deletion.deletedProjects(), is(1L));
+        assertThat(deletion.deletedActivities(), is(3L));
+        activityIds.forEach(activityId ->
+                assertNull(cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE).get(activityId)));
+        assertNotNull(cacheManager.getCache(CacheConfig.ACTIVITIES_CACHE).get(otherActivityId));
+        assertNull(cacheManager.getCache(CacheConfig.PROJECTS_CACHE).get(projectId));
+
+        verify(clientRepositoryMock).existsById(id);
+        verify(clientRepositoryMock).findStatusCountsById(id);
+        verify(activityRepositoryMock, times(3)).removeBatchByClientId(id, BATCH_SIZE);
+        verify(projectRepositoryMock, times(2)).removeBatchByClientId(id, BATCH_SIZE);
+        verify(clientServiceMock).delete(id);
+    }
+
+    @Test
+    public void should_return_the_running_deletion_instead_of_starting_another() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.existsById(id)).thenReturn(true);
+        when(clientRepositoryMock.findStatusCountsById(id)).thenReturn(List.of());
+
+        ClientDeletionDto started = clientDeletionService.start(id).orElseThrow();
+
+        assertThat(clientDeletionService.start(id).orElseThrow(), is(started));
+        assertThat(tasks.size(), is(1));
+
+        verify(clientRepositoryMock).existsById(id);
+        verify(clientRepositoryMock).findStatusCountsById(id);
+    }
+
+    @Test
+    public void should_not_start_a_deletion_when_the_client_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.existsById(id)).thenReturn(false);
+
+        assertTrue(clientDeletionService.start(id).isEmpty());
+        assertTrue(clientDeletionService.findById(id).isEmpty());
+
+        verify(clientRepositoryMock).existsById(id);
+    }
+
+    @Test
+    public void should_report_a_failed_deletion() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.existsById(id)).thenReturn(true);
+        when(clientRepositoryMock.findStatusCountsById(id)).thenReturn(List.of());
+        when(activityRepositoryMock.removeBatchByClientId(id, BATCH_SIZE)).thenThrow(new QueryTimeoutException("timeout"));
+
+        clientDeletionService.start(id);
+        tasks.forEach(Runnable::run);
+
+        Optional<ClientDeletionDto> deletion = clientDeletionService.findById(id);
+
+        assertThat(deletion.orElseThrow().status(), is(DeletionStatusEnum.FAILED));
+        assertThat(deletion.orElseThrow().error(), is("timeout"));
+
+        verify(clientRepositoryMock).existsById(id);
+        verify(clientRepositoryMock).findStatusCountsById(id);
+        verify(activityRepositoryMock).removeBatchByClientId(id, BATCH_SIZE);
+    }
+
+    @Test
+    public void should_fail_a_deletion_that_runs_out_of_time_without_deleting_the_client() {
+        UUID id = UUID.randomUUID();
+        clientDeletionService = new ClientDeletionService(clientRepositoryMock, projectRepositoryMock,
+                activityRepositoryMock, clientServiceMock, cacheManager, tasks::add, Duration.ZERO, BATCH_SIZE,
+                Duration.ZERO);
+
+        when(clientRepositoryMock.existsById(id)).thenReturn(true);
+        when(clientRepositoryMock.findStatusCountsById(id)).thenReturn(List.of());
+
+        clientDeletionService.start(id);
+        tasks.forEach(Runnable::run);
+
+        ClientDeletionDto deletion = clientDeletionService.findById(id).orElseThrow();
+
+        assertThat(deletion.status(), is(DeletionStatusEnum.FAILED));
+        assertThat(deletion.error(), is("Deletion did not finish within PT0S"));
+
+        verify(clientRepositoryMock).existsById(id);
+        verify(clientRepositoryMock).findStatusCountsById(id);
+    }
+
+    private static StatusCountProjection statusCount(String kind, String status, Long total) {
+        StatusCountProjection statusCount = mock(StatusCountProjection.class);
+        when(statusCount.getKind()).thenReturn(kind);
+        when(statusCount.getStatus()).thenReturn(status);
+        when(statusCount.getTotal()).thenReturn(total);
+
+        return statusCount;
+    }
+}
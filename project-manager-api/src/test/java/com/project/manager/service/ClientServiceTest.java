@@ -1,7 +1,11 @@
 package com.project.manager.service;
 
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ClientSummaryDto;
 import com.project.manager.entity.ClientEntity;
+import com.project.manager.projection.StatusCountProjection;
 import com.project.manager.repository.IClientRepository;
+import com.project.manager.repository.RowEstimateRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,10 +24,12 @@ import java.util.UUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -34,6 +40,12 @@ class ClientServiceTest {
     @Mock
     private IClientRepository clientRepositoryMock;
 
+    @Mock
+    private RowEstimateRepository rowEstimateRepositoryMock;
+
+    @Mock
+    private SuggestionIndex suggestionIndexMock;
+
     @InjectMocks
     private ClientService clientService;
 
@@ -41,12 +53,14 @@ class ClientServiceTest {
     public void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        clientService = new ClientService(clientRepositoryMock);
+        clientService = new ClientService(clientRepositoryMock, rowEstimateRepositoryMock, suggestionIndexMock);
     }
 
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(clientRepositoryMock);
+        verifyNoMoreInteractions(rowEstimateRepositoryMock);
+        verifyNoMoreInteractions(suggestionIndexMock);
     }
 
     @Test
@@ -66,11 +80,11 @@ class ClientServiceTest {
         List<ClientEntity> clientEntityList = List.of(new ClientEntity());
         PageRequest pageRequest = PageRequest.of(1, 10);
         Page<ClientEntity> pageClients = new PageImpl<>(clientEntityList, pageRequest, clientEntityList.size());
-        when(clientRepositoryMock.findAll(any(PageRequest.class))).thenReturn(pageClients);
+        when(clientRepositoryMock.findAllClients(any(PageRequest.class))).thenReturn(pageClients);
 
         Page<ClientEntity> response = clientService.findAll(pageRequest);
 
-        verify(clientRepositoryMock).findAll(pageRequest);
+        verify(clientRepositoryMock).findAllClients(pageRequest);
         var returnedPageContentList = response.getContent();
         assertThat(response, is(notNullValue()));
         assertThat(returnedPageContentList.size(), is(1));
@@ -86,14 +100,110 @@ class ClientServiceTest {
         verify(clientRepositoryMock).save(any(ClientEntity.class));
     }
 
+    @Test
+    public void should_update_a_client_when_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.updateById(id, "fake", null)).thenReturn(Optional.of(ClientEntity.builder().build()));
+
+        Optional<ClientEntity> response = clientService.update(id, ClientEntity.builder().name("fake").build(), null);
+
+        assertTrue(response.isPresent());
+
+        verify(clientRepositoryMock).updateById(id, "fake", null);
+    }
+
+    @Test
+    public void should_not_update_a_client_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.updateById(id, "fake", null)).thenReturn(Optional.empty());
+
+        Optional<ClientEntity> response = clientService.update(id, ClientEntity.builder().name("fake").build(), null);
+
+        assertTrue(response.isEmpty());
+
+        verify(clientRepositoryMock).updateById(id, "fake", null);
+    }
+
     @Test
     public void should_delete_a_client_when_exist() {
-        ClientEntity clientEntity = ClientEntity.builder().build();
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.removeById(id)).thenReturn(1);
+
+        assertTrue(clientService.delete(id));
+
+        verify(clientRepositoryMock).removeById(id);
+        verify(suggestionIndexMock).removeClient(id);
+    }
+
+    @Test
+    public void should_not_delete_a_client_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.removeById(id)).thenReturn(0);
+
+        assertFalse(clientService.delete(id));
+
+        verify(clientRepositoryMock).removeById(id);
+    }
+
+    @Test
+    public void should_return_the_summary_of_a_client_from_its_counters() {
+        UUID id = UUID.randomUUID();
+        List<StatusCountProjection> statusCounts = List.of(
+                statusCount(StatusCountProjection.PROJECTS, StatusEnum.OPEN, 2),
+                statusCount(StatusCountProjection.ACTIVITIES, StatusEnum.OPEN, 3),
+                statusCount(StatusCountProjection.ACTIVITIES, StatusEnum.FINISHED, 4));
+
+        when(clientRepositoryMock.findStatusCountsById(id)).thenReturn(statusCounts);
+
+        ClientSummaryDto response = clientService.findSummaryById(id).orElseThrow();
+
+        assertThat(response.projects().get(StatusEnum.OPEN), is(2L));
+        assertThat(response.projects().get(StatusEnum.FINISHED), is(0L));
+        assertThat(response.activities().get(StatusEnum.OPEN), is(3L));
+        assertThat(response.activities().get(StatusEnum.FINISHED), is(4L));
+        assertThat(response.activities().size(), is(StatusEnum.values().length));
 
-        doNothing().when(clientRepositoryMock).delete(any(ClientEntity.class));
+        verify(clientRepositoryMock).findStatusCountsById(id);
+    }
+
+    @Test
+    public void should_return_an_empty_summary_of_a_client_without_projects() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.findStatusCountsById(id)).thenReturn(List.of());
+        when(clientRepositoryMock.existsById(id)).thenReturn(true);
+
+        ClientSummaryDto response = clientService.findSummaryById(id).orElseThrow();
+
+        assertThat(response.projects().get(StatusEnum.OPEN), is(0L));
+
+        verify(clientRepositoryMock).findStatusCountsById(id);
+        verify(clientRepositoryMock).existsById(id);
+    }
+
+    @Test
+    public void should_not_return_a_summary_when_the_client_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(clientRepositoryMock.findStatusCountsById(id)).thenReturn(List.of());
+        when(clientRepositoryMock.existsById(id)).thenReturn(false);
+
+        assertTrue(clientService.findSummaryById(id).isEmpty());
+
+        verify(clientRepositoryMock).findStatusCountsById(id);
+        verify(clientRepositoryMock).existsById(id);
+    }
 
-        clientService.delete(clientEntity);
+    private static StatusCountProjection statusCount(String kind, StatusEnum status, long total) {
+        StatusCountProjection statusCount = mock(StatusCountProjection.class);
+        when(statusCount.getKind()).thenReturn(kind);
+        when(statusCount.getStatus()).thenReturn(status.getCode());
+        when(statusCount.getTotal()).thenReturn(total);
 
-        verify(clientRepositoryMock).delete(any(ClientEntity.class));
+        return statusCount;
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,21 @@
 package com.project.manager.service;
 
 import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.BulkStatusResponseDto;
+import com.project.manager.dto.PageCursor;
+import com.project.manager.dto.ProjectDetailDto;
+import com.project.manager.dto.ProjectSummaryDto;
 import com.project.manager.entity.ClientEntity;
 import com.project.manager.entity.ProjectEntity;
 import com.project.manager.exception.ClientNonExistent;
 import com.project.manager.exception.ProjectExistent;
+import com.project.manager.projection.BulkStatusProjection;
+import com.project.manager.projection.ProjectProgressProjection;
+import com.project.manager.projection.ProjectProjection;
+import com.project.manager.projection.StatusCountProjection;
 import com.project.manager.repository.IClientRepository;
 import com.project.manager.repository.IProjectRepository;
+import com.project.manager.repository.RowEstimateRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,10 +23,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,13 +39,13 @@ import java.util.UUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
-import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -45,6 +59,12 @@ class ProjectServiceTest {
     @Mock
     private IClientRepository clientRepositoryMock;
 
+    @Mock
+    private RowEstimateRepository rowEstimateRepositoryMock;
+
+    @Mock
+    private SuggestionIndex suggestionIndexMock;
+
     @InjectMocks
     private ProjectService projectService;
 
@@ -52,40 +72,63 @@ class ProjectServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
 
-        projectService = new ProjectService(projectRepositoryMock, clientRepositoryMock);
+        projectService = new ProjectService(projectRepositoryMock, clientRepositoryMock, rowEstimateRepositoryMock,
+                suggestionIndexMock);
     }
 
     @AfterEach
     public void tearDown() {
         verifyNoMoreInteractions(projectRepositoryMock);
         verifyNoMoreInteractions(clientRepositoryMock);
+        verifyNoMoreInteractions(rowEstimateRepositoryMock);
+        verifyNoMoreInteractions(suggestionIndexMock);
     }
 
     @Test
-    public void should_return_a_project_entity_when_searching_by_id() {
+    public void should_return_a_project_with_its_progress_when_searching_by_id() {
         UUID id = UUID.randomUUID();
+        ProjectEntity project = ProjectEntity.builder().build();
+        ProjectProgressProjection progress = mock(ProjectProgressProjection.class);
+        when(progress.getActivityCount()).thenReturn(4);
+        when(progress.getFinishedActivityCount()).thenReturn(1);
 
-        when(projectRepositoryMock.findById(id)).thenReturn(Optional.of(ProjectEntity.builder().build()));
+        when(projectRepositoryMock.findProgressById(id)).thenReturn(Optional.of(progress));
+        when(projectRepositoryMock.findById(id)).thenReturn(Optional.of(project));
 
-        Optional<ProjectEntity> response = projectService.findById(id);
-        assertNotNull(response);
+        ProjectDetailDto response = projectService.findDetailById(id).orElseThrow();
 
+        assertThat(response.project(), is(project));
+        assertThat(response.activityCount(), is(4));
+        assertThat(response.finishedActivityCount(), is(1));
+
+        verify(projectRepositoryMock).findProgressById(id);
         verify(projectRepositoryMock).findById(id);
     }
 
+    @Test
+    public void should_not_read_the_project_when_searching_by_id_and_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.findProgressById(id)).thenReturn(Optional.empty());
+
+        assertTrue(projectService.findDetailById(id).isEmpty());
+
+        verify(projectRepositoryMock).findProgressById(id);
+    }
+
     @Test
     public void should_return_a_record_page_when_all_project_of_a_client_with_a_specific_status_are_consulted() {
         UUID id = UUID.randomUUID();
 
-        List<ProjectEntity> projetEntityList = List.of(new ProjectEntity());
+        List<ProjectProjection> projetEntityList = List.of(mock(ProjectProjection.class));
         PageRequest pageRequest = PageRequest.of(1, 10);
-        Page<ProjectEntity> pageProjects = new PageImpl<>(projetEntityList, pageRequest,
+        Page<ProjectProjection> pageProjects = new PageImpl<>(projetEntityList, pageRequest,
                 projetEntityList.size());
 
         when(projectRepositoryMock.findAllByClientIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN.getCode())))
                 .thenReturn(pageProjects);
 
-        Page<ProjectEntity> response = projectService.findByClientIdAndStatus(pageRequest, id, StatusEnum.OPEN);
+        Page<ProjectProjection> response = projectService.findByClientIdAndStatus(pageRequest, id, StatusEnum.OPEN);
 
         verify(projectRepositoryMock).findAllByClientIdAndStatus(any(PageRequest.class), eq(id), eq(StatusEnum.OPEN.getCode()));
         var returnedPageContentList = response.getContent();
@@ -95,14 +138,14 @@ class ProjectServiceTest {
 
     @Test
     public void should_return_a_record_page_with_all_project() {
-        List<ProjectEntity> projectEntityList = List.of(new ProjectEntity());
+        List<ProjectProjection> projectEntityList = List.of(mock(ProjectProjection.class));
         PageRequest pageRequest = PageRequest.of(1, 10);
-        Page<ProjectEntity> pageProjects = new PageImpl<>(projectEntityList, pageRequest, projectEntityList.size());
-        when(projectRepositoryMock.findAll(any(PageRequest.class))).thenReturn(pageProjects);
+        Page<ProjectProjection> pageProjects = new PageImpl<>(projectEntityList, pageRequest, projectEntityList.size());
+        when(projectRepositoryMock.findAllProjections(any(PageRequest.class))).thenReturn(pageProjects);
 
-        Page<ProjectEntity> response = projectService.findAll(pageRequest);
+        Page<ProjectProjection> response = projectService.findAll(pageRequest);
 
-        verify(projectRepositoryMock).findAll(pageRequest);
+        verify(projectRepositoryMock).findAllProjections(pageRequest);
         var returnedPageContentList = response.getContent();
         assertThat(response, is(notNullValue()));
         assertThat(returnedPageContentList.size(), is(1));
@@ -110,15 +153,15 @@ class ProjectServiceTest {
 
     @Test
     public void should_return_a_record_page_when_all_project_with_a_specific_status_are_consulted() {
-        List<ProjectEntity> projetEntityList = List.of(new ProjectEntity());
+        List<ProjectProjection> projetEntityList = List.of(mock(ProjectProjection.class));
         PageRequest pageRequest = PageRequest.of(1, 10);
-        Page<ProjectEntity> pageProjects = new PageImpl<>(projetEntityList, pageRequest,
+        Page<ProjectProjection> pageProjects = new PageImpl<>(projetEntityList, pageRequest,
                 projetEntityList.size());
 
         when(projectRepositoryMock.findAllByStatus(any(PageRequest.class), eq(StatusEnum.OPEN.getCode())))
                 .thenReturn(pageProjects);
 
-        Page<ProjectEntity> response = projectService.findAllByStatus(pageRequest, StatusEnum.OPEN);
+        Page<ProjectProjection> response = projectService.findAllByStatus(pageRequest, StatusEnum.OPEN);
 
         verify(projectRepositoryMock).findAllByStatus(any(PageRequest.class), eq(StatusEnum.OPEN.getCode()));
         var returnedPageContentList = response.getContent();
@@ -126,21 +169,103 @@ class ProjectServiceTest {
         assertThat(returnedPageContentList.size(), is(1));
     }
 
+    @Test
+    public void should_return_a_record_page_with_an_estimated_total_when_more_projects_follow() {
+        UUID id = UUID.randomUUID();
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Slice<ProjectProjection> sliceProjects = new SliceImpl<>(List.of(mock(ProjectProjection.class)), pageRequest, true);
+
+        when(projectRepositoryMock.findSliceByClientIdAndStatus(pageRequest, id, StatusEnum.OPEN.getCode()))
+                .thenReturn(sliceProjects);
+        when(rowEstimateRepositoryMock.estimateProjectsByClientIdAndStatus(id, StatusEnum.OPEN.getCode())).thenReturn(42L);
+
+        Page<ProjectProjection> response = projectService.findEstimatedByClientIdAndStatus(pageRequest, id, StatusEnum.OPEN);
+
+        assertThat(response.getTotalElements(), is(42L));
+
+        verify(projectRepositoryMock).findSliceByClientIdAndStatus(pageRequest, id, StatusEnum.OPEN.getCode());
+        verify(rowEstimateRepositoryMock).estimateProjectsByClientIdAndStatus(id, StatusEnum.OPEN.getCode());
+    }
+
+    @Test
+    public void should_not_estimate_fewer_projects_than_the_ones_already_read() {
+        PageRequest pageRequest = PageRequest.of(2, 10);
+        List<ProjectProjection> projectList = Collections.nCopies(10, mock(ProjectProjection.class));
+        Slice<ProjectProjection> sliceProjects = new SliceImpl<>(projectList, pageRequest, true);
+
+        when(projectRepositoryMock.findSliceAll(pageRequest)).thenReturn(sliceProjects);
+        when(rowEstimateRepositoryMock.estimateProjects()).thenReturn(5L);
+
+        Page<ProjectProjection> response = projectService.findEstimatedAll(pageRequest);
+
+        assertThat(response.getTotalElements(), is(31L));
+
+        verify(projectRepositoryMock).findSliceAll(pageRequest);
+        verify(rowEstimateRepositoryMock).estimateProjects();
+    }
+
+    @Test
+    public void should_not_estimate_the_total_when_the_projects_fit_in_the_first_page() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Slice<ProjectProjection> sliceProjects = new SliceImpl<>(List.of(mock(ProjectProjection.class)), pageRequest, false);
+
+        when(projectRepositoryMock.findSliceByStatus(pageRequest, StatusEnum.OPEN.getCode())).thenReturn(sliceProjects);
+
+        Page<ProjectProjection> response = projectService.findEstimatedAllByStatus(pageRequest, StatusEnum.OPEN);
+
+        assertThat(response.getTotalElements(), is(1L));
+
+        verify(projectRepositoryMock).findSliceByStatus(pageRequest, StatusEnum.OPEN.getCode());
+    }
+
+    @Test
+    public void should_return_the_first_slice_of_projects_with_a_specific_status_when_there_is_no_cursor() {
+        PageRequest pageRequest = PageRequest.ofSize(10);
+        Slice<ProjectProjection> sliceProjects = new SliceImpl<>(List.of(mock(ProjectProjection.class)), pageRequest, false);
+
+        when(projectRepositoryMock.findSliceByStatus(pageRequest, StatusEnum.OPEN.getCode())).thenReturn(sliceProjects);
+
+        Slice<ProjectProjection> response = projectService.findAllByStatusAfter(pageRequest, StatusEnum.OPEN, null);
+
+        verify(projectRepositoryMock).findSliceByStatus(pageRequest, StatusEnum.OPEN.getCode());
+        assertThat(response.getContent().size(), is(1));
+    }
+
+    @Test
+    public void should_seek_after_the_cursor_when_projects_of_a_client_with_a_specific_status_are_consulted() {
+        UUID id = UUID.randomUUID();
+        PageRequest pageRequest = PageRequest.ofSize(10);
+        PageCursor after = new PageCursor(LocalDateTime.of(2024, 6, 30, 19, 47), UUID.randomUUID());
+        Slice<ProjectProjection> sliceProjects = new SliceImpl<>(List.of(mock(ProjectProjection.class)), pageRequest, true);
+
+        when(projectRepositoryMock.findSliceByClientIdAndStatusAfter(pageRequest, id, StatusEnum.OPEN.getCode(),
+                after.creationDate(), after.id())).thenReturn(sliceProjects);
+
+        Slice<ProjectProjection> response = projectService.findByClientIdAndStatusAfter(pageRequest, id, StatusEnum.OPEN, after);
+
+        verify(projectRepositoryMock).findSliceByClientIdAndStatusAfter(pageRequest, id, StatusEnum.OPEN.getCode(),
+                after.creationDate(), after.id());
+        assertTrue(response.hasNext());
+        assertThat(response.getContent().size(), is(1));
+    }
+
     @Test
     public void should_add_a_project_when_client_exist_and_proyect_descripcion_is_unique() {
         UUID id = UUID.randomUUID();
 
-        when(clientRepositoryMock.findById(id)).thenReturn(Optional.of(ClientEntity.builder().build()));
-        when(projectRepositoryMock.existsByClientIdAndDescription(eq(id), any(String.class))).thenReturn(false);
-        when(projectRepositoryMock.save(any(ProjectEntity.class))).thenReturn(ProjectEntity.builder().build());
+        ClientEntity client = ClientEntity.builder().id(id).build();
+        when(clientRepositoryMock.findById(id)).thenReturn(Optional.of(client));
+        UUID projectId = UUID.randomUUID();
+        when(projectRepositoryMock.insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode()))
+                .thenReturn(Optional.of(ProjectEntity.builder().id(projectId).description("fake").build()));
 
         ProjectEntity response = projectService.add(id, ProjectEntity.builder().description("fake").build());
 
-        assertInstanceOf(ProjectEntity.class, response);
+        assertThat(response.getClient(), is(client));
 
         verify(clientRepositoryMock).findById(id);
-        verify(projectRepositoryMock).existsByClientIdAndDescription(eq(id), any(String.class));
-        verify(projectRepositoryMock).save(any(ProjectEntity.class));
+        verify(projectRepositoryMock).insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode());
+        verify(suggestionIndexMock).putProject(projectId, "fake", id);
     }
 
     @Test
@@ -158,44 +283,169 @@ class ProjectServiceTest {
         UUID id = UUID.randomUUID();
 
         when(clientRepositoryMock.findById(id)).thenReturn(Optional.of(ClientEntity.builder().build()));
-        when(projectRepositoryMock.existsByClientIdAndDescription(eq(id), any(String.class))).thenReturn(true);
+        when(projectRepositoryMock.insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode())).thenReturn(Optional.empty());
 
         assertThrows(ProjectExistent.class, () -> projectService.add(id, ProjectEntity.builder().description("fake").build()));
         verify(clientRepositoryMock).findById(id);
-        verify(projectRepositoryMock).existsByClientIdAndDescription(eq(id), any(String.class));
+        verify(projectRepositoryMock).insertIfAbsent(id, "fake", StatusEnum.OPEN.getCode());
+    }
+
+    @Test
+    public void should_not_update_a_project_to_the_description_of_another_one() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.updateById(id, "fake", null, null))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(ProjectExistent.class, () -> projectService.update(id, ProjectEntity.builder().description("fake").build(), null));
+        verify(projectRepositoryMock).updateById(id, "fake", null, null);
     }
 
     @Test
     public void should_update_a_project() {
-        when(projectRepositoryMock.save(any(ProjectEntity.class))).thenReturn(ProjectEntity.builder().build());
+        UUID id = UUID.randomUUID();
+
+        UUID clientId = UUID.randomUUID();
+        when(projectRepositoryMock.updateById(id, "fake", StatusEnum.FINISHED.getCode(), null)).thenReturn(Optional.of(ProjectEntity.builder()
+                .id(id).description("fake").client(ClientEntity.builder().id(clientId).build()).build()));
 
-        ProjectEntity response = projectService.update(ProjectEntity.builder().build());
+        Optional<ProjectEntity> response = projectService.update(id, ProjectEntity.builder().description("fake").status(StatusEnum.FINISHED).build(), null);
 
-        assertInstanceOf(ProjectEntity.class, response);
+        assertTrue(response.isPresent());
 
-        verify(projectRepositoryMock).save(any(ProjectEntity.class));
+        verify(projectRepositoryMock).updateById(id, "fake", StatusEnum.FINISHED.getCode(), null);
+        verify(suggestionIndexMock).putProject(id, "fake", clientId);
+    }
+
+    @Test
+    public void should_keep_the_status_when_updating_a_project_without_status() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.updateById(id, "fake", null, null)).thenReturn(Optional.empty());
+
+        Optional<ProjectEntity> response = projectService.update(id, ProjectEntity.builder().description("fake").build(), null);
+
+        assertTrue(response.isEmpty());
+
+        verify(projectRepositoryMock).updateById(id, "fake", null, null);
     }
 
     @Test
     public void should_update_the_status_of_a_project() {
         UUID id = UUID.randomUUID();
 
-        doNothing().when(projectRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode());
+        when(projectRepositoryMock.updateStatus(id, StatusEnum.OPEN.getCode(), null)).thenReturn(1);
+
+        Optional<String> response = projectService.updateStatus(id, StatusEnum.OPEN, null);
+
+        assertTrue(response.isPresent());
+        assertTrue("The project status was updated".equals(response.get()));
+
+        verify(projectRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode(), null);
+    }
+
+    @Test
+    public void should_not_update_the_status_of_a_project_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.updateStatus(id, StatusEnum.OPEN.getCode(), null)).thenReturn(0);
+
+        Optional<String> response = projectService.updateStatus(id, StatusEnum.OPEN, null);
+
+        assertTrue(response.isEmpty());
+
+        verify(projectRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode(), null);
+    }
+
+    @Test
+    public void should_update_the_status_of_many_projects_without_cascade() {
+        List<UUID> ids = List.of(UUID.randomUUID());
+
+        when(projectRepositoryMock.updateStatusByIdIn(ids.toArray(UUID[]::new), StatusEnum.FINISHED.getCode()))
+                .thenReturn(1);
+
+        BulkStatusResponseDto response = projectService.updateStatus(ids, StatusEnum.FINISHED, false);
+
+        assertThat(response, is(new BulkStatusResponseDto(StatusEnum.FINISHED, 1, 0)));
+
+        verify(projectRepositoryMock).updateStatusByIdIn(ids.toArray(UUID[]::new), StatusEnum.FINISHED.getCode());
+    }
+
+    @Test
+    public void should_update_the_status_of_many_projects_and_their_activities_with_cascade() {
+        List<UUID> ids = List.of(UUID.randomUUID());
+        BulkStatusProjection updated = mock(BulkStatusProjection.class);
+        when(updated.getProjects()).thenReturn(1L);
+        when(updated.getActivities()).thenReturn(4L);
+
+        when(projectRepositoryMock.updateStatusCascadeByIdIn(ids.toArray(UUID[]::new), StatusEnum.FINISHED.getCode()))
+                .thenReturn(updated);
 
-        String response = projectService.updateStatus(id, StatusEnum.OPEN);
+        BulkStatusResponseDto response = projectService.updateStatus(ids, StatusEnum.FINISHED, true);
 
-        assertInstanceOf(String.class, response);
-        assertTrue("The project status was updated".equals(response));
+        assertThat(response, is(new BulkStatusResponseDto(StatusEnum.FINISHED, 1, 4)));
 
-        verify(projectRepositoryMock).updateStatus(id, StatusEnum.OPEN.getCode());
+        verify(projectRepositoryMock).updateStatusCascadeByIdIn(ids.toArray(UUID[]::new), StatusEnum.FINISHED.getCode());
     }
 
     @Test
     public void should_delete_a_project() {
-        doNothing().when(projectRepositoryMock).delete(any(ProjectEntity.class));
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.removeById(id)).thenReturn(1);
+
+        assertTrue(projectService.delete(id));
+
+        verify(projectRepositoryMock).removeById(id);
+        verify(suggestionIndexMock).remove(id);
+    }
+
+    @Test
+    public void should_not_delete_a_project_when_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.removeById(id)).thenReturn(0);
+
+        assertFalse(projectService.delete(id));
+
+        verify(projectRepositoryMock).removeById(id);
+    }
+
+    @Test
+    public void should_return_the_summary_of_a_project_from_its_counters() {
+        UUID id = UUID.randomUUID();
+        List<StatusCountProjection> statusCounts = List.of(
+                statusCount(StatusCountProjection.ACTIVITIES, StatusEnum.IN_PROGRESS, 5));
+
+        when(projectRepositoryMock.findStatusCountsById(id)).thenReturn(statusCounts);
+
+        ProjectSummaryDto response = projectService.findSummaryById(id).orElseThrow();
+
+        assertThat(response.activities().get(StatusEnum.IN_PROGRESS), is(5L));
+        assertThat(response.activities().get(StatusEnum.OPEN), is(0L));
+
+        verify(projectRepositoryMock).findStatusCountsById(id);
+    }
+
+    @Test
+    public void should_not_return_a_summary_when_the_project_not_exist() {
+        UUID id = UUID.randomUUID();
+
+        when(projectRepositoryMock.findStatusCountsById(id)).thenReturn(List.of());
+        when(projectRepositoryMock.existsById(id)).thenReturn(false);
+
+        assertTrue(projectService.findSummaryById(id).isEmpty());
+
+        verify(projectRepositoryMock).findStatusCountsById(id);
+        verify(projectRepositoryMock).existsById(id);
+    }
 
-        projectService.delete(ProjectEntity.builder().id(UUID.randomUUID()).build());
+    private static StatusCountProjection statusCount(String kind, StatusEnum status, long total) {
+        StatusCountProjection statusCount = mock(StatusCountProjection.class);
+        when(statusCount.getKind()).thenReturn(kind);
+        when(statusCount.getStatus()).thenReturn(status.getCode());
+        when(statusCount.getTotal()).thenReturn(total);
 
-        verify(projectRepositoryMock).delete(any(ProjectEntity.class));
+        return statusCount;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.project.manager.service;
+
+import com.project.manager.repository.IActivityRepository;
+import com.project.manager.repository.IClientRepository;
+import com.project.manager.repository.IProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class PurgeServiceTest {
+
+    private final static int BATCH_SIZE = 2;
+
+    @Mock
+    private IClientRepository clientRepositoryMock;
+
+    @Mock
+    private IProjectRepository projectRepositoryMock;
+
+    @Mock
+    private IActivityRepository activityRepositoryMock;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(clientRepositoryMock);
+        verifyNoMoreInteractions(projectRepositoryMock);
+        verifyNoMoreInteractions(activityRepositoryMock);
+    }
+
+    @Test
+    public void should_purge_activities_then_those_of_deleted_projects_then_projects_then_clients_in_batches() {
+        PurgeService purgeService = new PurgeService(clientRepositoryMock, projectRepositoryMock, activityRepositoryMock,
+                Duration.ofMinutes(1), BATCH_SIZE, Duration.ZERO);
+
+        when(activityRepositoryMock.purgeBatch(BATCH_SIZE)).thenReturn(2, 1, 0);
+        when(activityRepositoryMock.purgeBatchOfDeletedProjects(BATCH_SIZE)).thenReturn(2, 0);
+        when(projectRepositoryMock.purgeBatch(BATCH_SIZE)).thenReturn(1, 0);
+        when(clientRepositoryMock.purgeBatch(BATCH_SIZE)).thenReturn(0);
+
+        purgeService.purge();
+
+        InOrder inOrder = inOrder(activityRepositoryMock, projectRepositoryMock, clientRepositoryMock);
+        inOrder.verify(activityRepositoryMock, times(3)).purgeBatch(BATCH_SIZE);
+        inOrder.verify(activityRepositoryMock, times(2)).purgeBatchOfDeletedProjects(BATCH_SIZE);
+        inOrder.verify(projectRepositoryMock, times(2)).purgeBatch(BATCH_SIZE);
+        inOrder.verify(clientRepositoryMock).purgeBatch(BATCH_SIZE);
+    }
+}
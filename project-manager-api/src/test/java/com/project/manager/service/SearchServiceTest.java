@@ -0,0 +1,71 @@
+package com.project.manager.service;
+
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.SearchCursor;
+import com.project.manager.dto.SearchResultDto;
+import com.project.manager.exception.InvalidSearchQuery;
+import com.project.manager.repository.SearchRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class SearchServiceTest {
+
+    @Mock
+    private SearchRepository searchRepositoryMock;
+
+    private SearchService searchService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        searchService = new SearchService(searchRepositoryMock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        verifyNoMoreInteractions(searchRepositoryMock);
+    }
+
+    @Test
+    public void should_search_with_the_stripped_text() {
+        UUID clientId = UUID.randomUUID();
+        PageRequest pageRequest = PageRequest.ofSize(10);
+        SearchCursor after = new SearchCursor(0.5f, UUID.randomUUID());
+        Slice<SearchResultDto> results = new SliceImpl<>(List.of(new SearchResultDto(SearchTypeEnum.PROJECT,
+                UUID.randomUUID(), "Warehouse migration", StatusEnum.OPEN, null, clientId, 0.1f)));
+
+        when(searchRepositoryMock.search(pageRequest, "warehouse", clientId, null, after)).thenReturn(results);
+
+        assertThat(searchService.search(pageRequest, "  warehouse ", clientId, null, after), is(results));
+        verify(searchRepositoryMock).search(pageRequest, "warehouse", clientId, null, after);
+    }
+
+    @Test
+    public void should_reject_a_blank_search_text() {
+        assertThrows(InvalidSearchQuery.class, () -> searchService.search(PageRequest.ofSize(10), " ", null, null, null));
+    }
+
+    @Test
+    public void should_reject_a_too_long_search_text() {
+        assertThrows(InvalidSearchQuery.class, () -> searchService.search(PageRequest.ofSize(10), "a".repeat(201), null,
+                null, null));
+    }
+}
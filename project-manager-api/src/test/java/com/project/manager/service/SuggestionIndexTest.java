@@ -0,0 +1,156 @@
+package com.project.manager.service;
+
+import com.project.manager.constant.SearchTypeEnum;
+import com.project.manager.dto.SuggestionDto;
+import com.project.manager.exception.InvalidSearchQuery;
+import com.project.manager.projection.SuggestionProjection;
+import com.project.manager.repository.IActivityRepository;
+import com.project.manager.repository.IProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class SuggestionIndexTest {
+
+    private final static UUID CLIENT_ID = UUID.randomUUID();
+    private final static UUID PROJECT_ID = UUID.randomUUID();
+    private final static UUID ACTIVITY_ID = UUID.randomUUID();
+
+    @Mock
+    private IProjectRepository projectRepositoryMock;
+
+    @Mock
+    private IActivityRepository activityRepositoryMock;
+
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private SuggestionIndex suggestionIndex;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        suggestionIndex = new SuggestionIndex(projectRepositoryMock, activityRepositoryMock, transactionManagerMock);
+        suggestionIndex.putProject(PROJECT_ID, "Warehouse migration", CLIENT_ID);
+        suggestionIndex.putActivity(ACTIVITY_ID, "Migrate the billing database", PROJECT_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifyNoMoreInteractions(projectRepositoryMock);
+        verifyNoMoreInteractions(activityRepositoryMock);
+    }
+
+    @Test
+    public void should_suggest_descriptions_with_a_word_starting_with_the_typed_text() {
+        assertThat(descriptions(suggestionIndex.suggest("wareh", null, null, 10)), contains("Warehouse migration"));
+        assertThat(descriptions(suggestionIndex.suggest("mig", null, null, 10)),
+                containsInAnyOrder("Warehouse migration", "Migrate the billing database"));
+    }
+
+    @Test
+    public void should_suggest_descriptions_despite_a_typo() {
+        List<SuggestionDto> suggestions = suggestionIndex.suggest("biling datab", null, null, 10);
+
+        assertThat(descriptions(suggestions), contains("Migrate the billing database"));
+        assertThat(suggestions.get(0).type(), is(SearchTypeEnum.ACTIVITY));
+        assertThat(suggestions.get(0).parentId(), is(PROJECT_ID));
+    }
+
+    @Test
+    public void should_rank_the_closest_description_first_and_limit_the_suggestions() {
+        suggestionIndex.putProject(UUID.randomUUID(), "Migration", CLIENT_ID);
+
+        assertThat(descriptions(suggestionIndex.suggest("migration", null, null, 1)), contains("Migration"));
+    }
+
+    @Test
+    public void should_suggest_within_a_client_or_a_project() {
+        assertThat(suggestionIndex.suggest("mig", UUID.randomUUID(), null, 10), is(empty()));
+        assertThat(suggestionIndex.suggest("mig", CLIENT_ID, null, 10).size(), is(2));
+        assertThat(descriptions(suggestionIndex.suggest("mig", null, PROJECT_ID, 10)),
+                contains("Migrate the billing database"));
+    }
+
+    @Test
+    public void should_follow_description_changes() {
+        suggestionIndex.putActivity(ACTIVITY_ID, "Payroll export", PROJECT_ID);
+
+        assertThat(descriptions(suggestionIndex.suggest("billing", null, null, 10)), is(empty()));
+        assertThat(descriptions(suggestionIndex.suggest("payroll", null, null, 10)), contains("Payroll export"));
+    }
+
+    @Test
+    public void should_drop_the_activities_of_a_removed_project() {
+        suggestionIndex.remove(PROJECT_ID);
+
+        assertThat(suggestionIndex.suggest("mig", null, null, 10), is(empty()));
+    }
+
+    @Test
+    public void should_drop_the_projects_and_activities_of_a_removed_client() {
+        suggestionIndex.removeClient(CLIENT_ID);
+
+        assertThat(suggestionIndex.suggest("mig", null, null, 10), is(empty()));
+    }
+
+    @Test
+    public void should_add_imported_projects_and_activities_without_a_reload() {
+        UUID projectId = UUID.randomUUID();
+
+        suggestionIndex.putProjects(List.of(new SuggestionProjection(projectId, "Catalog redesign", CLIENT_ID)));
+        suggestionIndex.putActivities(List.of(new SuggestionProjection(UUID.randomUUID(), "Catalog photos", projectId)));
+
+        assertThat(descriptions(suggestionIndex.suggest("catal", CLIENT_ID, null, 10)),
+                containsInAnyOrder("Catalog redesign", "Catalog photos"));
+    }
+
+    @Test
+    public void should_replace_the_index_on_reload() {
+        UUID projectId = UUID.randomUUID();
+        SuggestionProjection project = new SuggestionProjection(projectId, "Catalog redesign", CLIENT_ID);
+
+        when(projectRepositoryMock.streamAllSuggestions()).thenReturn(Stream.of(project));
+        when(activityRepositoryMock.streamAllSuggestions()).thenReturn(Stream.empty());
+
+        suggestionIndex.reload();
+
+        assertThat(suggestionIndex.suggest("mig", null, null, 10), is(empty()));
+        assertThat(descriptions(suggestionIndex.suggest("catal", CLIENT_ID, null, 10)), contains("Catalog redesign"));
+
+        verify(projectRepositoryMock).streamAllSuggestions();
+        verify(activityRepositoryMock).streamAllSuggestions();
+    }
+
+    @Test
+    public void should_not_suggest_for_a_blank_text() {
+        assertThat(suggestionIndex.suggest(" - ", null, null, 10), is(empty()));
+    }
+
+    @Test
+    public void should_reject_a_too_long_text() {
+        assertThrows(InvalidSearchQuery.class, () -> suggestionIndex.suggest("a".repeat(101), null, null, 10));
+    }
+
+    private static List<String> descriptions(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::description).toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.manager.bench;
+
+import com.project.manager.ProjectManagerApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+/**
+ * Starts the API against the local Postgres configured in its application.properties and seeds one client with a
+ * project holding {@link #SEEDED_ACTIVITIES} activities, removed again when the trial ends.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    public final static UUID CLIENT_ID = UUID.fromString("be0c4000-0000-4000-8000-000000000001");
+    public final static UUID PROJECT_ID = UUID.fromString("be0c4000-0000-4000-8000-000000000002");
+    public final static int SEEDED_ACTIVITIES = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private UUID activityId;
+    private String activityVersionTag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProjectManagerApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "spring.main.banner-mode=off",
+                        "project-manager.sql-log.sample-rate=0",
+                        "logging.level.root=WARN")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        seed();
+        activityId = jdbcTemplate.queryForObject("SELECT id FROM tb_activity WHERE project_id = ? "
+                + "ORDER BY creation_date, id LIMIT 1", UUID.class, PROJECT_ID);
+        activityVersionTag = jdbcTemplate.queryForObject("SELECT concat_ws('.', a.version, p.version, c.version) "
+                + "FROM tb_activity a JOIN tb_project p ON p.id = a.project_id JOIN tb_client c ON c.id = p.client_id "
+                + "WHERE a.id = ?", String.class, activityId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM tb_client WHERE id = ?", CLIENT_ID);
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    public UUID getActivityId() {
+        return activityId;
+    }
+
+    public String getActivityVersionTag() {
+        return activityVersionTag;
+    }
+
+    private void seed() {
+        jdbcTemplate.update("DELETE FROM tb_client WHERE id = ?", CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_client (id, name, creation_date, update_date) "
+                + "VALUES (?, 'Bench client', now(), now())", CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_project (id, client_id, description, status, creation_date, update_date) "
+                + "VALUES (?, ?, 'Bench project', 'O', now(), now())", PROJECT_ID, CLIENT_ID);
+        jdbcTemplate.update("INSERT INTO tb_activity (id, project_id, description, status, creation_date, update_date) "
+                + "SELECT gen_random_uuid(), ?, 'Bench activity ' || n, CASE WHEN n % 2 = 0 THEN 'O' ELSE 'F' END, "
+                + "now() - make_interval(secs => n), now() FROM generate_series(1, ?) n", PROJECT_ID, SEEDED_ACTIVITIES);
+        jdbcTemplate.execute("ANALYZE tb_activity");
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.manager.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Sends requests through the whole Spring MVC stack (handler mapping, argument conversion, validation, service,
+ * repository and message conversion) without the network, against the seeded project.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmark {
+
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) application.getContext()).build();
+    }
+
+    @Benchmark
+    public MvcResult getCachedActivity(ApplicationState application) throws Exception {
+        return mockMvc.perform(get("/activity/id/{id}", application.getActivityId())).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getNotModifiedActivity(ApplicationState application) throws Exception {
+        return mockMvc.perform(get("/activity/id/{id}", application.getActivityId())
+                .header(HttpHeaders.IF_NONE_MATCH, '"' + application.getActivityVersionTag() + '"')).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getActivitiesPageWithoutCount() throws Exception {
+        return mockMvc.perform(get("/activity/all/{projectid}", ApplicationState.PROJECT_ID)
+                .param("size", "20")
+                .param("count", "none")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getActivitiesPageWithExactCount() throws Exception {
+        return mockMvc.perform(get("/activity/all/{projectid}", ApplicationState.PROJECT_ID)
+                .param("size", "20")
+                .param("count", "exact")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getActivitiesByStatusAfterCursor() throws Exception {
+        return mockMvc.perform(get("/activity/all/{projectid}/{status}", ApplicationState.PROJECT_ID, "open")
+                .param("size", "20")
+                .param("after", "")).andReturn();
+    }
+}
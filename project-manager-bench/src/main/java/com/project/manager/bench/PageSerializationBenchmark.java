@@ -0,0 +1,108 @@
+package com.project.manager.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.manager.config.PersistenceJPAConfig;
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.dto.ActivityResponseDto;
+import com.project.manager.dto.PageRecordDto;
+import com.project.manager.entity.ActivityEntity;
+import com.project.manager.entity.ClientEntity;
+import com.project.manager.entity.ProjectEntity;
+import com.project.manager.mapper.ActivityMapper;
+import com.project.manager.mapper.ActivityMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serializes one page of activities as entities, with their project and client, and as response DTOs, using the
+ * same object mapper modules as the API.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new PersistenceJPAConfig().hibernateModule())
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ActivityMapper activityMapper = new ActivityMapperImpl();
+
+    private Page<ActivityEntity> entityPage;
+    private Page<ActivityResponseDto> dtoPage;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        ClientEntity client = ClientEntity.builder()
+                .id(UUID.randomUUID())
+                .name("Bench client")
+                .creationDate(now)
+                .updateDate(now)
+                .version(0L)
+                .build();
+        ProjectEntity project = ProjectEntity.builder()
+                .id(UUID.randomUUID())
+                .description("Bench project")
+                .status(StatusEnum.OPEN)
+                .creationDate(now)
+                .updateDate(now)
+                .version(0L)
+                .client(client)
+                .build();
+
+        entityPage = new PageImpl<>(IntStream.range(0, pageSize)
+                .mapToObj(index -> ActivityEntity.builder()
+                        .id(UUID.randomUUID())
+                        .description("Bench activity " + index)
+                        .status(StatusEnum.OPEN)
+                        .creationDate(now)
+                        .updateDate(now)
+                        .version(0L)
+                        .project(project)
+                        .build())
+                .toList(), PageRequest.of(0, pageSize), 10_000);
+        dtoPage = entityPage.map(activityMapper::toResponse);
+    }
+
+    @Benchmark
+    public String serializeEntities() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(PageRecordDto.of(entityPage));
+    }
+
+    @Benchmark
+    public String serializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(PageRecordDto.of(dtoPage));
+    }
+
+    @Benchmark
+    public String mapAndSerializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(PageRecordDto.of(entityPage.map(activityMapper::toResponse)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.manager.bench;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.projection.ActivityProjection;
+import com.project.manager.repository.IActivityRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the activity repository queries behind the list endpoints directly, so their cost can be told apart from the
+ * web layer measured by {@link ControllerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private final static PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+    private final static PageRequest MIDDLE_PAGE = PageRequest.of(ApplicationState.SEEDED_ACTIVITIES / 40, 20);
+
+    private IActivityRepository activityRepository;
+    private LocalDateTime middleCreationDate;
+    private UUID middleId;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        activityRepository = application.getBean(IActivityRepository.class);
+
+        ActivityProjection middle = activityRepository.findSliceByProjectId(MIDDLE_PAGE, ApplicationState.PROJECT_ID)
+                .getContent().get(0);
+        middleCreationDate = middle.getCreationDate();
+        middleId = middle.getId();
+    }
+
+    @Benchmark
+    public Optional<String> findVersionTagById(ApplicationState application) {
+        return activityRepository.findVersionTagById(application.getActivityId());
+    }
+
+    @Benchmark
+    public Page<ActivityProjection> findFirstPageWithCount() {
+        return activityRepository.findAllByProjectId(FIRST_PAGE, ApplicationState.PROJECT_ID);
+    }
+
+    @Benchmark
+    public Slice<ActivityProjection> findFirstSlice() {
+        return activityRepository.findSliceByProjectId(FIRST_PAGE, ApplicationState.PROJECT_ID);
+    }
+
+    @Benchmark
+    public Slice<ActivityProjection> findMiddleSliceByOffset() {
+        return activityRepository.findSliceByProjectId(MIDDLE_PAGE, ApplicationState.PROJECT_ID);
+    }
+
+    @Benchmark
+    public Slice<ActivityProjection> findMiddleSliceByCursor() {
+        return activityRepository.findSliceByProjectIdAfter(FIRST_PAGE, ApplicationState.PROJECT_ID, middleCreationDate,
+                middleId);
+    }
+
+    @Benchmark
+    public Page<ActivityProjection> findFirstPageByStatusWithCount() {
+        return activityRepository.findAllByProjectIdAndStatus(FIRST_PAGE, ApplicationState.PROJECT_ID,
+                StatusEnum.OPEN.getCode());
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.manager.bench;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.convert.StatusConvert;
+import com.project.manager.convert.StringToEnumConvert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.convert.converter.Converter;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusConvertBenchmark {
+
+    @Param({"OPEN", "FINISHED"})
+    private StatusEnum status;
+
+    private final StatusConvert statusConvert = new StatusConvert();
+    private final Converter<String, StatusEnum> stringToStatus = new StringToEnumConvert().getConverter(StatusEnum.class);
+
+    private String code;
+    private String pathValue;
+
+    @Setup
+    public void setUp() {
+        code = status.getCode();
+        pathValue = status.name().toLowerCase();
+    }
+
+    @Benchmark
+    public String convertToDatabaseColumn() {
+        return statusConvert.convertToDatabaseColumn(status);
+    }
+
+    @Benchmark
+    public StatusEnum convertToEntityAttribute() {
+        return statusConvert.convertToEntityAttribute(code);
+    }
+
+    @Benchmark
+    public StatusEnum convertPathVariable() {
+        return stringToStatus.convert(pathValue);
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.manager.bench;
+
+import com.project.manager.constant.StatusEnum;
+import com.project.manager.convert.StatusConvert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Decodes {@link #ROWS} status codes already read into Strings and reports the cost per row. It measures the decode
+ * step alone: no JDBC read takes place, and pgjdbc still allocates a String per row for the char(1) column. The stream
+ * lookup is the decoding StatusEnum used before the code table, kept as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusHydrationBenchmark {
+
+    private final static int ROWS = 10_000;
+
+    private final StatusConvert statusConvert = new StatusConvert();
+    private final String[] codes = new String[ROWS];
+
+    @Setup
+    public void setUp() {
+        StatusEnum[] statuses = StatusEnum.values();
+        for (int row = 0; row < ROWS; row++) {
+            codes[row] = new String(statuses[row % statuses.length].getCode());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void decodeRows(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(statusConvert.convertToEntityAttribute(code));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void decodeRowsWithStreamLookup(Blackhole blackhole) {
+        for (String code : codes) {
+            blackhole.consume(Stream.of(StatusEnum.values())
+                    .filter(status -> status.getCode().equals(code))
+                    .findFirst()
+                    .orElseThrow(IllegalArgumentException::new));
+        }
+    }
+}